@@ -0,0 +1,74 @@
+/**
+ * ClientUriBenchmark
+ */
+package com.dbs.lib.benchmark;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.dbs.lib.service.AbstractClient;
+
+/**
+ * URI of the userGet call: full {@link UriComponentsBuilder} pipeline as before 1.2.0 against the precomputed path of {@link AbstractClient}
+ *
+ * @author dbs at 18 Oct 2026 21:30:52
+ * @since 1.2.0
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ClientUriBenchmark {
+
+  Client client;
+  MultiValueMap<String, String> params;
+
+  @Setup
+  public void setup() {
+    client = new Client();
+    client.setParams("https", "support.example.co.id", 8443, null);
+    params = new LinkedMultiValueMap<>();
+    params.add("login", "john.doe@example.co.id");
+  }
+
+  @Benchmark
+  public URI uriComponentsBuilder() {
+    return UriComponentsBuilder.newInstance()
+        .scheme(client.getScheme())
+        .host(client.getHost())
+        .port(client.getPort())
+        .path(client.getPathUserGet())
+        .queryParams(params)
+        .build()
+        .encode()
+        .toUri();
+  }
+
+  @Benchmark
+  public URI buildUri() throws UnsupportedEncodingException {
+    return client.uri(params);
+  }
+
+  static class Client extends AbstractClient {
+    Client() {
+      super(new RestTemplate());
+    }
+
+    URI uri(MultiValueMap<String, String> params) throws UnsupportedEncodingException {
+      return buildUri(pathUserGet, params);
+    }
+  }
+}
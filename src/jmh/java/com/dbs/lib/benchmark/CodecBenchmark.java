@@ -0,0 +1,157 @@
+/**
+ * CodecBenchmark
+ */
+package com.dbs.lib.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.client.HttpMessageConverterExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import com.dbs.lib.dto.SimpleResponse;
+import com.dbs.lib.dto.UserDto;
+import com.dbs.lib.dto.enumeration.ErrorCode;
+import com.dbs.lib.service.AbstractClient;
+import com.dbs.lib.service.client.CodecRegistry;
+
+/**
+ * JSON body of the userGet call: message converters of the {@link RestTemplate} scanned on each exchange as before 1.2.0
+ * against the cached reader and writer of {@link CodecRegistry}
+ *
+ * @author dbs at 19 Oct 2026 03:12:40
+ * @since 1.2.0
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CodecBenchmark {
+
+  RestTemplate restTemplate;
+  CodecRegistry codecs;
+  SimpleResponse<UserDto> value;
+  byte[] json;
+  HttpHeaders headers;
+
+  @Setup
+  public void setup() throws IOException {
+    restTemplate = new RestTemplate();
+    codecs = CodecRegistry.of(restTemplate);
+    UserDto user = new UserDto("john.doe@example.co.id", "John", "Doe", "john.doe@example.co.id", true, "en",
+        new HashSet<>(Arrays.asList("ROLE_USER", "ROLE_SUPPORT")));
+    value = new SimpleResponse<>(ErrorCode.success, "user found");
+    value.setData(user);
+    json = codecs.writer(SimpleResponse.class).writeValueAsBytes(value);
+    headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_JSON);
+    headers.setContentLength(json.length);
+  }
+
+  @Benchmark
+  public SimpleResponse<UserDto> readConverters() throws IOException {
+    return new HttpMessageConverterExtractor<SimpleResponse<UserDto>>(AbstractClient.typeUserDto.getType(), restTemplate.getMessageConverters())
+        .extractData(new Response(json, headers));
+  }
+
+  @Benchmark
+  public SimpleResponse<UserDto> readCodecs() throws IOException {
+    return codecs.read(AbstractClient.typeUserDto, new Response(json, headers));
+  }
+
+  @Benchmark
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  public ByteArrayOutputStream writeConverters() throws IOException {
+    Request request = new Request();
+    for (HttpMessageConverter<?> converter : restTemplate.getMessageConverters()) {
+      if (converter instanceof GenericHttpMessageConverter
+          && ((GenericHttpMessageConverter) converter).canWrite(value.getClass(), value.getClass(), MediaType.APPLICATION_JSON)) {
+        ((GenericHttpMessageConverter) converter).write(value, value.getClass(), MediaType.APPLICATION_JSON, request);
+        return request.body;
+      }
+    }
+    throw new IllegalStateException("no JSON converter");
+  }
+
+  @Benchmark
+  public ByteArrayOutputStream writeCodecs() throws IOException {
+    Request request = new Request();
+    request.headers.setContentType(MediaType.APPLICATION_JSON);
+    codecs.writer(value.getClass()).writeValue(request.getBody(), value);
+    return request.body;
+  }
+
+  static class Request implements HttpOutputMessage {
+    final HttpHeaders headers = new HttpHeaders();
+    final ByteArrayOutputStream body = new ByteArrayOutputStream(512);
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return headers;
+    }
+
+    @Override
+    public OutputStream getBody() {
+      return body;
+    }
+  }
+
+  static class Response implements ClientHttpResponse {
+    final byte[] body;
+    final HttpHeaders headers;
+
+    Response(byte[] body, HttpHeaders headers) {
+      this.body = body;
+      this.headers = headers;
+    }
+
+    @Override
+    public InputStream getBody() {
+      return new ByteArrayInputStream(body);
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return headers;
+    }
+
+    @Override
+    public HttpStatus getStatusCode() {
+      return HttpStatus.OK;
+    }
+
+    @Override
+    public int getRawStatusCode() {
+      return HttpStatus.OK.value();
+    }
+
+    @Override
+    public String getStatusText() {
+      return HttpStatus.OK.getReasonPhrase();
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
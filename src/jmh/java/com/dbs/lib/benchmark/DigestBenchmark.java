@@ -0,0 +1,55 @@
+/**
+ * DigestBenchmark
+ */
+package com.dbs.lib.benchmark;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.dbs.lib.security.DigestAlgorithm;
+import com.dbs.lib.security.DigestUtils;
+
+/**
+ * {@link DigestUtils#hash(DigestAlgorithm, String)} for every {@link DigestAlgorithm}, on a MSISDN and on a 1 KB payload
+ *
+ * @author dbs at 18 Oct 2026 19:02:31
+ * @since 1.2.0
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DigestBenchmark {
+
+  @Param
+  DigestAlgorithm algorithm;
+
+  @Param({ "13", "1024" })
+  int length;
+
+  String input;
+
+  @Setup
+  public void setup() throws NoSuchAlgorithmException {
+    StringBuilder sb = new StringBuilder(length);
+    while (sb.length() < length) {
+      sb.append("6282881390158");
+    }
+    input = sb.substring(0, length);
+    DigestUtils.warmUp(algorithm);
+  }
+
+  @Benchmark
+  public String hash() throws NoSuchAlgorithmException {
+    return DigestUtils.hash(algorithm, input);
+  }
+}
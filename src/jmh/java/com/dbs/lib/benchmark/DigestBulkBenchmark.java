@@ -0,0 +1,61 @@
+/**
+ * DigestBulkBenchmark
+ */
+package com.dbs.lib.benchmark;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.dbs.lib.security.DigestAlgorithm;
+import com.dbs.lib.security.DigestUtils;
+
+/**
+ * pseudonymize a batch of MSISDN with SHA-256: single call loop against {@link DigestUtils#hashAll(DigestAlgorithm, java.util.Collection)}
+ *
+ * @author dbs at 18 Oct 2026 14:05:12
+ * @since 1.2.0
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DigestBulkBenchmark {
+
+  @Param({ "10000", "1000000" })
+  int size;
+
+  List<String> msisdns;
+
+  @Setup
+  public void setup() {
+    msisdns = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      msisdns.add(String.format("62%011d", 81200000000L + i));
+    }
+  }
+
+  @Benchmark
+  public List<String> loop() throws NoSuchAlgorithmException {
+    List<String> hashes = new ArrayList<>(msisdns.size());
+    for (String msisdn : msisdns) {
+      hashes.add(DigestUtils.sha256(msisdn));
+    }
+    return hashes;
+  }
+
+  @Benchmark
+  public List<String> hashAll() throws NoSuchAlgorithmException {
+    return DigestUtils.hashAll(DigestAlgorithm.SHA256, msisdns);
+  }
+}
@@ -0,0 +1,55 @@
+/**
+ * DigestStartupBenchmark
+ */
+package com.dbs.lib.benchmark;
+
+import java.security.MessageDigest;
+import java.security.Security;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Cipher;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dbs.lib.security.DigestUtils;
+
+/**
+ * cost of the first SHA-256 in a fresh JVM: eager initialization of all digests and ciphers as done before 1.2.0,
+ * against the lazy per algorithm initialization of {@link DigestUtils}
+ *
+ * @author dbs at 18 Oct 2026 17:40:03
+ * @since 1.2.0
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(10)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class DigestStartupBenchmark {
+
+  @Benchmark
+  public String eagerFirstSha256() throws Exception {
+    Security.addProvider(new BouncyCastleProvider());
+    for (String algorithm : new String[] { "SHA1", "MD5", "SHA-256", "SHA-384", "SHA-512", "Blake2b-160", "Blake2b-256", "Blake2b-384", "Blake2b-512" }) {
+      MessageDigest.getInstance(algorithm);
+    }
+    for (String transformation : new String[] { "AES", "AES_128/GCM/NoPadding", "AES_128/OFB/NoPadding", "AES_128/CFB/NoPadding",
+        "AES_128/ECB/NoPadding", "AES_128/CBC/NoPadding", "AES/CBC/PKCS5Padding", "AES/CTR/NoPadding" }) {
+      Cipher.getInstance(transformation);
+    }
+    return DigestUtils.sha256("6282881390158");
+  }
+
+  @Benchmark
+  public String lazyFirstSha256() throws Exception {
+    return DigestUtils.sha256("6282881390158");
+  }
+}
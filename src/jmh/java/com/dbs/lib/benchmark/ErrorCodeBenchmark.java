@@ -0,0 +1,37 @@
+/**
+ * ErrorCodeBenchmark
+ */
+package com.dbs.lib.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import com.dbs.lib.dto.enumeration.ErrorCode;
+
+/**
+ * {@link ErrorCode#find(int)} on the first, the last and an unknown code
+ *
+ * @author dbs at 18 Oct 2026 19:21:40
+ * @since 1.2.0
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ErrorCodeBenchmark {
+
+  @Param({ "-1", "10000", "999" })
+  int code;
+
+  @Benchmark
+  public ErrorCode find() {
+    return ErrorCode.find(code);
+  }
+}
@@ -0,0 +1,50 @@
+/**
+ * ExcelColumnBenchmark
+ */
+package com.dbs.lib.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.dbs.lib.spreadsheet.ExcelColumn;
+
+/**
+ * {@link ExcelColumn} conversions, from first column to the last one of a xlsx sheet
+ *
+ * @author dbs at 18 Oct 2026 19:14:05
+ * @since 1.2.0
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExcelColumnBenchmark {
+
+  @Param({ "1", "702", "16384" })
+  int number;
+
+  String name;
+
+  @Setup
+  public void setup() {
+    name = ExcelColumn.toName(number);
+  }
+
+  @Benchmark
+  public String toName() {
+    return ExcelColumn.toName(number);
+  }
+
+  @Benchmark
+  public int toNumber() {
+    return ExcelColumn.toNumber(name);
+  }
+}
@@ -0,0 +1,39 @@
+/**
+ * JpaUtilsBenchmark
+ */
+package com.dbs.lib.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import com.dbs.lib.jpa.JpaUtils;
+
+/**
+ * {@link JpaUtils#createCountQueryString(String)} on a short query and on a paging query with joins
+ *
+ * @author dbs at 18 Oct 2026 19:18:22
+ * @since 1.2.0
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JpaUtilsBenchmark {
+
+  @Param({ "select u from User u where u.active = true",
+      "select distinct u.id, u.login, a.city, r.name from User u left join u.address a join u.roles r "
+          + "where u.active = true and lower(u.login) like :login and r.name in (:roles) order by u.login asc" })
+  String query;
+
+  @Benchmark
+  public String createCountQueryString() {
+    return JpaUtils.createCountQueryString(query);
+  }
+}
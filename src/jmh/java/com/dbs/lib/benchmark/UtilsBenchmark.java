@@ -0,0 +1,53 @@
+/**
+ * UtilsBenchmark
+ */
+package com.dbs.lib.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import com.dbs.lib.Utils;
+
+/**
+ * string cleaning and validation helpers of {@link Utils}
+ *
+ * @author dbs at 18 Oct 2026 19:10:48
+ * @since 1.2.0
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UtilsBenchmark {
+
+  String name = "PT. Sinar-Jaya (Persero) Tbk, Jl. Jend. Sudirman #12";
+  String log = "user login failed\r\nuser=admin\rip=10.0.0.1 forged entry\n";
+  String mobile = "+6281288139015";
+  String landline = "021-5551234";
+
+  @Benchmark
+  public String removeAllNonAlphanumeric() {
+    return Utils.removeAllNonAlphanumeric(name);
+  }
+
+  @Benchmark
+  public String replaceAllCrLf() {
+    return Utils.replaceAllCrLf(log, " ");
+  }
+
+  @Benchmark
+  public boolean isValidIndoNumber() {
+    return Utils.isValidIndoNumber(mobile);
+  }
+
+  @Benchmark
+  public boolean isValidIndoNumberInvalid() {
+    return Utils.isValidIndoNumber(landline);
+  }
+}
@@ -0,0 +1,82 @@
+/**
+ * WireFormatBenchmark
+ */
+package com.dbs.lib.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.web.client.RestTemplate;
+
+import com.dbs.lib.dto.SimpleResponse;
+import com.dbs.lib.dto.UserDto;
+import com.dbs.lib.dto.enumeration.ErrorCode;
+import com.dbs.lib.service.AbstractClient;
+import com.dbs.lib.service.client.CodecRegistry;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * batch response of userCreateBatch in JSON, Smile and CBOR, the encoded size is printed at setup
+ *
+ * @author dbs at 19 Oct 2026 03:46:21
+ * @since 1.2.0
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WireFormatBenchmark {
+
+  @Param({ "json", "smile", "cbor" })
+  String format;
+
+  @Param({ "1", "100" })
+  int users;
+
+  SimpleResponse<List<SimpleResponse<UserDto>>> value;
+  ObjectReader reader;
+  ObjectWriter writer;
+  byte[] encoded;
+
+  @Setup
+  public void setup() throws IOException {
+    CodecRegistry codecs = "smile".equals(format) ? CodecRegistry.smile()
+        : "cbor".equals(format) ? CodecRegistry.cbor() : CodecRegistry.of(new RestTemplate());
+    List<SimpleResponse<UserDto>> data = new ArrayList<>();
+    for (int i = 0; i < users; i++) {
+      SimpleResponse<UserDto> resp = new SimpleResponse<>(ErrorCode.success, "ok");
+      resp.setData(new UserDto("user" + i + "@example.co.id", "John", "Doe " + i, "user" + i + "@example.co.id", true, "en",
+          new HashSet<>(Arrays.asList("ROLE_USER", "ROLE_SUPPORT"))));
+      data.add(resp);
+    }
+    value = new SimpleResponse<>(ErrorCode.success, "ok");
+    value.setData(data);
+    reader = codecs.reader(AbstractClient.typeUserDtoBatch);
+    writer = codecs.writer(SimpleResponse.class);
+    encoded = writer.writeValueAsBytes(value);
+    System.out.println(String.format("%n%s, %d users: %d bytes", format, users, encoded.length));
+  }
+
+  @Benchmark
+  public SimpleResponse<List<SimpleResponse<UserDto>>> read() throws IOException {
+    return reader.readValue(encoded);
+  }
+
+  @Benchmark
+  public byte[] write() throws IOException {
+    return writer.writeValueAsBytes(value);
+  }
+}
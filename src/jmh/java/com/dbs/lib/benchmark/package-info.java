@@ -0,0 +1,12 @@
+/**
+ * JMH benchmarks, run with the benchmark profile
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="DigestBulkBenchmark -f 1"
+ * </pre>
+ * results are exported as JSON in target/jmh-result-${project.version}.json, keep them to compare releases.
+ *
+ * @author dbs at 18 Oct 2026 14:05:12
+ * @since 1.2.0
+ * @version 1.0
+ */
+package com.dbs.lib.benchmark;
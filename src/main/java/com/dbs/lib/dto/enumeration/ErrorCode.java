@@ -16,6 +16,8 @@ import com.fasterxml.jackson.annotation.JsonValue;
  * @since 1.0.0
  * @version 1.0
  * @version 1.1 add {@link #getByHttpStatus()}
+ * @version 1.2 add {@link #unavailable}
+ * @version 1.3 add {@link #tooManyRequests}
  *
  *     does not overlap with {@link org.springframework.http.HttpStatus}<br>
  */
@@ -50,6 +52,15 @@ public enum ErrorCode  implements Iterable<String>, Comparator<ErrorCode> {
    * 50 duplicate
    */
   dup(50, "duplicate", "", HttpStatus.EXPECTATION_FAILED),
+  /**
+   * 503 service unavailable, the call was not sent, ie circuit breaker open
+   */
+  unavailable(503, "Service unavailable", "The service is temporarily unavailable, retry later", HttpStatus.SERVICE_UNAVAILABLE),
+  /**
+   * 429 too many requests, the call was not sent, ie client bulkhead full or rate limit reached
+   */
+  tooManyRequests(429, "Too many requests", "The client limit of concurrent calls or calls per second is reached, retry later",
+      HttpStatus.TOO_MANY_REQUESTS),
   
   /**
    * 10000
@@ -0,0 +1,338 @@
+/**
+ * AeadService
+ */
+package com.dbs.lib.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * authenticated encryption with AES-GCM, a random nonce is drawn for every message<br>
+ * the encrypted form is nonce (12 bytes) || ciphertext || tag (16 bytes), see {@link #encryptedLength(int)}.
+ * Each thread reuses its own {@link Cipher} and {@link SecureRandom}, one instance can be shared by any number of threads.
+ * <pre>
+ * AeadService aead = new AeadService(key);
+ * byte[] sealed = aead.encrypt(plain);
+ * byte[] plain = aead.decrypt(sealed);
+ * </pre>
+ * The {@link ByteBuffer} variants write into the caller buffers, to encrypt large exports without intermediate byte[].
+ *
+ * @author dbs at 18 Oct 2026 18:05:44
+ * @since 1.2.0
+ * @version 1.0
+ */
+public class AeadService {
+
+  /**
+   * JCA transformation
+   */
+  public static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+  /**
+   * nonce length in bytes, as recommended for GCM
+   */
+  public static final int NONCE_LENGTH = 12;
+
+  /**
+   * authentication tag length in bytes
+   */
+  public static final int TAG_LENGTH = 16;
+
+  private static final ThreadLocal<SecureRandom> randoms = ThreadLocal.withInitial(SecureRandom::new);
+
+  private final SecretKey key;
+  private final ThreadLocal<Cipher> ciphers = new ThreadLocal<>();
+
+  /**
+   * @param key AES key of 16, 24 or 32 bytes
+   */
+  public AeadService(byte[] key) {
+    this(new SecretKeySpec(checkKey(key), DigestUtils.AES));
+  }
+
+  /**
+   * @param key AES {@link SecretKey}
+   */
+  public AeadService(SecretKey key) {
+    if (null == key) {
+      throw new IllegalArgumentException("key must not be null");
+    }
+    this.key = key;
+  }
+
+  /**
+   * @param bits 128, 192 or 256
+   * @return a new random AES key
+   */
+  public static byte[] generateKey(int bits) {
+    byte[] key = new byte[bits / 8];
+    randoms.get().nextBytes(key);
+    return checkKey(key);
+  }
+
+  /**
+   * @param plainLength length of the plain text
+   * @return length of the encrypted form
+   */
+  public static int encryptedLength(int plainLength) {
+    return NONCE_LENGTH + plainLength + TAG_LENGTH;
+  }
+
+  /**
+   * @param encryptedLength length of the encrypted form
+   * @return length of the plain text
+   */
+  public static int decryptedLength(int encryptedLength) {
+    return encryptedLength - NONCE_LENGTH - TAG_LENGTH;
+  }
+
+  /**
+   * @param plain to encrypt
+   * @return nonce || ciphertext || tag
+   * @throws GeneralSecurityException if AES-GCM is not available
+   */
+  public byte[] encrypt(byte[] plain) throws GeneralSecurityException {
+    return encrypt(plain, null);
+  }
+
+  /**
+   * @param plain to encrypt
+   * @param aad additional authenticated data, null proof
+   * @return nonce || ciphertext || tag
+   * @throws GeneralSecurityException if AES-GCM is not available
+   */
+  public byte[] encrypt(byte[] plain, byte[] aad) throws GeneralSecurityException {
+    byte[] out = new byte[encryptedLength(plain.length)];
+    encrypt(ByteBuffer.wrap(plain), ByteBuffer.wrap(out), aad);
+    return out;
+  }
+
+  /**
+   * @param encrypted nonce || ciphertext || tag
+   * @return plain text
+   * @throws GeneralSecurityException if the data was tampered with or the key is wrong
+   */
+  public byte[] decrypt(byte[] encrypted) throws GeneralSecurityException {
+    return decrypt(encrypted, null);
+  }
+
+  /**
+   * @param encrypted nonce || ciphertext || tag
+   * @param aad additional authenticated data given to encrypt, null proof
+   * @return plain text
+   * @throws GeneralSecurityException if the data was tampered with or the key is wrong
+   */
+  public byte[] decrypt(byte[] encrypted, byte[] aad) throws GeneralSecurityException {
+    if (encrypted.length < encryptedLength(0)) {
+      throw new GeneralSecurityException(String.format("encrypted data too short: %d bytes", encrypted.length));
+    }
+    byte[] out = new byte[decryptedLength(encrypted.length)];
+    decrypt(ByteBuffer.wrap(encrypted), ByteBuffer.wrap(out), aad);
+    return out;
+  }
+
+  /**
+   * @param plain to encrypt in UTF-8
+   * @return encrypted form in Base64
+   * @throws GeneralSecurityException if AES-GCM is not available
+   */
+  public String encrypt(String plain) throws GeneralSecurityException {
+    return Base64.getEncoder().encodeToString(encrypt(plain.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  /**
+   * @param encrypted encrypted form in Base64, see {@link #encrypt(String)}
+   * @return plain text
+   * @throws GeneralSecurityException if the data was tampered with or the key is wrong
+   */
+  public String decrypt(String encrypted) throws GeneralSecurityException {
+    byte[] bytes;
+    try {
+      bytes = Base64.getDecoder().decode(encrypted);
+    } catch (IllegalArgumentException e) {
+      throw new GeneralSecurityException(e);
+    }
+    return new String(decrypt(bytes), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * encrypt the remaining bytes of src into dst, both positions are advanced
+   * @param src plain text
+   * @param dst receive nonce || ciphertext || tag, must have {@link #encryptedLength(int)} bytes remaining
+   * @param aad additional authenticated data, null proof
+   * @return number of bytes written into dst
+   * @throws GeneralSecurityException if AES-GCM is not available or dst is too small ({@link ShortBufferException})
+   */
+  public int encrypt(ByteBuffer src, ByteBuffer dst, byte[] aad) throws GeneralSecurityException {
+    int length = encryptedLength(src.remaining());
+    if (dst.remaining() < length) {
+      throw new ShortBufferException(String.format("%d bytes needed, %d remaining", length, dst.remaining()));
+    }
+    byte[] nonce = new byte[NONCE_LENGTH];
+    randoms.get().nextBytes(nonce);
+    Cipher cipher = cipher();
+    cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH * 8, nonce));
+    if (null != aad) {
+      cipher.updateAAD(aad);
+    }
+    dst.put(nonce);
+    return NONCE_LENGTH + cipher.doFinal(src, dst);
+  }
+
+  /**
+   * decrypt the remaining bytes of src into dst, both positions are advanced
+   * @param src nonce || ciphertext || tag
+   * @param dst receive the plain text, must have {@link #decryptedLength(int)} bytes remaining
+   * @param aad additional authenticated data given to encrypt, null proof
+   * @return number of bytes written into dst
+   * @throws GeneralSecurityException if the data was tampered with, the key is wrong or dst is too small
+   */
+  public int decrypt(ByteBuffer src, ByteBuffer dst, byte[] aad) throws GeneralSecurityException {
+    if (src.remaining() < encryptedLength(0)) {
+      throw new GeneralSecurityException(String.format("encrypted data too short: %d bytes", src.remaining()));
+    }
+    byte[] nonce = new byte[NONCE_LENGTH];
+    src.get(nonce);
+    Cipher cipher = cipher();
+    cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH * 8, nonce));
+    if (null != aad) {
+      cipher.updateAAD(aad);
+    }
+    return cipher.doFinal(src, dst);
+  }
+
+  /**
+   * encrypt a batch in parallel on the {@link ForkJoinPool#commonPool()}
+   * @param plains to encrypt
+   * @return encrypted forms, in the same order as plains
+   * @throws GeneralSecurityException if AES-GCM is not available
+   */
+  public List<byte[]> encryptAll(List<byte[]> plains) throws GeneralSecurityException {
+    return encryptAll(plains, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * encrypt a batch in parallel, each worker of the pool reuses its own {@link Cipher}
+   * @param plains to encrypt
+   * @param pool {@link ForkJoinPool} running the workers
+   * @return encrypted forms, in the same order as plains
+   * @throws GeneralSecurityException if AES-GCM is not available
+   */
+  public List<byte[]> encryptAll(List<byte[]> plains, ForkJoinPool pool) throws GeneralSecurityException {
+    final byte[][] in = plains.toArray(new byte[plains.size()][]);
+    final byte[][] out = new byte[in.length][];
+    run(pool, in.length, i -> out[i] = encrypt(in[i]));
+    return Arrays.asList(out);
+  }
+
+  /**
+   * decrypt a batch in parallel on the {@link ForkJoinPool#commonPool()}
+   * @param encrypted to decrypt
+   * @return plain texts, in the same order as encrypted
+   * @throws GeneralSecurityException if any of the data was tampered with or the key is wrong
+   */
+  public List<byte[]> decryptAll(List<byte[]> encrypted) throws GeneralSecurityException {
+    return decryptAll(encrypted, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * decrypt a batch in parallel, each worker of the pool reuses its own {@link Cipher}
+   * @param encrypted to decrypt
+   * @param pool {@link ForkJoinPool} running the workers
+   * @return plain texts, in the same order as encrypted
+   * @throws GeneralSecurityException if any of the data was tampered with or the key is wrong
+   */
+  public List<byte[]> decryptAll(List<byte[]> encrypted, ForkJoinPool pool) throws GeneralSecurityException {
+    final byte[][] in = encrypted.toArray(new byte[encrypted.size()][]);
+    final byte[][] out = new byte[in.length][];
+    run(pool, in.length, i -> out[i] = decrypt(in[i]));
+    return Arrays.asList(out);
+  }
+
+  /**
+   * encrypt a batch of buffers in parallel, src[i] is encrypted into dst[i], see {@link #encrypt(ByteBuffer, ByteBuffer, byte[])}
+   * @param src plain texts
+   * @param dst destinations, same size as src
+   * @param pool {@link ForkJoinPool} running the workers
+   * @throws GeneralSecurityException if AES-GCM is not available or a destination is too small
+   */
+  public void encryptAll(List<ByteBuffer> src, List<ByteBuffer> dst, ForkJoinPool pool) throws GeneralSecurityException {
+    checkSizes(src, dst);
+    run(pool, src.size(), i -> encrypt(src.get(i), dst.get(i), null));
+  }
+
+  /**
+   * decrypt a batch of buffers in parallel, src[i] is decrypted into dst[i], see {@link #decrypt(ByteBuffer, ByteBuffer, byte[])}
+   * @param src encrypted forms
+   * @param dst destinations, same size as src
+   * @param pool {@link ForkJoinPool} running the workers
+   * @throws GeneralSecurityException if any of the data was tampered with, the key is wrong or a destination is too small
+   */
+  public void decryptAll(List<ByteBuffer> src, List<ByteBuffer> dst, ForkJoinPool pool) throws GeneralSecurityException {
+    checkSizes(src, dst);
+    run(pool, src.size(), i -> decrypt(src.get(i), dst.get(i), null));
+  }
+
+  private Cipher cipher() throws GeneralSecurityException {
+    Cipher cipher = ciphers.get();
+    if (null == cipher) {
+      cipher = Providers.cipher(TRANSFORMATION);
+      ciphers.set(cipher);
+    }
+    return cipher;
+  }
+
+  private static void checkSizes(List<ByteBuffer> src, List<ByteBuffer> dst) {
+    if (src.size() != dst.size()) {
+      throw new IllegalArgumentException(String.format("src has %d buffers, dst has %d", src.size(), dst.size()));
+    }
+  }
+
+  private static byte[] checkKey(byte[] key) {
+    if (null == key || (key.length != 16 && key.length != 24 && key.length != 32)) {
+      throw new IllegalArgumentException(String.format("AES key must be 16, 24 or 32 bytes, got %d", null == key ? 0 : key.length));
+    }
+    return key;
+  }
+
+  private static void run(ForkJoinPool pool, int size, Task task) throws GeneralSecurityException {
+    try {
+      pool.submit(() -> IntStream.range(0, size).parallel().forEach(i -> {
+        try {
+          task.run(i);
+        } catch (GeneralSecurityException e) {
+          throw new IllegalStateException(e);
+        }
+      })).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("batch interrupted", e);
+    } catch (ExecutionException e) {
+      for (Throwable cause = e.getCause(); null != cause; cause = cause.getCause()) {
+        if (cause instanceof GeneralSecurityException) {
+          throw (GeneralSecurityException) cause;
+        }
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  @FunctionalInterface
+  private interface Task {
+    void run(int index) throws GeneralSecurityException;
+  }
+}
@@ -0,0 +1,303 @@
+/**
+ * CipherPool
+ */
+package com.dbs.lib.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * pool of {@link Cipher} keyed by transformation<br>
+ * a {@link Cipher} is not thread safe, it is lent to one thread at a time, then recycled with {@link #release(String, Cipher)}.
+ * Derived {@link SecretKeySpec} are cached by algorithm then key to avoid the key setup on every call.
+ * <pre>
+ * Cipher cipher = pool.borrow("AES/CTR/NoPadding", Cipher.ENCRYPT_MODE, pool.keySpec(key, "AES"));
+ * try {
+ *   return cipher.doFinal(input);
+ * } finally {
+ *   pool.release("AES/CTR/NoPadding", cipher);
+ * }
+ * </pre>
+ *
+ * @author dbs at 18 Oct 2026 10:02:11
+ * @since 1.2.0
+ * @version 1.0
+ * @version 1.1 provider resolution cached by {@link Providers}, add {@link #warmUp(String, int)}
+ * @version 1.2 lent ciphers tracked, a double or foreign release is ignored; keys cached by algorithm without concatenation
+ */
+public class CipherPool {
+
+  /**
+   * default maximum number of {@link Cipher} per transformation
+   */
+  public static final int DEFAULT_MAX_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+
+  /**
+   * default maximum time to wait for a {@link Cipher} when all are lent
+   */
+  public static final long DEFAULT_MAX_WAIT_MILLIS = 5000;
+
+  /**
+   * default maximum number of cached {@link SecretKeySpec} by algorithm
+   */
+  public static final int DEFAULT_MAX_KEYS = 1024;
+
+  private final int maxSize;
+  private final long maxWaitMillis;
+  private final ConcurrentMap<String, Pool> pools = new ConcurrentHashMap<>();
+  private final int maxKeys;
+  private final ConcurrentMap<String, Cache<String, SecretKeySpec>> keys = new ConcurrentHashMap<>();
+
+  /**
+   * pool with {@link #DEFAULT_MAX_SIZE}, {@link #DEFAULT_MAX_WAIT_MILLIS} and {@link #DEFAULT_MAX_KEYS}
+   */
+  public CipherPool() {
+    this(DEFAULT_MAX_SIZE, DEFAULT_MAX_WAIT_MILLIS, DEFAULT_MAX_KEYS);
+  }
+
+  /**
+   * @param maxSize maximum number of {@link Cipher} per transformation
+   * @param maxWaitMillis maximum time to wait for a {@link Cipher} when all are lent
+   * @param maxKeys maximum number of cached {@link SecretKeySpec} by algorithm
+   */
+  public CipherPool(int maxSize, long maxWaitMillis, int maxKeys) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be greater than 0");
+    }
+    this.maxSize = maxSize;
+    this.maxWaitMillis = maxWaitMillis;
+    this.maxKeys = maxKeys;
+  }
+
+  /**
+   * borrow a {@link Cipher}, it must be given back with {@link #release(String, Cipher)}
+   * @param transformation ie AES/CBC/PKCS5Padding
+   * @return {@link Cipher} not initialized
+   * @throws GeneralSecurityException if transformation does not exist or no {@link Cipher} is available before maxWaitMillis
+   */
+  public Cipher borrow(String transformation) throws GeneralSecurityException {
+    Pool pool = pools.computeIfAbsent(transformation, Pool::new);
+    pool.borrowCount.increment();
+    if (!pool.leases.tryAcquire()) {
+      long start = System.nanoTime();
+      boolean acquired;
+      try {
+        acquired = pool.leases.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        acquired = false;
+      }
+      pool.waitCount.increment();
+      pool.waitNanos.add(System.nanoTime() - start);
+      if (!acquired) {
+        pool.timeoutCount.increment();
+        throw new GeneralSecurityException(String.format("no cipher %s available after %d ms", transformation, maxWaitMillis));
+      }
+    }
+    Cipher cipher = pool.idle.poll();
+    if (null == cipher) {
+      try {
+        cipher = Providers.cipher(transformation);
+        pool.created.incrementAndGet();
+      } catch (GeneralSecurityException | RuntimeException e) {
+        pool.leases.release();
+        throw e;
+      }
+    }
+    pool.leased.add(cipher);
+    return cipher;
+  }
+
+  /**
+   * create up to count {@link Cipher} in advance, to be called at boot
+   * @param transformation ie AES/CBC/PKCS5Padding
+   * @param count number of {@link Cipher} to have ready, capped to maxSize
+   * @throws GeneralSecurityException if transformation does not exist
+   */
+  public void warmUp(String transformation, int count) throws GeneralSecurityException {
+    List<Cipher> ciphers = new ArrayList<>(count);
+    try {
+      for (int i = 0; i < Math.min(count, maxSize); i++) {
+        ciphers.add(borrow(transformation));
+      }
+    } finally {
+      for (Cipher cipher : ciphers) {
+        release(transformation, cipher);
+      }
+    }
+  }
+
+  /**
+   * borrow a {@link Cipher} initialized, it must be given back with {@link #release(String, Cipher)}
+   * @param transformation ie AES/CBC/PKCS5Padding
+   * @param opmode {@link Cipher#ENCRYPT_MODE} or {@link Cipher#DECRYPT_MODE}
+   * @param key {@link Key}, see {@link #keySpec(String, String)}
+   * @return {@link Cipher} ready to use
+   * @throws GeneralSecurityException if transformation does not exist, key is invalid or no {@link Cipher} is available
+   */
+  public Cipher borrow(String transformation, int opmode, Key key) throws GeneralSecurityException {
+    Cipher cipher = borrow(transformation);
+    try {
+      cipher.init(opmode, key);
+    } catch (GeneralSecurityException | RuntimeException e) {
+      release(transformation, cipher);
+      throw e;
+    }
+    return cipher;
+  }
+
+  /**
+   * give back a {@link Cipher} obtained from {@link #borrow(String)}, ignored if it is not currently lent by this pool,
+   * so a double release can neither exceed the pool size nor hand the same {@link Cipher} to two threads
+   * @param transformation used to borrow
+   * @param cipher {@link Cipher} to recycle, null proof
+   */
+  public void release(String transformation, Cipher cipher) {
+    Pool pool = pools.get(transformation);
+    if (null == pool || null == cipher || !pool.leased.remove(cipher)) {
+      return;
+    }
+    pool.idle.offer(cipher);
+    pool.leases.release();
+  }
+
+  /**
+   * get a cached {@link SecretKeySpec}, the key string of the caller is the cache key, no copy of it is made
+   * @param key secret key, encoded in UTF-8
+   * @param algorithm ie AES
+   * @return {@link SecretKeySpec}
+   * @throws GeneralSecurityException if key is invalid
+   */
+  public SecretKeySpec keySpec(String key, String algorithm) throws GeneralSecurityException {
+    Cache<String, SecretKeySpec> cache = keys.computeIfAbsent(algorithm, a -> CacheBuilder.newBuilder().maximumSize(maxKeys).build());
+    try {
+      return cache.get(key, () -> new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), algorithm));
+    } catch (ExecutionException e) {
+      throw new GeneralSecurityException(e.getCause());
+    }
+  }
+
+  /**
+   * @return maximum number of {@link Cipher} per transformation
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * @param transformation to look for
+   * @return {@link Stats} of the transformation or null if never borrowed
+   */
+  public Stats getStats(String transformation) {
+    Pool pool = pools.get(transformation);
+    return null == pool ? null : pool.stats();
+  }
+
+  /**
+   * @return {@link Stats} for all transformations borrowed so far
+   */
+  public List<Stats> getStats() {
+    List<Stats> stats = new ArrayList<>(pools.size());
+    for (Pool pool : pools.values()) {
+      stats.add(pool.stats());
+    }
+    return stats;
+  }
+
+  /**
+   * @return number of cached {@link SecretKeySpec}
+   */
+  public long getKeyCount() {
+    long count = 0;
+    for (Cache<String, SecretKeySpec> cache : keys.values()) {
+      count += cache.size();
+    }
+    return count;
+  }
+
+  private class Pool {
+    final String transformation;
+    final BlockingQueue<Cipher> idle = new ArrayBlockingQueue<>(maxSize);
+    final Semaphore leases = new Semaphore(maxSize);
+    /**
+     * ciphers currently lent, {@link Cipher} has identity equality
+     */
+    final Set<Cipher> leased = ConcurrentHashMap.newKeySet();
+    final AtomicInteger created = new AtomicInteger();
+    final LongAdder borrowCount = new LongAdder();
+    final LongAdder waitCount = new LongAdder();
+    final LongAdder waitNanos = new LongAdder();
+    final LongAdder timeoutCount = new LongAdder();
+
+    Pool(String transformation) {
+      this.transformation = transformation;
+    }
+
+    Stats stats() {
+      return new Stats(transformation, maxSize, created.get(), idle.size(), maxSize - leases.availablePermits(), borrowCount.sum(),
+          waitCount.sum(), waitNanos.sum(), timeoutCount.sum());
+    }
+  }
+
+  /**
+   * snapshot of a transformation pool metrics
+   */
+  @lombok.Value
+  public static class Stats {
+    /**
+     * transformation ie AES/CBC/PKCS5Padding
+     */
+    String transformation;
+    /**
+     * maximum number of {@link Cipher}
+     */
+    int maxSize;
+    /**
+     * number of {@link Cipher} created
+     */
+    int created;
+    /**
+     * number of {@link Cipher} ready to be lent
+     */
+    int idle;
+    /**
+     * number of {@link Cipher} currently lent
+     */
+    int leased;
+    /**
+     * total number of borrow
+     */
+    long borrowCount;
+    /**
+     * number of borrow which had to wait for a {@link Cipher}
+     */
+    long waitCount;
+    /**
+     * total time spent waiting for a {@link Cipher} in nanoseconds
+     */
+    long waitNanos;
+    /**
+     * number of borrow which failed because no {@link Cipher} was released in time
+     */
+    long timeoutCount;
+  }
+}
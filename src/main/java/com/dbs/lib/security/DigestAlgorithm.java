@@ -0,0 +1,163 @@
+/**
+ * DigestAlgorithm
+ */
+package com.dbs.lib.security;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * message digest algorithms supported by {@link DigestUtils}<br>
+ * {@link MessageDigest} is not thread safe, each thread gets its own instance cloned from a prototype
+ * resolved on first use of each algorithm, so the hot path does not share any mutable state nor perform a provider lookup.<br>
+ * virtual threads borrow their instance from a pool of at most {@value #POOL_SIZE} idle digests per algorithm through
+ * {@link #acquire()} and {@link #release(MessageDigest)}, instead of caching one per short lived thread.
+ *
+ * @author dbs at 18 Oct 2026 09:12:40
+ * @since 1.2.0
+ * @version 1.0
+ * @version 1.1 provider resolution cached by {@link Providers}, add {@link #isInitialized()}
+ * @version 1.2 bounded pool for virtual threads, add {@link #acquire()} and {@link #release(MessageDigest)}
+ */
+public enum DigestAlgorithm {
+
+  /**
+   * SHA-1
+   */
+  SHA1("SHA1", false),
+  /**
+   * MD5
+   */
+  MD5("MD5", false),
+  /**
+   * SHA-256
+   */
+  SHA256("SHA-256", false),
+  /**
+   * SHA-384
+   */
+  SHA384("SHA-384", false),
+  /**
+   * SHA-512
+   */
+  SHA512("SHA-512", false),
+  /**
+   * BLAKE2b 160 bits, provided by BouncyCastle
+   */
+  BLAKE2B160("Blake2b-160", true),
+  /**
+   * BLAKE2b 256 bits, provided by BouncyCastle
+   */
+  BLAKE2B256("Blake2b-256", true),
+  /**
+   * BLAKE2b 384 bits, provided by BouncyCastle
+   */
+  BLAKE2B384("Blake2b-384", true),
+  /**
+   * BLAKE2b 512 bits, provided by BouncyCastle
+   */
+  BLAKE2B512("Blake2b-512", true),
+  ;
+
+  /**
+   * maximum number of idle digests pooled for virtual threads, by algorithm
+   */
+  static final int POOL_SIZE = 64;
+
+  final String algorithm;
+  final boolean bouncyCastle;
+  private final ThreadLocal<MessageDigest> digests = new ThreadLocal<>();
+  private final BlockingQueue<MessageDigest> pool = new ArrayBlockingQueue<>(POOL_SIZE);
+  private volatile MessageDigest prototype;
+
+  DigestAlgorithm(String algorithm, boolean bouncyCastle) {
+    this.algorithm = algorithm;
+    this.bouncyCastle = bouncyCastle;
+  }
+
+  /**
+   * @return JCA algorithm name
+   */
+  public String getAlgorithm() {
+    return algorithm;
+  }
+
+  /**
+   * @return true once the prototype has been resolved
+   */
+  public boolean isInitialized() {
+    return null != prototype;
+  }
+
+  /**
+   * get the {@link MessageDigest} owned by the calling thread, never shared with another thread
+   * @return {@link MessageDigest} reset and ready to use
+   * @throws NoSuchAlgorithmException if algorithm is not available
+   */
+  public MessageDigest getMessageDigest() throws NoSuchAlgorithmException {
+    MessageDigest md = digests.get();
+    if (null == md) {
+      md = newMessageDigest();
+      digests.set(md);
+    } else {
+      md.reset();
+    }
+    return md;
+  }
+
+  /**
+   * get a {@link MessageDigest} for a single operation: owned by the calling platform thread as {@link #getMessageDigest()},
+   * or borrowed from the pool on a virtual thread, to be given back with {@link #release(MessageDigest)}
+   * @return {@link MessageDigest} reset and ready to use
+   * @throws NoSuchAlgorithmException if algorithm is not available
+   */
+  public MessageDigest acquire() throws NoSuchAlgorithmException {
+    if (!VirtualThreads.isVirtual()) {
+      return getMessageDigest();
+    }
+    MessageDigest md = pool.poll();
+    if (null == md) {
+      return newMessageDigest();
+    }
+    md.reset();
+    return md;
+  }
+
+  /**
+   * give back a {@link MessageDigest} got from {@link #acquire()}, dropped if the pool is full, nothing to do on a platform thread
+   * @param md {@link MessageDigest} no longer used by the caller
+   */
+  public void release(MessageDigest md) {
+    if (null != md && VirtualThreads.isVirtual()) {
+      pool.offer(md);
+    }
+  }
+
+  /**
+   * create a new {@link MessageDigest}, cloned from the prototype if the provider supports it
+   * @return a new {@link MessageDigest} instance
+   * @throws NoSuchAlgorithmException if algorithm is not available
+   */
+  public MessageDigest newMessageDigest() throws NoSuchAlgorithmException {
+    MessageDigest proto = prototype;
+    if (null == proto) {
+      synchronized (this) {
+        proto = prototype;
+        if (null == proto) {
+          if (bouncyCastle) {
+            Providers.ensureBouncyCastle();
+          }
+          proto = Providers.messageDigest(algorithm);
+          prototype = proto;
+        }
+      }
+    }
+    try {
+      return (MessageDigest) proto.clone();
+    } catch (CloneNotSupportedException e) {
+      return MessageDigest.getInstance(algorithm, proto.getProvider());
+    }
+  }
+}
@@ -3,6 +3,16 @@
  */
 package com.dbs.lib.security;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
 import java.security.GeneralSecurityException;
 import java.security.Key;
 import java.security.KeyFactory;
@@ -13,10 +23,18 @@ import java.security.SecureRandom;
 import java.security.Security;
 import java.security.Provider.Service;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import javax.crypto.Cipher;
 import javax.crypto.KeyAgreement;
@@ -26,9 +44,6 @@ import javax.crypto.spec.SecretKeySpec;
 
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.lang3.StringUtils;
-import org.bouncycastle.jce.provider.BouncyCastleProvider;
-
-import com.dbs.lib.Utils;
 
 /**
  * add dependency org.bouncycastle:bcpkix-jdk15on:1.62, minimum version 1.58
@@ -37,57 +52,115 @@ import com.dbs.lib.Utils;
  * @author dbs at 23 Feb 2020 11:08:41
  * @since 1.0.11
  * @version 1.0
+ * @version 1.1 digests are taken from {@link DigestAlgorithm}, one instance per thread, add {@link #hash(DigestAlgorithm, String)}
+ * @version 1.2 AES helpers borrow their {@link Cipher} from {@link CipherPool}
+ * @version 1.3 hexadecimal encoding with {@link HexUtils}, add byte[] and {@link StringBuilder} variants
+ * @version 1.4 streaming digest of {@link InputStream}, {@link ReadableByteChannel}, {@link ByteBuffer} and {@link Path}
+ * @version 1.5 parallel bulk hashing {@link #hashAll(DigestAlgorithm, Collection)}
+ * @version 1.6 strings and keys are always encoded in UTF-8, digests are fed without intermediate byte[]
+ * @version 1.7 lazy initialization, BouncyCastle registered on first use, add {@link #warmUp(DigestAlgorithm...)}
+ * @version 1.8 AES-GCM with nonce and decryption moved to {@link AeadService}
+ * @version 1.9 virtual threads borrow digests and stream buffers from bounded pools instead of thread locals
  */
 @lombok.experimental.UtilityClass
 @lombok.extern.slf4j.Slf4j
 public class DigestUtils {
 
-  private static MessageDigest sha1;
-  private static MessageDigest md5;
-  private static MessageDigest sha256;
-  private static MessageDigest sha384;
-  private static MessageDigest sha512;
-  private static Cipher cipherAes128gcm;
-  private static Cipher cipherAes128ofb;
-  private static Cipher cipherAes128cfb;
-  private static Cipher cipherAes128ecb;
-  private static Cipher cipherAes128cbc;
-  @SuppressWarnings("unused")
-  private static Cipher cipherAes128cbcP;
-  private static Cipher cipherAes128ctr;
-  private static Cipher cipherAesElitecore;
-  private static MessageDigest blake2b160;
-  private static MessageDigest blake2b256;
-  private static MessageDigest blake2b384;
-  private static MessageDigest blake2b512;
-
-  static {
-    Security.addProvider(new BouncyCastleProvider());
-    try {
-      sha1 = MessageDigest.getInstance("SHA1");
-      md5 = MessageDigest.getInstance("MD5");
-      sha256 = MessageDigest.getInstance("SHA-256");
-      sha384 = MessageDigest.getInstance("SHA-384");
-      sha512 = MessageDigest.getInstance("SHA-512");
-      cipherAesElitecore = Cipher.getInstance("AES");
-      cipherAes128gcm = Cipher.getInstance("AES_128/GCM/NoPadding");
-      cipherAes128ofb = Cipher.getInstance("AES_128/OFB/NoPadding");
-      cipherAes128cfb = Cipher.getInstance("AES_128/CFB/NoPadding");
-      cipherAes128ecb = Cipher.getInstance("AES_128/ECB/NoPadding");
-      cipherAes128cbc = Cipher.getInstance("AES_128/CBC/NoPadding");//Cipher Block Chaining
-      //secure
-      cipherAes128cbcP = Cipher.getInstance("AES/CBC/PKCS5Padding");//Cipher Block Chaining
-      cipherAes128ctr = Cipher.getInstance("AES/CTR/NoPadding");//Counter
-      blake2b160 = MessageDigest.getInstance("Blake2b-160");
-      blake2b256 = MessageDigest.getInstance("Blake2b-256");
-      blake2b384 = MessageDigest.getInstance("Blake2b-384");
-      blake2b512 = MessageDigest.getInstance("Blake2b-512");
-    } catch (Exception e) {
-      log.error( "DigestUtils failed to initialize with error [{}]", Utils.errorMessage(e));
-      log.debug("DigestUtils Exception", e);
+  /**
+   * transformations used by the AES helpers
+   */
+  static final String AES = "AES";
+  static final String AES_128_GCM = "AES_128/GCM/NoPadding";
+  static final String AES_128_OFB = "AES_128/OFB/NoPadding";
+  static final String AES_128_CFB = "AES_128/CFB/NoPadding";
+  static final String AES_128_ECB = "AES_128/ECB/NoPadding";
+  static final String AES_128_CBC = "AES_128/CBC/NoPadding";//Cipher Block Chaining
+  static final String AES_128_CTR = "AES/CTR/NoPadding";//Counter
+
+  private static CipherPool cipherPool = new CipherPool();
+
+  /**
+   * size of the buffer reused by each platform thread to stream the input to digest
+   */
+  static final int STREAM_BUFFER_SIZE = 8192;
+
+  /**
+   * files larger than this threshold are digested through memory mapped chunks
+   */
+  static final long MAPPED_THRESHOLD = 1L << 20;
+
+  /**
+   * size of a memory mapped chunk
+   */
+  static final long MAPPED_CHUNK_SIZE = 1L << 26;
+
+  /**
+   * maximum number of idle stream buffers pooled for virtual threads
+   */
+  static final int BUFFER_POOL_SIZE = 64;
+
+  private static final ThreadLocal<byte[]> streamBuffers = ThreadLocal.withInitial(() -> new byte[STREAM_BUFFER_SIZE]);
+
+  private static final BlockingQueue<byte[]> bufferPool = new ArrayBlockingQueue<>(BUFFER_POOL_SIZE);
+
+  /**
+   * large enough for the longest digest, 512 bits
+   */
+  private static final ThreadLocal<byte[]> digestBuffers = ThreadLocal.withInitial(() -> new byte[64]);
+
+  /**
+   * resolve algorithms ahead of the first request, to be called at boot, nothing else is initialized until first use
+   * @param algorithms {@link DigestAlgorithm} to initialize for the calling thread and as prototype for other threads
+   * @throws NoSuchAlgorithmException if an algorithm does not exist
+   */
+  public static void warmUp(DigestAlgorithm... algorithms) throws NoSuchAlgorithmException {
+    for (DigestAlgorithm algorithm : algorithms) {
+      algorithm.getMessageDigest();
     }
   }
 
+  /**
+   * @return stream buffer of {@value #STREAM_BUFFER_SIZE} bytes owned by the calling platform thread, or borrowed from the pool
+   *         on a virtual thread, to be given back with {@link #releaseBuffer(byte[])}
+   */
+  static byte[] acquireBuffer() {
+    if (!VirtualThreads.isVirtual()) {
+      return streamBuffers.get();
+    }
+    byte[] buffer = bufferPool.poll();
+    return null == buffer ? new byte[STREAM_BUFFER_SIZE] : buffer;
+  }
+
+  /**
+   * @param buffer got from {@link #acquireBuffer()}, dropped if the pool is full, nothing to do on a platform thread
+   */
+  static void releaseBuffer(byte[] buffer) {
+    if (VirtualThreads.isVirtual()) {
+      bufferPool.offer(buffer);
+    }
+  }
+
+  /**
+   * register BouncyCastle as security provider, only done on first use of a BLAKE2b algorithm otherwise
+   */
+  public static void registerBouncyCastle() {
+    Providers.ensureBouncyCastle();
+  }
+
+  /**
+   * @return {@link CipherPool} used by the AES helpers
+   */
+  public static CipherPool getCipherPool() {
+    return cipherPool;
+  }
+
+  /**
+   * @param pool {@link CipherPool} to be used by the AES helpers
+   */
+  public static void setCipherPool(CipherPool pool) {
+    cipherPool = pool;
+  }
+
   /**
    * 
    * @return list of all algo providers
@@ -103,22 +176,294 @@ public class DigestUtils {
   }
 
   /**
-   * make a digest checksum with SHA-1 hash function
+   * make a digest checksum with the given hash function, thread safe
    * 
+   * @param algorithm {@link DigestAlgorithm}
    * @param input to hash
-   * @return the hash, or empty string if input is null or empty
-   * @throws NoSuchAlgorithmException if sha1 does not exist
+   * @return the hash in hexadecimal, or empty string if input is null or empty
+   * @throws NoSuchAlgorithmException if algorithm does not exist
    */
-  public static String sha1(String input) throws NoSuchAlgorithmException {
+  public static String hash(DigestAlgorithm algorithm, String input) throws NoSuchAlgorithmException {
     if (StringUtils.isEmpty(input)) {
       return "";
     }
-    byte[] result = sha1.digest(input.getBytes());
-    StringBuilder sb = new StringBuilder();
-    for (int i = 0; i < result.length; i++) {
-      sb.append(Integer.toString((result[i] & 0xff) + 0x100, 16).substring(1));
+    MessageDigest md = algorithm.acquire();
+    try {
+      Utf8Encoder.update(md, input);
+      byte[] result = VirtualThreads.isVirtual() ? new byte[64] : digestBuffers.get();
+      return HexUtils.encode(result, 0, md.digest(result, 0, result.length));
+    } catch (DigestException e) {
+      throw new IllegalStateException(e);
+    } finally {
+      algorithm.release(md);
+    }
+  }
+
+  /**
+   * make a digest checksum with the given hash function, thread safe
+   * 
+   * @param algorithm {@link DigestAlgorithm}
+   * @param input to hash
+   * @return the raw hash, or empty array if input is null or empty
+   * @throws NoSuchAlgorithmException if algorithm does not exist
+   */
+  public static byte[] digest(DigestAlgorithm algorithm, String input) throws NoSuchAlgorithmException {
+    if (StringUtils.isEmpty(input)) {
+      return new byte[0];
+    }
+    MessageDigest md = algorithm.acquire();
+    try {
+      Utf8Encoder.update(md, input);
+      return md.digest();
+    } finally {
+      algorithm.release(md);
+    }
+  }
+
+  /**
+   * make a digest checksum with the given hash function, thread safe
+   * 
+   * @param algorithm {@link DigestAlgorithm}
+   * @param input to hash
+   * @return the hash in hexadecimal as US-ASCII bytes, or empty array if input is null or empty
+   * @throws NoSuchAlgorithmException if algorithm does not exist
+   */
+  public static byte[] hashAscii(DigestAlgorithm algorithm, String input) throws NoSuchAlgorithmException {
+    return HexUtils.encodeToBytes(digest(algorithm, input));
+  }
+
+  /**
+   * make a digest checksum with the given hash function and append it without creating a {@link String}
+   * 
+   * @param algorithm {@link DigestAlgorithm}
+   * @param input to hash
+   * @param sb {@link StringBuilder} to append the hash in hexadecimal to, nothing appended if input is null or empty
+   * @return sb for convenience chaining
+   * @throws NoSuchAlgorithmException if algorithm does not exist
+   */
+  public static StringBuilder appendHash(DigestAlgorithm algorithm, String input, StringBuilder sb) throws NoSuchAlgorithmException {
+    return HexUtils.appendTo(sb, digest(algorithm, input));
+  }
+
+  /**
+   * hash a batch of strings in parallel on the {@link ForkJoinPool#commonPool()}, see {@link #hash(DigestAlgorithm, String)}
+   * 
+   * @param algorithm {@link DigestAlgorithm}
+   * @param inputs to hash
+   * @return the hashes in hexadecimal, in the same order as inputs
+   * @throws NoSuchAlgorithmException if algorithm does not exist
+   */
+  public static List<String> hashAll(DigestAlgorithm algorithm, Collection<String> inputs) throws NoSuchAlgorithmException {
+    return hashAll(algorithm, inputs, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * hash a batch of strings in parallel, each worker of the pool reuses its own {@link MessageDigest}
+   * 
+   * @param algorithm {@link DigestAlgorithm}
+   * @param inputs to hash
+   * @param pool {@link ForkJoinPool} running the workers
+   * @return the hashes in hexadecimal, in the same order as inputs
+   * @throws NoSuchAlgorithmException if algorithm does not exist
+   */
+  public static List<String> hashAll(DigestAlgorithm algorithm, Collection<String> inputs, ForkJoinPool pool) throws NoSuchAlgorithmException {
+    algorithm.newMessageDigest();
+    final String[] in = inputs.toArray(new String[inputs.size()]);
+    final String[] out = new String[in.length];
+    try {
+      pool.submit(() -> IntStream.range(0, in.length).parallel().forEach(i -> out[i] = hashUnchecked(algorithm, in[i]))).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("hashAll interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+    return Arrays.asList(out);
+  }
+
+  /**
+   * hash a stream of strings, the returned stream is parallel and keeps the encounter order of inputs for ordered operations
+   * such as {@link Stream#forEachOrdered(java.util.function.Consumer)} or {@link Stream#collect(java.util.stream.Collector)}
+   * 
+   * @param algorithm {@link DigestAlgorithm}
+   * @param inputs to hash
+   * @return stream of hashes in hexadecimal
+   * @throws NoSuchAlgorithmException if algorithm does not exist
+   */
+  public static Stream<String> hashAll(DigestAlgorithm algorithm, Stream<String> inputs) throws NoSuchAlgorithmException {
+    algorithm.newMessageDigest();
+    return inputs.parallel().map(input -> hashUnchecked(algorithm, input));
+  }
+
+  /**
+   * @param algorithm {@link DigestAlgorithm} already resolved
+   * @param input to hash
+   * @return the hash in hexadecimal
+   */
+  private static String hashUnchecked(DigestAlgorithm algorithm, String input) {
+    try {
+      return hash(algorithm, input);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * digest a stream without loading it in memory, the stream is read until its end but not closed
+   * 
+   * @param algorithm {@link DigestAlgorithm}
+   * @param input {@link InputStream} to hash
+   * @return the raw hash
+   * @throws NoSuchAlgorithmException if algorithm does not exist
+   * @throws IOException if reading failed
+   */
+  public static byte[] digest(DigestAlgorithm algorithm, InputStream input) throws NoSuchAlgorithmException, IOException {
+    MessageDigest md = algorithm.acquire();
+    byte[] buffer = acquireBuffer();
+    try {
+      int read;
+      while ((read = input.read(buffer)) != -1) {
+        md.update(buffer, 0, read);
+      }
+      return md.digest();
+    } finally {
+      releaseBuffer(buffer);
+      algorithm.release(md);
+    }
+  }
+
+  /**
+   * digest a stream without loading it in memory, the stream is read until its end but not closed
+   * 
+   * @param algorithm {@link DigestAlgorithm}
+   * @param input {@link InputStream} to hash
+   * @return the hash in hexadecimal
+   * @throws NoSuchAlgorithmException if algorithm does not exist
+   * @throws IOException if reading failed
+   */
+  public static String hash(DigestAlgorithm algorithm, InputStream input) throws NoSuchAlgorithmException, IOException {
+    return HexUtils.encode(digest(algorithm, input));
+  }
+
+  /**
+   * digest a channel without loading it in memory, the channel is read until its end but not closed
+   * 
+   * @param algorithm {@link DigestAlgorithm}
+   * @param input {@link ReadableByteChannel} to hash
+   * @return the raw hash
+   * @throws NoSuchAlgorithmException if algorithm does not exist
+   * @throws IOException if reading failed
+   */
+  public static byte[] digest(DigestAlgorithm algorithm, ReadableByteChannel input) throws NoSuchAlgorithmException, IOException {
+    MessageDigest md = algorithm.acquire();
+    byte[] buffer = acquireBuffer();
+    try {
+      ByteBuffer bb = ByteBuffer.wrap(buffer);
+      int read;
+      while ((read = input.read(bb)) != -1) {
+        md.update(buffer, 0, read);
+        bb.clear();
+      }
+      return md.digest();
+    } finally {
+      releaseBuffer(buffer);
+      algorithm.release(md);
+    }
+  }
+
+  /**
+   * digest a channel without loading it in memory, the channel is read until its end but not closed
+   * 
+   * @param algorithm {@link DigestAlgorithm}
+   * @param input {@link ReadableByteChannel} to hash
+   * @return the hash in hexadecimal
+   * @throws NoSuchAlgorithmException if algorithm does not exist
+   * @throws IOException if reading failed
+   */
+  public static String hash(DigestAlgorithm algorithm, ReadableByteChannel input) throws NoSuchAlgorithmException, IOException {
+    return HexUtils.encode(digest(algorithm, input));
+  }
+
+  /**
+   * digest the remaining bytes of a buffer, heap or direct, its position is moved to its limit
+   * 
+   * @param algorithm {@link DigestAlgorithm}
+   * @param input {@link ByteBuffer} to hash
+   * @return the raw hash
+   * @throws NoSuchAlgorithmException if algorithm does not exist
+   */
+  public static byte[] digest(DigestAlgorithm algorithm, ByteBuffer input) throws NoSuchAlgorithmException {
+    MessageDigest md = algorithm.acquire();
+    try {
+      md.update(input);
+      return md.digest();
+    } finally {
+      algorithm.release(md);
+    }
+  }
+
+  /**
+   * digest the remaining bytes of a buffer, heap or direct, its position is moved to its limit
+   * 
+   * @param algorithm {@link DigestAlgorithm}
+   * @param input {@link ByteBuffer} to hash
+   * @return the hash in hexadecimal
+   * @throws NoSuchAlgorithmException if algorithm does not exist
+   */
+  public static String hash(DigestAlgorithm algorithm, ByteBuffer input) throws NoSuchAlgorithmException {
+    return HexUtils.encode(digest(algorithm, input));
+  }
+
+  /**
+   * digest a file, files above {@value #MAPPED_THRESHOLD} bytes are memory mapped by chunks of {@value #MAPPED_CHUNK_SIZE} bytes
+   * 
+   * @param algorithm {@link DigestAlgorithm}
+   * @param input {@link Path} of the file to hash
+   * @return the raw hash
+   * @throws NoSuchAlgorithmException if algorithm does not exist
+   * @throws IOException if reading failed
+   */
+  public static byte[] digest(DigestAlgorithm algorithm, Path input) throws NoSuchAlgorithmException, IOException {
+    try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size < MAPPED_THRESHOLD) {
+        return digest(algorithm, channel);
+      }
+      MessageDigest md = algorithm.acquire();
+      try {
+        for (long position = 0; position < size; position += MAPPED_CHUNK_SIZE) {
+          MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAPPED_CHUNK_SIZE, size - position));
+          md.update(chunk);
+        }
+        return md.digest();
+      } finally {
+        algorithm.release(md);
+      }
     }
-    return sb.toString();
+  }
+
+  /**
+   * digest a file, files above {@value #MAPPED_THRESHOLD} bytes are memory mapped by chunks of {@value #MAPPED_CHUNK_SIZE} bytes
+   * 
+   * @param algorithm {@link DigestAlgorithm}
+   * @param input {@link Path} of the file to hash
+   * @return the hash in hexadecimal
+   * @throws NoSuchAlgorithmException if algorithm does not exist
+   * @throws IOException if reading failed
+   */
+  public static String hash(DigestAlgorithm algorithm, Path input) throws NoSuchAlgorithmException, IOException {
+    return HexUtils.encode(digest(algorithm, input));
+  }
+
+  /**
+   * make a digest checksum with SHA-1 hash function
+   * 
+   * @param input to hash
+   * @return the hash, or empty string if input is null or empty
+   * @throws NoSuchAlgorithmException if sha1 does not exist
+   */
+  public static String sha1(String input) throws NoSuchAlgorithmException {
+    return hash(DigestAlgorithm.SHA1, input);
   }
 
   /**
@@ -128,15 +473,7 @@ public class DigestUtils {
    * @throws NoSuchAlgorithmException if md5 does not exist
    */
   public static String md5(String input) throws NoSuchAlgorithmException {
-    if (StringUtils.isEmpty(input)) {
-      return "";
-    }
-    byte[] result = md5.digest(input.getBytes());
-    StringBuilder sb = new StringBuilder();
-    for (int i = 0; i < result.length; i++) {
-      sb.append(Integer.toString((result[i] & 0xff) + 0x100, 16).substring(1));
-    }
-    return sb.toString();
+    return hash(DigestAlgorithm.MD5, input);
   }
 
   /**
@@ -146,15 +483,7 @@ public class DigestUtils {
    * @throws NoSuchAlgorithmException if sha256 does not exist
    */
   public static String sha256(String input) throws NoSuchAlgorithmException {
-    if (StringUtils.isEmpty(input)) {
-      return "";
-    }
-    byte[] result = sha256.digest(input.getBytes());
-    StringBuilder sb = new StringBuilder();
-    for (int i = 0; i < result.length; i++) {
-      sb.append(Integer.toString((result[i] & 0xff) + 0x100, 16).substring(1));
-    }
-    return sb.toString();
+    return hash(DigestAlgorithm.SHA256, input);
   }
   
   /**
@@ -164,15 +493,7 @@ public class DigestUtils {
    * @throws NoSuchAlgorithmException if sha512 does not exist
    */
   public static String sha512(String input) throws NoSuchAlgorithmException {
-    if (StringUtils.isEmpty(input)) {
-      return "";
-    }
-    byte[] result = sha512.digest(input.getBytes());
-    StringBuilder sb = new StringBuilder();
-    for (int i = 0; i < result.length; i++) {
-      sb.append(Integer.toString((result[i] & 0xff) + 0x100, 16).substring(1));
-    }
-    return sb.toString();
+    return hash(DigestAlgorithm.SHA512, input);
   }
   
   /**
@@ -182,15 +503,7 @@ public class DigestUtils {
    * @throws NoSuchAlgorithmException if sha512 does not exist
    */
   public static String sha384(String input) throws NoSuchAlgorithmException {
-    if (StringUtils.isEmpty(input)) {
-      return "";
-    }
-    byte[] result = sha384.digest(input.getBytes());
-    StringBuilder sb = new StringBuilder();
-    for (int i = 0; i < result.length; i++) {
-      sb.append(Integer.toString((result[i] & 0xff) + 0x100, 16).substring(1));
-    }
-    return sb.toString();
+    return hash(DigestAlgorithm.SHA384, input);
   }
 
   
@@ -205,15 +518,13 @@ public class DigestUtils {
     if (StringUtils.isAnyBlank(key, input)) {
       return "";
     }
-    Key skeySpec = generateKeySpec(key, "AES");
-    cipherAesElitecore.init(Cipher.ENCRYPT_MODE, skeySpec);
-    byte[] encrypted = cipherAesElitecore.doFinal(input.getBytes());
-    byte[] encryptedValue = Base64.encodeBase64(encrypted);
-    return new String(encryptedValue);
+    return encrypt(AES, input, key);
   }
   
   /**
-   * used cipher AES 128 GCM
+   * used cipher AES 128 GCM<br>
+   * kept for compatibility, the cipher generates a random IV which is not returned, so the output differs on every call
+   * and cannot be decrypted, use {@link AeadService}
    * @param input to encode
    * @param key to use for cipher
    * @return encoded string
@@ -223,11 +534,7 @@ public class DigestUtils {
     if (StringUtils.isAnyBlank(key, input)) {
       return "";
     }
-    Key skeySpec = generateKeySpec(key, "AES");
-    cipherAes128gcm.init(Cipher.ENCRYPT_MODE, skeySpec);
-    byte[] encrypted = cipherAes128gcm.doFinal(input.getBytes());
-    byte[] encryptedValue = Base64.encodeBase64(encrypted);
-    return new String(encryptedValue);
+    return encrypt(AES_128_GCM, input, key);
   }
 
   /**
@@ -241,11 +548,7 @@ public class DigestUtils {
     if (StringUtils.isAnyBlank(key, input)) {
       return "";
     }
-    Key skeySpec = generateKeySpec(key, "AES");
-    cipherAes128ofb.init(Cipher.ENCRYPT_MODE, skeySpec);
-    byte[] encrypted = cipherAes128ofb.doFinal(input.getBytes());
-    byte[] encryptedValue = Base64.encodeBase64(encrypted);
-    return new String(encryptedValue);
+    return encrypt(AES_128_OFB, input, key);
   }
 
   /**
@@ -259,11 +562,7 @@ public class DigestUtils {
     if (StringUtils.isAnyBlank(key, input)) {
       return "";
     }
-    Key skeySpec = generateKeySpec(key, "AES");
-    cipherAes128cfb.init(Cipher.ENCRYPT_MODE, skeySpec);
-    byte[] encrypted = cipherAes128cfb.doFinal(input.getBytes());
-    byte[] encryptedValue = Base64.encodeBase64(encrypted);
-    return new String(encryptedValue);
+    return encrypt(AES_128_CFB, input, key);
   }
 
   /**
@@ -277,11 +576,7 @@ public class DigestUtils {
     if (StringUtils.isAnyBlank(key, input)) {
       return "";
     }
-    Key skeySpec = generateKeySpec(key, "AES");
-    cipherAes128ecb.init(Cipher.ENCRYPT_MODE, skeySpec);
-    byte[] encrypted = cipherAes128ecb.doFinal(input.getBytes());
-    byte[] encryptedValue = Base64.encodeBase64(encrypted);
-    return new String(encryptedValue);
+    return encrypt(AES_128_ECB, input, key);
   }
 
   /**
@@ -295,11 +590,7 @@ public class DigestUtils {
     if (StringUtils.isAnyBlank(key, input)) {
       return "";
     }
-    Key skeySpec = generateKeySpec(key, "AES");
-    cipherAes128cbc.init(Cipher.ENCRYPT_MODE, skeySpec);
-    byte[] encrypted = cipherAes128cbc.doFinal(input.getBytes());
-    byte[] encryptedValue = Base64.encodeBase64(encrypted);
-    return new String(encryptedValue);
+    return encrypt(AES_128_CBC, input, key);
   }
 
   /**
@@ -313,25 +604,41 @@ public class DigestUtils {
     if (StringUtils.isAnyBlank(key, input)) {
       return "";
     }
-    Key skeySpec = generateKeySpec(key, "AES");
-    cipherAes128ctr.init(Cipher.ENCRYPT_MODE, skeySpec);
-    byte[] encrypted = cipherAes128ctr.doFinal(input.getBytes());
-    byte[] encryptedValue = Base64.encodeBase64(encrypted);
-    return new String(encryptedValue);
+    return encrypt(AES_128_CTR, input, key);
   }
 
   /**
-   * use {@link SecretKeySpec} <br>
+   * encrypt with a {@link Cipher} borrowed from {@link #cipherPool}
+   * @param transformation ie AES/CTR/NoPadding
+   * @param input to encode
+   * @param key to use for cipher
+   * @return encoded string in base 64
+   * @throws GeneralSecurityException if cipher failed
+   */
+  private static String encrypt(String transformation, String input, String key) throws GeneralSecurityException {
+    Cipher cipher = cipherPool.borrow(transformation, Cipher.ENCRYPT_MODE, generateKeySpec(key, AES));
+    try {
+      byte[] encrypted = cipher.doFinal(input.getBytes(StandardCharsets.UTF_8));
+      byte[] encryptedValue = Base64.encodeBase64(encrypted);
+      return new String(encryptedValue);
+    } finally {
+      cipherPool.release(transformation, cipher);
+    }
+  }
+
+  /**
+   * use {@link SecretKeySpec} cached by {@link #cipherPool}<br>
    * @see also {@link IvParameterSpec}
    * @param key secret key
    * @return {@link Key}
+   * @throws GeneralSecurityException if key is invalid
    */
-  protected static Key generateKeySpec(String key, String algorithm) {
-    return new SecretKeySpec(key.getBytes(), algorithm);
+  protected static Key generateKeySpec(String key, String algorithm) throws GeneralSecurityException {
+    return cipherPool.keySpec(key, algorithm);
   }
   
   protected static IvParameterSpec generateKey(String key) {
-    return new IvParameterSpec(key.getBytes());
+    return new IvParameterSpec(key.getBytes(StandardCharsets.UTF_8));
   }
   
   /**
@@ -343,15 +650,7 @@ public class DigestUtils {
    * @throws NoSuchAlgorithmException if algo not found
    */
   public static String blake2b160(String input) throws NoSuchAlgorithmException {
-    if (StringUtils.isEmpty(input)) {
-      return "";
-    }
-    byte[] result = blake2b160.digest(input.getBytes());
-    StringBuffer sb = new StringBuffer();
-    for (int i = 0; i < result.length; i++) {
-      sb.append(Integer.toString((result[i] & 0xff) + 0x100, 16).substring(1));
-    }
-    return sb.toString();
+    return hash(DigestAlgorithm.BLAKE2B160, input);
   }
 
   /**
@@ -363,15 +662,7 @@ public class DigestUtils {
    * @throws NoSuchAlgorithmException if algo not found
    */
   public static String blake2b256(String input) throws NoSuchAlgorithmException {
-    if (StringUtils.isEmpty(input)) {
-      return "";
-    }
-    byte[] result = blake2b256.digest(input.getBytes());
-    StringBuffer sb = new StringBuffer();
-    for (int i = 0; i < result.length; i++) {
-      sb.append(Integer.toString((result[i] & 0xff) + 0x100, 16).substring(1));
-    }
-    return sb.toString();
+    return hash(DigestAlgorithm.BLAKE2B256, input);
   }
 
   /**
@@ -383,15 +674,7 @@ public class DigestUtils {
    * @throws NoSuchAlgorithmException if algo not found
    */
   public static String blake2b384(String input) throws NoSuchAlgorithmException {
-    if (StringUtils.isEmpty(input)) {
-      return "";
-    }
-    byte[] result = blake2b384.digest(input.getBytes());
-    StringBuffer sb = new StringBuffer();
-    for (int i = 0; i < result.length; i++) {
-      sb.append(Integer.toString((result[i] & 0xff) + 0x100, 16).substring(1));
-    }
-    return sb.toString();
+    return hash(DigestAlgorithm.BLAKE2B384, input);
   }
 
   /**
@@ -403,15 +686,7 @@ public class DigestUtils {
    * @throws NoSuchAlgorithmException if algo not found
    */
   public static String blake2b512(String input) throws NoSuchAlgorithmException {
-    if (StringUtils.isEmpty(input)) {
-      return "";
-    }
-    byte[] result = blake2b512.digest(input.getBytes());
-    StringBuffer sb = new StringBuffer();
-    for (int i = 0; i < result.length; i++) {
-      sb.append(Integer.toString((result[i] & 0xff) + 0x100, 16).substring(1));
-    }
-    return sb.toString();
+    return hash(DigestAlgorithm.BLAKE2B512, input);
   }
 
   /**
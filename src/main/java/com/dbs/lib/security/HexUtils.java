@@ -0,0 +1,113 @@
+/**
+ * HexUtils
+ */
+package com.dbs.lib.security;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * lower case hexadecimal encoding driven by a lookup table, one allocation for the output only
+ *
+ * @author dbs at 18 Oct 2026 11:20:37
+ * @since 1.2.0
+ * @version 1.0
+ */
+@lombok.experimental.UtilityClass
+public class HexUtils {
+
+  private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+
+  /**
+   * 2 hexadecimal characters for each of the 256 byte values
+   */
+  private static final char[] TABLE = new char[512];
+
+  private static final byte[] TABLE_ASCII = new byte[512];
+
+  static {
+    for (int i = 0; i < 256; i++) {
+      TABLE[i << 1] = DIGITS[i >>> 4];
+      TABLE[(i << 1) + 1] = DIGITS[i & 0x0f];
+    }
+    byte[] ascii = new String(TABLE).getBytes(StandardCharsets.US_ASCII);
+    System.arraycopy(ascii, 0, TABLE_ASCII, 0, ascii.length);
+  }
+
+  /**
+   * @param bytes to encode
+   * @return hexadecimal string, empty if bytes is null
+   */
+  public static String encode(byte[] bytes) {
+    if (null == bytes) {
+      return "";
+    }
+    return new String(encode(bytes, new char[bytes.length << 1], 0));
+  }
+
+  /**
+   * @param bytes to encode
+   * @param offset first byte to encode
+   * @param length number of bytes to encode
+   * @return hexadecimal string
+   */
+  public static String encode(byte[] bytes, int offset, int length) {
+    char[] out = new char[length << 1];
+    for (int i = offset, j = 0; j < out.length; i++, j += 2) {
+      int t = (bytes[i] & 0xff) << 1;
+      out[j] = TABLE[t];
+      out[j + 1] = TABLE[t + 1];
+    }
+    return new String(out);
+  }
+
+  /**
+   * encode into a pre-sized array
+   * @param bytes to encode
+   * @param out destination, must hold at least 2 * bytes.length characters from offset
+   * @param offset first position to write in out
+   * @return out for convenience chaining
+   */
+  public static char[] encode(byte[] bytes, char[] out, int offset) {
+    for (int i = 0, j = offset; i < bytes.length; i++, j += 2) {
+      int t = (bytes[i] & 0xff) << 1;
+      out[j] = TABLE[t];
+      out[j + 1] = TABLE[t + 1];
+    }
+    return out;
+  }
+
+  /**
+   * @param bytes to encode
+   * @return hexadecimal characters as US-ASCII bytes, empty if bytes is null
+   */
+  public static byte[] encodeToBytes(byte[] bytes) {
+    if (null == bytes) {
+      return new byte[0];
+    }
+    byte[] out = new byte[bytes.length << 1];
+    for (int i = 0, j = 0; i < bytes.length; i++, j += 2) {
+      int t = (bytes[i] & 0xff) << 1;
+      out[j] = TABLE_ASCII[t];
+      out[j + 1] = TABLE_ASCII[t + 1];
+    }
+    return out;
+  }
+
+  /**
+   * append hexadecimal characters without intermediate {@link String}
+   * @param sb {@link StringBuilder} to append to
+   * @param bytes to encode, null proof
+   * @return sb for convenience chaining
+   */
+  public static StringBuilder appendTo(StringBuilder sb, byte[] bytes) {
+    if (null == bytes) {
+      return sb;
+    }
+    sb.ensureCapacity(sb.length() + (bytes.length << 1));
+    for (int i = 0; i < bytes.length; i++) {
+      int t = (bytes[i] & 0xff) << 1;
+      sb.append(TABLE[t]).append(TABLE[t + 1]);
+    }
+    return sb;
+  }
+}
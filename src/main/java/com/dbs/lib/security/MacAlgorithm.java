@@ -0,0 +1,56 @@
+/**
+ * MacAlgorithm
+ */
+package com.dbs.lib.security;
+
+/**
+ * keyed hash algorithms supported by {@link MacUtils}
+ *
+ * @author dbs at 18 Oct 2026 16:12:54
+ * @since 1.2.0
+ * @version 1.0
+ */
+public enum MacAlgorithm {
+
+  /**
+   * HMAC with SHA-256
+   */
+  HMAC_SHA256("HmacSHA256", 32, false),
+  /**
+   * HMAC with SHA-512
+   */
+  HMAC_SHA512("HmacSHA512", 64, false),
+  /**
+   * BLAKE2b 256 bits in keyed mode, key up to 64 bytes, provided by BouncyCastle
+   */
+  BLAKE2B256("Blake2b-256", 32, true),
+  /**
+   * BLAKE2b 512 bits in keyed mode, key up to 64 bytes, provided by BouncyCastle
+   */
+  BLAKE2B512("Blake2b-512", 64, true),
+  ;
+
+  final String algorithm;
+  final int length;
+  final boolean blake2b;
+
+  MacAlgorithm(String algorithm, int length, boolean blake2b) {
+    this.algorithm = algorithm;
+    this.length = length;
+    this.blake2b = blake2b;
+  }
+
+  /**
+   * @return JCA algorithm name
+   */
+  public String getAlgorithm() {
+    return algorithm;
+  }
+
+  /**
+   * @return length of the MAC in bytes
+   */
+  public int getLength() {
+    return length;
+  }
+}
@@ -0,0 +1,354 @@
+/**
+ * MacUtils
+ */
+package com.dbs.lib.security;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.bouncycastle.crypto.digests.Blake2bDigest;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * keyed hashes, HMAC and keyed BLAKE2b, to sign payloads and tokens<br>
+ * each thread keeps its last {@value #MAX_KEYS_PER_THREAD} initialized MAC per algorithm and key,
+ * so neither the provider lookup nor the key setup are repeated on each call;
+ * virtual threads borrow them from bounded pools by key instead, shared by all virtual threads.
+ * <pre>
+ * String signature = MacUtils.macHex(MacAlgorithm.HMAC_SHA256, secret, payload);
+ * boolean valid = MacUtils.verifyHex(MacAlgorithm.HMAC_SHA256, secret, payload, header);
+ * </pre>
+ *
+ * @author dbs at 18 Oct 2026 16:12:54
+ * @since 1.2.0
+ * @version 1.0
+ * @version 1.1 stream buffer shared with {@link DigestUtils}, pooled on virtual threads
+ * @version 1.2 the cached MAC is reset when the input fails, whatever its type
+ * @version 1.3 bounded pools of MAC by key for virtual threads
+ */
+@lombok.experimental.UtilityClass
+public class MacUtils {
+
+  /**
+   * maximum number of initialized MAC kept by each thread
+   */
+  static final int MAX_KEYS_PER_THREAD = 16;
+
+  private static final ThreadLocal<Map<CacheKey, KeyedMac>> macs = ThreadLocal.withInitial(() -> new LinkedHashMap<CacheKey, KeyedMac>(32, 0.75f, true) {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<CacheKey, KeyedMac> eldest) {
+      return size() > MAX_KEYS_PER_THREAD;
+    }
+  });
+
+  /**
+   * maximum number of keys with a pool of idle MAC for virtual threads
+   */
+  static final int MAX_POOLED_KEYS = 256;
+
+  /**
+   * maximum number of idle MAC pooled for virtual threads, by key
+   */
+  static final int POOL_SIZE_PER_KEY = 16;
+
+  private static final Cache<CacheKey, BlockingQueue<KeyedMac>> pools = CacheBuilder.newBuilder().maximumSize(MAX_POOLED_KEYS).build();
+
+  /**
+   * @param algorithm {@link MacAlgorithm}
+   * @param key secret key
+   * @param input to sign
+   * @return the raw MAC
+   * @throws GeneralSecurityException if algorithm does not exist or key is invalid
+   */
+  public static byte[] mac(MacAlgorithm algorithm, byte[] key, byte[] input) throws GeneralSecurityException {
+    KeyedMac mac = acquire(algorithm, key);
+    try {
+      mac.update(input, 0, input.length);
+      return mac.doFinal();
+    } catch (RuntimeException | Error e) {
+      mac.reset();
+      throw e;
+    } finally {
+      release(algorithm, key, mac);
+    }
+  }
+
+  /**
+   * @param algorithm {@link MacAlgorithm}
+   * @param key secret key
+   * @param input to sign, encoded in UTF-8
+   * @return the raw MAC
+   * @throws GeneralSecurityException if algorithm does not exist or key is invalid
+   */
+  public static byte[] mac(MacAlgorithm algorithm, byte[] key, CharSequence input) throws GeneralSecurityException {
+    KeyedMac mac = acquire(algorithm, key);
+    try {
+      Utf8Encoder.encode(input, mac::update);
+      return mac.doFinal();
+    } catch (RuntimeException | Error e) {
+      mac.reset();
+      throw e;
+    } finally {
+      release(algorithm, key, mac);
+    }
+  }
+
+  /**
+   * sign a stream without loading it in memory, the stream is read until its end but not closed
+   * @param algorithm {@link MacAlgorithm}
+   * @param key secret key
+   * @param input {@link InputStream} to sign
+   * @return the raw MAC
+   * @throws GeneralSecurityException if algorithm does not exist or key is invalid
+   * @throws IOException if reading failed
+   */
+  public static byte[] mac(MacAlgorithm algorithm, byte[] key, InputStream input) throws GeneralSecurityException, IOException {
+    KeyedMac mac = acquire(algorithm, key);
+    byte[] buffer = DigestUtils.acquireBuffer();
+    int read;
+    try {
+      while ((read = input.read(buffer)) != -1) {
+        mac.update(buffer, 0, read);
+      }
+      return mac.doFinal();
+    } catch (IOException | RuntimeException | Error e) {
+      mac.reset();
+      throw e;
+    } finally {
+      DigestUtils.releaseBuffer(buffer);
+      release(algorithm, key, mac);
+    }
+  }
+
+  /**
+   * @param algorithm {@link MacAlgorithm}
+   * @param key secret key
+   * @param input to sign, encoded in UTF-8
+   * @return the MAC in hexadecimal
+   * @throws GeneralSecurityException if algorithm does not exist or key is invalid
+   */
+  public static String macHex(MacAlgorithm algorithm, byte[] key, CharSequence input) throws GeneralSecurityException {
+    return HexUtils.encode(mac(algorithm, key, input));
+  }
+
+  /**
+   * @param algorithm {@link MacAlgorithm}
+   * @param key secret key
+   * @param input to sign
+   * @return the MAC in hexadecimal
+   * @throws GeneralSecurityException if algorithm does not exist or key is invalid
+   */
+  public static String macHex(MacAlgorithm algorithm, byte[] key, byte[] input) throws GeneralSecurityException {
+    return HexUtils.encode(mac(algorithm, key, input));
+  }
+
+  /**
+   * compare in constant time, the duration does not depend on the position of the first difference
+   * @param expected MAC, null proof
+   * @param actual MAC, null proof
+   * @return true if both are equal
+   */
+  public static boolean verify(byte[] expected, byte[] actual) {
+    if (null == expected || null == actual) {
+      return false;
+    }
+    return MessageDigest.isEqual(expected, actual);
+  }
+
+  /**
+   * @param algorithm {@link MacAlgorithm}
+   * @param key secret key
+   * @param input signed, encoded in UTF-8
+   * @param expected MAC received
+   * @return true if the MAC of input is equal to expected, compared in constant time
+   * @throws GeneralSecurityException if algorithm does not exist or key is invalid
+   */
+  public static boolean verify(MacAlgorithm algorithm, byte[] key, CharSequence input, byte[] expected) throws GeneralSecurityException {
+    return verify(expected, mac(algorithm, key, input));
+  }
+
+  /**
+   * @param algorithm {@link MacAlgorithm}
+   * @param key secret key
+   * @param input signed, encoded in UTF-8
+   * @param expected MAC received in hexadecimal, case insensitive, null proof
+   * @return true if the MAC of input is equal to expected, compared in constant time
+   * @throws GeneralSecurityException if algorithm does not exist or key is invalid
+   */
+  public static boolean verifyHex(MacAlgorithm algorithm, byte[] key, CharSequence input, String expected) throws GeneralSecurityException {
+    if (null == expected) {
+      return false;
+    }
+    byte[] actual = HexUtils.encodeToBytes(mac(algorithm, key, input));
+    byte[] received = expected.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.US_ASCII);
+    return MessageDigest.isEqual(actual, received);
+  }
+
+  /**
+   * @param algorithm {@link MacAlgorithm}
+   * @param key secret key
+   * @return {@link KeyedMac} owned by the calling platform thread, or borrowed from the pool of the key on a virtual thread,
+   *         to be given back with {@link #release(MacAlgorithm, byte[], KeyedMac)}, reset and ready to use
+   * @throws GeneralSecurityException if algorithm does not exist or key is invalid
+   */
+  private static KeyedMac acquire(MacAlgorithm algorithm, byte[] key) throws GeneralSecurityException {
+    if (null == key) {
+      throw new IllegalArgumentException("argument key missing");
+    }
+    CacheKey cacheKey = new CacheKey(algorithm, key);
+    if (VirtualThreads.isVirtual()) {
+      BlockingQueue<KeyedMac> pool = pools.getIfPresent(cacheKey);
+      KeyedMac mac = null == pool ? null : pool.poll();
+      return null == mac ? newMac(algorithm, key) : mac;
+    }
+    Map<CacheKey, KeyedMac> cache = macs.get();
+    KeyedMac mac = cache.get(cacheKey);
+    if (null == mac) {
+      mac = newMac(algorithm, key);
+      cache.put(new CacheKey(algorithm, key.clone()), mac);
+    }
+    return mac;
+  }
+
+  /**
+   * give back a {@link KeyedMac} to the pool of its key on a virtual thread, dropped if the pool is full
+   * @param algorithm {@link MacAlgorithm}
+   * @param key secret key
+   * @param mac got from {@link #acquire(MacAlgorithm, byte[])}, reset
+   */
+  private static void release(MacAlgorithm algorithm, byte[] key, KeyedMac mac) {
+    if (!VirtualThreads.isVirtual()) {
+      return;
+    }
+    BlockingQueue<KeyedMac> pool = pools.getIfPresent(new CacheKey(algorithm, key));
+    if (null == pool) {
+      BlockingQueue<KeyedMac> created = new ArrayBlockingQueue<>(POOL_SIZE_PER_KEY);
+      pool = pools.asMap().putIfAbsent(new CacheKey(algorithm, key.clone()), created);
+      if (null == pool) {
+        pool = created;
+      }
+    }
+    pool.offer(mac);
+  }
+
+  private static KeyedMac newMac(MacAlgorithm algorithm, byte[] key) throws GeneralSecurityException {
+    return algorithm.blake2b ? new Blake2bMac(algorithm, key) : new JcaMac(algorithm, key);
+  }
+
+  private static final class CacheKey {
+    final MacAlgorithm algorithm;
+    final byte[] key;
+    final int hash;
+
+    CacheKey(MacAlgorithm algorithm, byte[] key) {
+      this.algorithm = algorithm;
+      this.key = key;
+      this.hash = 31 * algorithm.hashCode() + Arrays.hashCode(key);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof CacheKey)) {
+        return false;
+      }
+      CacheKey other = (CacheKey) obj;
+      return algorithm == other.algorithm && MessageDigest.isEqual(key, other.key);
+    }
+  }
+
+  /**
+   * common view of a JCA {@link Mac} and a keyed {@link Blake2bDigest}
+   */
+  private interface KeyedMac {
+    void update(byte[] input, int offset, int len);
+
+    default void update(ByteBuffer input) {
+      update(input.array(), input.arrayOffset() + input.position(), input.remaining());
+      input.position(input.limit());
+    }
+
+    byte[] doFinal();
+
+    void reset();
+  }
+
+  private static final class JcaMac implements KeyedMac {
+    final Mac mac;
+
+    JcaMac(MacAlgorithm algorithm, byte[] key) throws GeneralSecurityException {
+      mac = Providers.mac(algorithm.algorithm);
+      mac.init(new SecretKeySpec(key, algorithm.algorithm));
+    }
+
+    @Override
+    public void update(byte[] input, int offset, int len) {
+      mac.update(input, offset, len);
+    }
+
+    @Override
+    public void update(ByteBuffer input) {
+      mac.update(input);
+    }
+
+    @Override
+    public byte[] doFinal() {
+      return mac.doFinal();
+    }
+
+    @Override
+    public void reset() {
+      mac.reset();
+    }
+  }
+
+  private static final class Blake2bMac implements KeyedMac {
+    final Blake2bDigest digest;
+
+    Blake2bMac(MacAlgorithm algorithm, byte[] key) throws GeneralSecurityException {
+      if (key.length == 0 || key.length > 64) {
+        throw new InvalidKeyException("BLAKE2b key length must be between 1 and 64 bytes");
+      }
+      digest = new Blake2bDigest(key, algorithm.length, null, null);
+    }
+
+    @Override
+    public void update(byte[] input, int offset, int len) {
+      digest.update(input, offset, len);
+    }
+
+    @Override
+    public byte[] doFinal() {
+      byte[] out = new byte[digest.getDigestSize()];
+      digest.doFinal(out, 0);
+      return out;
+    }
+
+    @Override
+    public void reset() {
+      digest.reset();
+    }
+  }
+}
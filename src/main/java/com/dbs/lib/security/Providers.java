@@ -0,0 +1,100 @@
+/**
+ * Providers
+ */
+package com.dbs.lib.security;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.Security;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.NoSuchPaddingException;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+/**
+ * cache the {@link Provider} resolved on first use of an algorithm, later instances are requested directly from it
+ * instead of walking the whole provider list again.<br>
+ * BouncyCastle is only registered when an algorithm needs it.
+ *
+ * @author dbs at 18 Oct 2026 17:40:03
+ * @since 1.2.0
+ * @version 1.0
+ */
+@lombok.experimental.UtilityClass
+class Providers {
+
+  private static final ConcurrentMap<String, Provider> providers = new ConcurrentHashMap<>();
+
+  private static volatile boolean bouncyCastle;
+
+  /**
+   * register BouncyCastle if not already done
+   */
+  static void ensureBouncyCastle() {
+    if (bouncyCastle) {
+      return;
+    }
+    synchronized (Providers.class) {
+      if (!bouncyCastle) {
+        if (null == Security.getProvider(BouncyCastleProvider.PROVIDER_NAME)) {
+          Security.addProvider(new BouncyCastleProvider());
+        }
+        bouncyCastle = true;
+      }
+    }
+  }
+
+  /**
+   * @param algorithm name
+   * @return new {@link MessageDigest}
+   * @throws NoSuchAlgorithmException if algorithm does not exist
+   */
+  static MessageDigest messageDigest(String algorithm) throws NoSuchAlgorithmException {
+    String key = "MessageDigest." + algorithm;
+    Provider provider = providers.get(key);
+    if (null != provider) {
+      return MessageDigest.getInstance(algorithm, provider);
+    }
+    MessageDigest md = MessageDigest.getInstance(algorithm);
+    providers.putIfAbsent(key, md.getProvider());
+    return md;
+  }
+
+  /**
+   * @param transformation ie AES/CBC/PKCS5Padding
+   * @return new {@link Cipher}
+   * @throws NoSuchAlgorithmException if transformation does not exist
+   * @throws NoSuchPaddingException if padding does not exist
+   */
+  static Cipher cipher(String transformation) throws NoSuchAlgorithmException, NoSuchPaddingException {
+    String key = "Cipher." + transformation;
+    Provider provider = providers.get(key);
+    if (null != provider) {
+      return Cipher.getInstance(transformation, provider);
+    }
+    Cipher cipher = Cipher.getInstance(transformation);
+    providers.putIfAbsent(key, cipher.getProvider());
+    return cipher;
+  }
+
+  /**
+   * @param algorithm name
+   * @return new {@link Mac}
+   * @throws NoSuchAlgorithmException if algorithm does not exist
+   */
+  static Mac mac(String algorithm) throws NoSuchAlgorithmException {
+    String key = "Mac." + algorithm;
+    Provider provider = providers.get(key);
+    if (null != provider) {
+      return Mac.getInstance(algorithm, provider);
+    }
+    Mac mac = Mac.getInstance(algorithm);
+    providers.putIfAbsent(key, mac.getProvider());
+    return mac;
+  }
+}
@@ -0,0 +1,103 @@
+/**
+ * Utf8Encoder
+ */
+package com.dbs.lib.security;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * encode characters in UTF-8 through a {@link CharsetEncoder} and a {@link ByteBuffer} reused by each thread,
+ * the encoded bytes are fed by chunks to a consumer such as {@link MessageDigest#update(ByteBuffer)} without any byte[] allocation.
+ * Malformed input is replaced the same way as {@link String#getBytes(java.nio.charset.Charset)}.
+ * Virtual threads borrow the encoder and its buffer from a pool of at most {@value #POOL_SIZE}.
+ *
+ * @author dbs at 18 Oct 2026 15:31:08
+ * @since 1.2.0
+ * @version 1.0
+ * @version 1.1 bounded pool for virtual threads
+ */
+@lombok.experimental.UtilityClass
+class Utf8Encoder {
+
+  /**
+   * size of the buffer reused by each platform thread, longer input are encoded by chunks
+   */
+  static final int BUFFER_SIZE = 1024;
+
+  /**
+   * maximum number of idle encoders pooled for virtual threads
+   */
+  static final int POOL_SIZE = 64;
+
+  private static final ThreadLocal<Encoder> encoders = ThreadLocal.withInitial(Encoder::new);
+
+  private static final BlockingQueue<Encoder> pool = new ArrayBlockingQueue<>(POOL_SIZE);
+
+  /**
+   * @param md {@link MessageDigest} to update with input encoded in UTF-8
+   * @param input to encode
+   */
+  static void update(MessageDigest md, CharSequence input) {
+    encode(input, md::update);
+  }
+
+  /**
+   * @param input to encode in UTF-8
+   * @param sink receive each encoded chunk, the buffer is only valid during the call
+   */
+  static void encode(CharSequence input, Consumer<ByteBuffer> sink) {
+    boolean virtual = VirtualThreads.isVirtual();
+    Encoder state = virtual ? pool.poll() : encoders.get();
+    if (null == state) {
+      state = new Encoder();
+    }
+    try {
+      CharsetEncoder encoder = state.encoder.reset();
+      ByteBuffer out = state.buffer;
+      out.clear();
+      CharBuffer in = CharBuffer.wrap(input);
+      while (encoder.encode(in, out, true).isOverflow()) {
+        drain(out, sink);
+      }
+      CoderResult result;
+      while ((result = encoder.flush(out)).isOverflow()) {
+        drain(out, sink);
+      }
+      if (result.isError()) {
+        throw new IllegalStateException(result.toString());
+      }
+      drain(out, sink);
+    } finally {
+      if (virtual) {
+        pool.offer(state);
+      }
+    }
+  }
+
+  /**
+   * UTF-8 encoder with its output buffer
+   */
+  private static final class Encoder {
+    final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+  }
+
+  private static void drain(ByteBuffer out, Consumer<ByteBuffer> sink) {
+    out.flip();
+    if (out.hasRemaining()) {
+      sink.accept(out);
+    }
+    out.clear();
+  }
+}
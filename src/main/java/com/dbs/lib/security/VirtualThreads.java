@@ -0,0 +1,51 @@
+/**
+ * VirtualThreads
+ */
+package com.dbs.lib.security;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * detect virtual threads without requiring Java 21, {@code Thread.isVirtual()} is resolved once as a {@link MethodHandle}.<br>
+ * per thread caches are not worth it on virtual threads: each task runs on a new thread, so the cached instance is
+ * thrown away with it, such callers borrow from a bounded pool instead.
+ *
+ * @author dbs at 19 Oct 2026 09:02:18
+ * @since 1.2.0
+ * @version 1.0
+ * @version 1.1 {@link MethodHandle} resolved once, no lookup at all before Java 21
+ */
+@lombok.experimental.UtilityClass
+class VirtualThreads {
+
+  private static final MethodHandle IS_VIRTUAL = resolve();
+
+  /**
+   * false if the JDK has no virtual threads
+   */
+  static final boolean SUPPORTED = null != IS_VIRTUAL;
+
+  private static MethodHandle resolve() {
+    try {
+      return MethodHandles.publicLookup().findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      return null;
+    }
+  }
+
+  /**
+   * @return true if the calling thread is a virtual thread, always false before Java 21
+   */
+  static boolean isVirtual() {
+    if (!SUPPORTED) {
+      return false;
+    }
+    try {
+      return (boolean) IS_VIRTUAL.invokeExact(Thread.currentThread());
+    } catch (Throwable e) {
+      return false;
+    }
+  }
+}
@@ -5,14 +5,45 @@ package com.dbs.lib.service;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
 import java.net.NoRouteToHostException;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -21,36 +52,37 @@ import javax.validation.constraints.NotNull;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.core.ResolvableType;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpInputMessage;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.http.client.HttpComponentsAsyncClientHttpRequestFactory;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.http.client.support.BasicAuthenticationInterceptor;
 import org.springframework.http.client.support.BasicAuthorizationInterceptor;
-import org.springframework.http.converter.GenericHttpMessageConverter;
-import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.HttpMessageNotReadableException;
-import org.springframework.http.converter.json.MappingJacksonInputMessage;
+import org.springframework.util.CollectionUtils;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.concurrent.ListenableFuture;
 import org.springframework.util.concurrent.ListenableFutureCallback;
 import org.springframework.web.client.AsyncRestTemplate;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpMessageConverterExtractor;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponents;
 import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
 
+import com.dbs.lib.Defaults;
 import com.dbs.lib.Utils;
 import com.dbs.lib.dto.NetworkTestRequest;
 import com.dbs.lib.dto.NetworkTestResponse;
@@ -59,6 +91,19 @@ import com.dbs.lib.dto.UserDto;
 import com.dbs.lib.dto.enumeration.ErrorCode;
 import com.dbs.lib.exception.PingException;
 import com.dbs.lib.net.NetUtils;
+import com.dbs.lib.service.client.CircuitBreakerOpenException;
+import com.dbs.lib.service.client.ClientMetrics;
+import com.dbs.lib.service.client.CodecRegistry;
+import com.dbs.lib.service.client.CompressionInterceptor;
+import com.dbs.lib.service.client.LoadBalancer;
+import com.dbs.lib.service.client.MetricsInterceptor;
+import com.dbs.lib.service.client.PooledRequestFactory;
+import com.dbs.lib.service.client.ResilienceInterceptor;
+import com.dbs.lib.service.client.ResponseCache;
+import com.dbs.lib.service.client.SingleFlight;
+import com.dbs.lib.service.client.ThrottledException;
+import com.dbs.lib.service.client.ThrottlingInterceptor;
+import com.dbs.lib.spreadsheet.CsvReader;
 
 
 /**
@@ -67,10 +112,26 @@ import com.dbs.lib.net.NetUtils;
  * @author dbs at 9 Oct 2019 23:37:22
  * @since 1.0.0
  * @version 1.0
+ * @version 1.1 add {@link #userCreateAsync(UserDto)}, {@link #userUpdateAsync(UserDto)}, {@link #userGetAsync(String)},
+ *   {@link #statsAsync(LocalDate, LocalDate)} and {@link #auditCsvAsync(LocalDate, LocalDate)} run on {@link #getAsyncExecutor()}
+ * @version 1.2 scheme, host, port and path are encoded once per path, see {@link #buildUri(String, MultiValueMap)}
+ * @version 1.3 add {@link #pooling()}
+ * @version 1.4 streaming audit CSV {@link #auditCsv(LocalDate, LocalDate, Consumer)}, {@link #auditCsv(LocalDate, LocalDate, Path)}
+ * @version 1.5 optional cache of {@link #userGet(String)}, see {@link #enableUserCache(long, Duration)}
+ * @version 1.6 optional coalescing of concurrent identical reads, see {@link #enableCoalescing()}
+ * @version 1.7 batch provisioning {@link #userCreateBatch(List, int, int)}, {@link #userUpdateBatch(List, int, int)}
+ * @version 1.8 retry and circuit breaker {@link #enableResilience(ResilienceInterceptor)}, failures mapped by {@link #errorCode(Exception)}
+ * @version 1.9 calls instrumentation, see {@link #setMetrics(ClientMetrics)}
+ * @version 1.10 multi endpoints load balancing {@link #enableLoadBalancing(LoadBalancer.Builder)}
+ * @version 1.11 gzip and deflate compression {@link #enableCompression(int)}
+ * @version 1.12 JSON bodies read and written by cached codecs, see {@link #exchange(URI, HttpMethod, HttpEntity, ParameterizedTypeReference)}
+ * @version 1.13 Smile or CBOR negotiation with JSON fallback, see {@link #enableBinaryFormat(CodecRegistry)}
+ * @version 1.14 bulkhead and rate limits by client and operation {@link #enableThrottling(ThrottlingInterceptor.Builder)}
+ * @version 1.15 a {@link #userGet(String)} after a write of the same login never joins a read in flight before it
+ * @version 1.16 the {@link LoadBalancer} fails over through the {@link ResilienceInterceptor}
  */
 @SuppressWarnings("deprecation")
 @lombok.Data
-@lombok.AllArgsConstructor
 @lombok.extern.slf4j.Slf4j
 public class AbstractClient {
 
@@ -80,6 +141,57 @@ public class AbstractClient {
       new ParameterizedTypeReference<SimpleResponse<Long>>() {};
   public static final ParameterizedTypeReference<SimpleResponse<UserDto>> typeUserDto =
       new ParameterizedTypeReference<SimpleResponse<UserDto>>() {};
+  public static final ParameterizedTypeReference<SimpleResponse<List<SimpleResponse<UserDto>>>> typeUserDtoBatch =
+      new ParameterizedTypeReference<SimpleResponse<List<SimpleResponse<UserDto>>>>() {};
+
+  /**
+   * size of the bounded pool used by the ...Async methods when virtual threads are not available
+   */
+  public static final int ASYNC_POOL_SIZE = Math.max(8, Runtime.getRuntime().availableProcessors() * 8);
+
+  /**
+   * maximum number of ...Async calls waiting for a thread of the bounded pool, the caller runs the call beyond
+   */
+  public static final int ASYNC_QUEUE_SIZE = 1024;
+
+  /**
+   * default number of users by HTTP call of {@link #userCreateBatch(List)} and {@link #userUpdateBatch(List)}
+   */
+  public static final int BATCH_CHUNK_SIZE = 500;
+
+  /**
+   * default number of chunks in flight of {@link #userCreateBatch(List)} and {@link #userUpdateBatch(List)}
+   */
+  public static final int BATCH_PARALLELISM = 4;
+
+  /**
+   * default minimum size of a request body compressed by {@link #enableCompression()}
+   */
+  public static final int COMPRESSION_THRESHOLD = 1024;
+
+  /**
+   * connect and read timeout in msec of a {@link #probe(URI)}
+   */
+  public static final int PROBE_TIMEOUT = 2000;
+
+  private static final SimpleClientHttpRequestFactory PROBE_FACTORY = newProbeFactory();
+
+  /**
+   * maximum number of paths with a precomputed URI
+   */
+  static final int PATH_TEMPLATE_CACHE_SIZE = 64;
+
+  /**
+   * size of the buffer used to copy a streamed body
+   */
+  static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * number of login stripes counting the user writes, see {@link #invalidateUserCache(UserDto)}
+   */
+  static final int USER_WRITE_STRIPES = 256;
+
+  private static volatile Executor asyncExecutor;
   
   protected AsyncRestTemplate asyncRestTemplate;
   protected final RestTemplate restTemplate;
@@ -100,10 +212,108 @@ public class AbstractClient {
   protected String pathUserCreate;
   protected String pathUserUpdate;
   protected String pathUserGet;
+  protected String pathUserCreateBatch;
+  protected String pathUserUpdateBatch;
   protected String pathStats;
   protected String pathAuditCsvAll;
   protected String ipOrigin;
+  /**
+   * cache of {@link #userGet(String)}, null when disabled
+   */
+  @lombok.Setter(lombok.AccessLevel.NONE)
+  @lombok.EqualsAndHashCode.Exclude
+  @lombok.ToString.Exclude
+  protected ResponseCache<String, SimpleResponse<UserDto>> userCache;
+  /**
+   * coalescing of identical reads, null when disabled
+   */
+  @lombok.Setter(lombok.AccessLevel.NONE)
+  @lombok.EqualsAndHashCode.Exclude
+  @lombok.ToString.Exclude
+  protected SingleFlight<String, SimpleResponse<?>> singleFlight;
+  /**
+   * instrumentation of the calls, see {@link #setMetrics(ClientMetrics)}
+   */
+  @lombok.EqualsAndHashCode.Exclude
+  @lombok.ToString.Exclude
+  protected ClientMetrics metrics = ClientMetrics.NOOP;
+  /**
+   * JSON readers and writers by type, built from the {@link #restTemplate} converters on first use, see {@link #getCodecs()}
+   */
+  @lombok.Setter(lombok.AccessLevel.NONE)
+  @lombok.EqualsAndHashCode.Exclude
+  @lombok.ToString.Exclude
+  protected volatile CodecRegistry codecs;
+  /**
+   * binary format offered to the peer, null for JSON only, see {@link #enableBinaryFormat(CodecRegistry)}
+   */
+  @lombok.Setter(lombok.AccessLevel.NONE)
+  @lombok.EqualsAndHashCode.Exclude
+  @lombok.ToString.Exclude
+  protected volatile CodecRegistry binaryCodecs;
+  /**
+   * true once the peer answered in the binary format, request bodies are then sent in it
+   */
+  @lombok.Setter(lombok.AccessLevel.NONE)
+  @lombok.EqualsAndHashCode.Exclude
+  @lombok.ToString.Exclude
+  protected volatile boolean binaryAccepted;
+  @lombok.Getter(lombok.AccessLevel.NONE)
+  @lombok.EqualsAndHashCode.Exclude
+  @lombok.ToString.Exclude
+  private final Map<String, PathTemplate> pathTemplates = new ConcurrentHashMap<>();
+  /**
+   * writes of users by login stripe, part of the coalescing key of {@link #userGet(String)}, with or without cache
+   */
+  @lombok.Getter(lombok.AccessLevel.NONE)
+  @lombok.EqualsAndHashCode.Exclude
+  @lombok.ToString.Exclude
+  private final AtomicLongArray userWrites = new AtomicLongArray(USER_WRITE_STRIPES);
   
+  /**
+   * constructor of all the settings of version 1.0, the optional features are disabled
+   * @param asyncRestTemplate {@link AsyncRestTemplate}, nullable
+   * @param restTemplate {@link RestTemplate}
+   * @param scheme http or https
+   * @param host server host
+   * @param port server port
+   * @param timeout timeout in msec
+   * @param user basic authentication user
+   * @param pw basic authentication password
+   * @param header authentication header
+   * @param headers JSON request headers
+   * @param headersPlain plain text request headers
+   * @param pathPing path of {@link #ping(NetworkTestRequest)}
+   * @param pathUserCreate path of {@link #userCreate(UserDto)}
+   * @param pathUserUpdate path of {@link #userUpdate(UserDto)}
+   * @param pathUserGet path of {@link #userGet(String)}
+   * @param pathStats path of {@link #stats(LocalDate, LocalDate, ListenableFuture)}
+   * @param pathAuditCsvAll path of {@link #auditCsv(LocalDate, LocalDate)}
+   * @param ipOrigin IP of the caller
+   */
+  public AbstractClient(AsyncRestTemplate asyncRestTemplate, RestTemplate restTemplate, String scheme, String host, int port, int timeout,
+      String user, String pw, String header, HttpHeaders headers, HttpHeaders headersPlain, String pathPing, String pathUserCreate,
+      String pathUserUpdate, String pathUserGet, String pathStats, String pathAuditCsvAll, String ipOrigin) {
+    this(restTemplate);
+    this.asyncRestTemplate = asyncRestTemplate;
+    this.scheme = scheme;
+    this.host = host;
+    this.port = port;
+    this.timeout = timeout;
+    this.user = user;
+    this.pw = pw;
+    this.header = header;
+    this.headers = headers;
+    this.headersPlain = headersPlain;
+    this.pathPing = pathPing;
+    this.pathUserCreate = pathUserCreate;
+    this.pathUserUpdate = pathUserUpdate;
+    this.pathUserGet = pathUserGet;
+    this.pathStats = pathStats;
+    this.pathAuditCsvAll = pathAuditCsvAll;
+    this.ipOrigin = ipOrigin;
+  }
+
   public AbstractClient(AsyncRestTemplate asyncRestTemplate) {
     this((RestTemplate)asyncRestTemplate.getRestOperations());
     this.asyncRestTemplate = asyncRestTemplate;
@@ -123,10 +333,229 @@ public class AbstractClient {
     pathUserCreate = StringUtils.defaultString(pathUserCreate, "/api/support/user/create");
     pathUserUpdate = StringUtils.defaultString(pathUserUpdate, "/api/support/user/update");
     pathUserGet = StringUtils.defaultString(pathUserGet, "/api/support/user/get");
+    pathUserCreateBatch = StringUtils.defaultString(pathUserCreateBatch, "/api/support/user/createBatch");
+    pathUserUpdateBatch = StringUtils.defaultString(pathUserUpdateBatch, "/api/support/user/updateBatch");
     pathStats = StringUtils.defaultString(pathStats, "/api/support/stats");
     pathAuditCsvAll = StringUtils.defaultString(pathAuditCsvAll, "/api/support/csvAll");
   }
 
+  /**
+   * builder of a {@link RestTemplate} request factory with a pool of keep-alive connections
+   * <pre>
+   * new MyClient(AbstractClient.pooling().maxPerRoute(50).buildRestTemplate());
+   * </pre>
+   * @return {@link PooledRequestFactory.Builder}
+   */
+  public static PooledRequestFactory.Builder pooling() {
+    return PooledRequestFactory.builder();
+  }
+
+  /**
+   * builder of a multi endpoints load balancer, see {@link #enableLoadBalancing(LoadBalancer.Builder)}
+   * @return {@link LoadBalancer.Builder}
+   */
+  public static LoadBalancer.Builder loadBalancing() {
+    return LoadBalancer.builder();
+  }
+
+  /**
+   * spread the calls of the {@link #restTemplate} over several endpoints, scheme, host and port of {@link #setParams(String, String, Integer, String)}
+   * are replaced by the endpoint chosen for each request; ejected endpoints are probed with {@link #probe(URI)} unless the builder has a probe<br>
+   * the balancer replaces and closes any previous one, it runs before the {@link ResilienceInterceptor} so each endpoint has its circuit breaker,
+   * checked and updated on each fail over too
+   * @param builder built with {@link #loadBalancing()}
+   * @return the {@link LoadBalancer}, exposing the endpoints statistics, close it to stop its probe thread
+   */
+  public LoadBalancer enableLoadBalancing(LoadBalancer.Builder builder) {
+    if (!builder.hasProbe()) {
+      builder.probe(this::probe);
+    }
+    LoadBalancer balancer = builder.build();
+    List<ClientHttpRequestInterceptor> interceptors = restTemplate.getInterceptors();
+    for (Iterator<ClientHttpRequestInterceptor> iterator = interceptors.iterator(); iterator.hasNext();) {
+      ClientHttpRequestInterceptor interceptor = iterator.next();
+      if (interceptor instanceof LoadBalancer) {
+        iterator.remove();
+        ((LoadBalancer) interceptor).close();
+      }
+    }
+    int index = interceptors.size();
+    while (index > 0 && interceptors.get(index - 1) instanceof ResilienceInterceptor) {
+      index--;
+      balancer.setResilience((ResilienceInterceptor) interceptors.get(index));
+    }
+    interceptors.add(index, balancer);
+    return balancer;
+  }
+
+  /**
+   * check an ejected endpoint of the {@link LoadBalancer} with a GET of {@link #pathPing} on its own scheme, host and port,
+   * sent outside of the {@link #restTemplate} interceptors and within {@value #PROBE_TIMEOUT} msec
+   * @param endpoint scheme, host and port
+   * @return true if the endpoint answers with a status below 500
+   */
+  protected boolean probe(URI endpoint) {
+    try {
+      URI uri = UriComponentsBuilder.fromUri(buildUri(pathPing)).scheme(endpoint.getScheme()).host(endpoint.getHost())
+          .port(endpoint.getPort()).build(true).toUri();
+      try (ClientHttpResponse response = PROBE_FACTORY.createRequest(uri, HttpMethod.GET).execute()) {
+        return response.getRawStatusCode() < 500;
+      }
+    } catch (IOException | RuntimeException e) {
+      log.debug("probe {} failed: {}", endpoint, e.getMessage());
+      return false;
+    }
+  }
+
+  private static SimpleClientHttpRequestFactory newProbeFactory() {
+    SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+    factory.setConnectTimeout(PROBE_TIMEOUT);
+    factory.setReadTimeout(PROBE_TIMEOUT);
+    return factory;
+  }
+
+  /**
+   * compress request bodies of at least {@value #COMPRESSION_THRESHOLD} bytes, see {@link #enableCompression(int)}
+   * @return the {@link CompressionInterceptor}
+   */
+  public CompressionInterceptor enableCompression() {
+    return enableCompression(COMPRESSION_THRESHOLD);
+  }
+
+  /**
+   * gzip request bodies of the {@link #restTemplate} from threshold bytes, ask for gzip or deflate responses and decompress them
+   * while read, bytes saved are reported to {@link #metrics}; the interceptor replaces any previous one and runs right after
+   * the metrics, so {@link ClientMetrics#recordExchange(String, int, long, long)} reports uncompressed sizes
+   * @param threshold minimum size of a request body to compress, the server must accept Content-Encoding gzip
+   * @return the {@link CompressionInterceptor}
+   */
+  public CompressionInterceptor enableCompression(int threshold) {
+    CompressionInterceptor compression = new CompressionInterceptor(threshold, Deflater.BEST_SPEED, this::getMetrics, this::operationOf);
+    List<ClientHttpRequestInterceptor> interceptors = restTemplate.getInterceptors();
+    interceptors.removeIf(i -> i instanceof CompressionInterceptor);
+    interceptors.add(!interceptors.isEmpty() && interceptors.get(0) instanceof MetricsInterceptor ? 1 : 0, compression);
+    return compression;
+  }
+
+  /**
+   * offer a binary Jackson format to the peer, ie {@code client.enableBinaryFormat(CodecRegistry.smile())}; responses are asked
+   * in the format first and JSON second, request bodies are sent in the format once the peer answered in it,
+   * and in JSON again when it answers 415 Unsupported Media Type
+   * @param binaryCodecs {@link CodecRegistry#smile()} or {@link CodecRegistry#cbor()}, null for JSON only
+   * @return the codecs
+   */
+  public CodecRegistry enableBinaryFormat(CodecRegistry binaryCodecs) {
+    this.binaryCodecs = binaryCodecs;
+    binaryAccepted = false;
+    return binaryCodecs;
+  }
+
+  /**
+   * record latency and {@link ErrorCode} of each call, HTTP status and payload sizes of each exchange of the {@link #restTemplate}
+   * @param metrics {@link ClientMetrics}, ie {@link com.dbs.lib.service.client.SimpleClientMetrics}, null for none
+   */
+  public void setMetrics(ClientMetrics metrics) {
+    this.metrics = null == metrics ? ClientMetrics.NOOP : metrics;
+    List<ClientHttpRequestInterceptor> interceptors = restTemplate.getInterceptors();
+    if (ClientMetrics.NOOP != this.metrics && interceptors.stream().noneMatch(i -> i instanceof MetricsInterceptor)) {
+      interceptors.add(0, new MetricsInterceptor(this::getMetrics, this::operationOf));
+    }
+  }
+
+  /**
+   * @param uri request URI
+   * @return name of the operation calling the path of the URI, the path if unknown
+   */
+  protected String operationOf(URI uri) {
+    String path = uri.getPath();
+    if (path.equals(pathUserGet)) {
+      return "userGet";
+    } else if (path.equals(pathUserCreate)) {
+      return "userCreate";
+    } else if (path.equals(pathUserUpdate)) {
+      return "userUpdate";
+    } else if (path.equals(pathStats)) {
+      return "stats";
+    } else if (path.equals(pathAuditCsvAll)) {
+      return "auditCsv";
+    } else if (path.equals(pathUserCreateBatch)) {
+      return "userCreateBatch";
+    } else if (path.equals(pathUserUpdateBatch)) {
+      return "userUpdateBatch";
+    }
+    return path;
+  }
+
+  /**
+   * report a call to {@link #metrics}
+   * @param <T> payload type
+   * @param operation client operation
+   * @param start {@link System#nanoTime()} at the beginning of the call
+   * @param resp response returned to the caller, may be null
+   * @return resp
+   */
+  protected <T> SimpleResponse<T> record(String operation, long start, SimpleResponse<T> resp) {
+    metrics.recordCall(operation, System.nanoTime() - start, null == resp || null == resp.getErrorId() ? ErrorCode.none : resp.getErrorId());
+    return resp;
+  }
+
+  /**
+   * builder of a retry and circuit breaker policy, see {@link #enableResilience(ResilienceInterceptor)}
+   * @return {@link ResilienceInterceptor.Builder}
+   */
+  public static ResilienceInterceptor.Builder resilience() {
+    return ResilienceInterceptor.builder();
+  }
+
+  /**
+   * retry idempotent calls of the {@link #restTemplate} and fail fast while the host is unhealthy,
+   * calls rejected by an open circuit answer {@link ErrorCode#unavailable}<br>
+   * the interceptor replaces any previous one and is added last, interceptors added later like the one of
+   * {@link #setBasicAuthentication(String, String)} run on the first attempt only, their headers are kept by the next attempts
+   * @param interceptor built with {@link #resilience()}
+   * @return the interceptor, exposing retry and circuit breaker metrics
+   */
+  public ResilienceInterceptor enableResilience(ResilienceInterceptor interceptor) {
+    List<ClientHttpRequestInterceptor> interceptors = restTemplate.getInterceptors();
+    interceptors.removeIf(i -> i instanceof ResilienceInterceptor);
+    interceptors.add(interceptor);
+    for (ClientHttpRequestInterceptor balancer : interceptors) {
+      if (balancer instanceof LoadBalancer) {
+        ((LoadBalancer) balancer).setResilience(interceptor);
+      }
+    }
+    return interceptor;
+  }
+
+  /**
+   * builder of the client limits, see {@link #enableThrottling(ThrottlingInterceptor.Builder)}
+   * @return {@link ThrottlingInterceptor.Builder}
+   */
+  public static ThrottlingInterceptor.Builder throttling() {
+    return ThrottlingInterceptor.builder();
+  }
+
+  /**
+   * limit the concurrent calls and the calls per second of the {@link #restTemplate}, for all calls and by operation name of
+   * {@link #operationOf(URI)}; calls over a limit are not sent and answer {@link ErrorCode#tooManyRequests} at once,
+   * rejections are counted by {@link #metrics}<br>
+   * the interceptor replaces any previous one and runs right after the metrics and compression, before load balancing and retries
+   * @param builder built with {@link #throttling()}
+   * @return the {@link ThrottlingInterceptor}, exposing the state of its bulkheads and rate limits
+   */
+  public ThrottlingInterceptor enableThrottling(ThrottlingInterceptor.Builder builder) {
+    ThrottlingInterceptor throttling = builder.build(this::getMetrics, this::operationOf);
+    List<ClientHttpRequestInterceptor> interceptors = restTemplate.getInterceptors();
+    interceptors.removeIf(i -> i instanceof ThrottlingInterceptor);
+    int index = 0;
+    while (index < interceptors.size()
+        && (interceptors.get(index) instanceof MetricsInterceptor || interceptors.get(index) instanceof CompressionInterceptor)) {
+      index++;
+    }
+    interceptors.add(index, throttling);
+    return throttling;
+  }
+
   /**
    * create a HttpHeaders object with  ContentType, AcceptCharset set
    * @return {@link HttpHeaders}
@@ -150,7 +579,8 @@ public class AbstractClient {
   
   /**
    * build uri with default {@link #host}, {@link #port}, {@link #scheme} and path and params<br>
-   * example /xxx/send?username={username}&password={password}&to={to}&text={text}&from={from}
+   * example /xxx/send?username={username}&password={password}&to={to}&text={text}&from={from}<br>
+   * the encoded scheme, host, port and path are computed once per path, only the query parameters are encoded per call
    * 
    * @param path url path
    * @param params url nullable request parameters
@@ -158,20 +588,34 @@ public class AbstractClient {
    * @throws UnsupportedEncodingException if encoding error
    */
   protected URI buildUri(String path, @Nullable MultiValueMap<String, String> params) throws UnsupportedEncodingException {
-    UriComponents uriComponents = UriComponentsBuilder.newInstance()
-        .scheme(scheme)
-        .host(host)
-        .port(port)
-        .path(path)
-        .queryParams(params)
-        .build()
-        .encode();
-    return uriComponents.toUri();
+    PathTemplate template = getPathTemplate(path);
+    if (CollectionUtils.isEmpty(params)) {
+      return template.uri;
+    }
+    StringBuilder sb = new StringBuilder(template.encoded.length() + 64).append(template.encoded);
+    char separator = '?';
+    for (Map.Entry<String, List<String>> entry : params.entrySet()) {
+      String name = UriUtils.encodeQueryParam(entry.getKey(), StandardCharsets.UTF_8);
+      if (CollectionUtils.isEmpty(entry.getValue())) {
+        sb.append(separator).append(name);
+        separator = '&';
+        continue;
+      }
+      for (String value : entry.getValue()) {
+        sb.append(separator).append(name);
+        separator = '&';
+        if (null != value) {
+          sb.append('=').append(UriUtils.encodeQueryParam(value, StandardCharsets.UTF_8));
+        }
+      }
+    }
+    return URI.create(sb.toString());
   }
   
   /**
    * build uri with default {@link #host}, {@link #port}, {@link #scheme} and path and params<br>
-   * example /xxx/send?username={username}&password={password}&to={to}&text={text}&from={from}
+   * example /xxx/send?username={username}&password={password}&to={to}&text={text}&from={from}<br>
+   * without params, the path template is parsed once and only the variables are expanded and encoded per call
    * 
    * @param path url path
    * @param params url nullable request parameters
@@ -180,6 +624,9 @@ public class AbstractClient {
    * @throws UnsupportedEncodingException if encoding error
    */
   protected URI buildUri(String path, @Nullable MultiValueMap<String, String> params, @Nonnull Object... uriVariableValues) throws UnsupportedEncodingException {
+    if (CollectionUtils.isEmpty(params)) {
+      return getPathTemplate(path).components.expand(uriVariableValues).encode().toUri();
+    }
     UriComponents uriComponents = UriComponentsBuilder.newInstance()
         .scheme(scheme)
         .host(host)
@@ -190,6 +637,64 @@ public class AbstractClient {
         .encode();
     return uriComponents.toUri();
   }
+
+  /**
+   * @param path url path
+   * @return {@link PathTemplate} of path, computed on first use and again when it was built for another {@link #scheme},
+   *         {@link #host} or {@link #port}, even if they were assigned without their setter
+   */
+  private PathTemplate getPathTemplate(String path) {
+    String currentScheme = scheme;
+    String currentHost = host;
+    int currentPort = port;
+    PathTemplate template = pathTemplates.get(path);
+    if (null == template || !template.isFor(currentScheme, currentHost, currentPort)) {
+      if (pathTemplates.size() >= PATH_TEMPLATE_CACHE_SIZE) {
+        pathTemplates.clear();
+      }
+      template = new PathTemplate(currentScheme, currentHost, currentPort, UriComponentsBuilder.newInstance()
+          .scheme(currentScheme)
+          .host(currentHost)
+          .port(currentPort)
+          .path(path)
+          .build());
+      pathTemplates.put(path, template);
+    }
+    return template;
+  }
+
+  /**
+   * drop the precomputed URIs, called when {@link #scheme}, {@link #host} or {@link #port} change to free the stale ones
+   */
+  protected void resetPathTemplates() {
+    pathTemplates.clear();
+  }
+
+  /**
+   * path parsed once, with its encoded form when it has no variable, and the origin it was built for
+   */
+  private static final class PathTemplate {
+    final String scheme;
+    final String host;
+    final int port;
+    final UriComponents components;
+    final String encoded;
+    final URI uri;
+
+    PathTemplate(String scheme, String host, int port, UriComponents components) {
+      this.scheme = scheme;
+      this.host = host;
+      this.port = port;
+      this.components = components;
+      this.encoded = components.encode().toUriString();
+      this.uri = URI.create(encoded);
+    }
+
+    boolean isFor(String scheme, String host, int port) {
+      return this.port == port && Objects.equals(this.host, host) && Objects.equals(this.scheme, scheme);
+    }
+  }
+
   /**
    * ping with icmp if the server is up and running
    * 
@@ -232,6 +737,7 @@ public class AbstractClient {
   public void setScheme(String scheme) {
     if (StringUtils.isNotBlank(host)) {
       this.scheme = scheme;
+      resetPathTemplates();
     }
   }
 
@@ -242,9 +748,19 @@ public class AbstractClient {
   public void setHost(String host) {
     if (StringUtils.isNotBlank(host)) {
       this.host = host;
+      resetPathTemplates();
     }
   }
 
+  /**
+   * @param port the port to set
+   * 
+   */
+  public void setPort(int port) {
+    this.port = port;
+    resetPathTemplates();
+  }
+
   /**
    * @param user the new user to set
    * @param password the new password to set
@@ -321,8 +837,26 @@ public class AbstractClient {
     if ( null != ipOrigin) {
       this.ipOrigin = ipOrigin;
     }
+    resetPathTemplates();
   }
   
+  /**
+   * @param e {@link Exception} of a failed call
+   * @return {@link ErrorCode#unavailable} if the call was rejected by an open circuit, {@link ErrorCode#tooManyRequests} if rejected
+   * by a client limit, else {@link ErrorCode#internalError}
+   */
+  public ErrorCode errorCode(Exception e) {
+    for (Throwable t = e; null != t; t = t.getCause()) {
+      if (t instanceof CircuitBreakerOpenException) {
+        return ErrorCode.unavailable;
+      }
+      if (t instanceof ThrottledException) {
+        return ErrorCode.tooManyRequests;
+      }
+    }
+    return ErrorCode.internalError;
+  }
+
   /**
    * handle {@link HttpServerErrorException} and other to extract a message
    * @param e {@link Exception} to handle
@@ -369,7 +903,7 @@ public class AbstractClient {
   		}
   	} 
   	if (null == resp)
-  		resp = new SimpleResponse<>(ErrorCode.internalError, handleException(e));
+  		resp = new SimpleResponse<>(errorCode(e), handleException(e));
 		return resp;
 	}
 
@@ -387,29 +921,100 @@ public class AbstractClient {
 
   
   /**
-   * reuse message converters from {@link #restTemplate} to extract payload from {@link HttpClientErrorException}
+   * read the JSON or binary payload of a {@link HttpClientErrorException} with the cached {@link #getCodecs()} reader
    * @param <T>
    * @param clazz a context class for the target type
    * @param exc {@link HttpClientErrorException}
-   * @return the converted object
+   * @return the converted object, null if the payload is neither JSON nor in the binary format
    * @throws HttpMessageNotReadableException
    * @throws IOException
    */
-	@SuppressWarnings("unchecked")
 	protected <T> T extractData(Class<T> clazz, HttpClientErrorException exc) throws HttpMessageNotReadableException, IOException {
-  	MediaType contentType = exc.getResponseHeaders().getContentType();
-  	HttpInputMessage responseWrapper = new MappingJacksonInputMessage(new ByteArrayInputStream(exc.getResponseBodyAsByteArray()), exc.getResponseHeaders());
-  	for (HttpMessageConverter<?> messageConverter : restTemplate.getMessageConverters()) {
-  		if (messageConverter instanceof GenericHttpMessageConverter) {
-  			GenericHttpMessageConverter<?> genericMessageConverter = (GenericHttpMessageConverter<?>) messageConverter;
-  			if (genericMessageConverter.canRead(clazz, null, contentType)) {
-  				log.debug("Reading to [{}]", ResolvableType.forType(clazz));
-  				return (T) genericMessageConverter.read(clazz, null, responseWrapper);
-  			}
-  		}
-		}
-		return null;
+  	CodecRegistry binary = binaryCodecs;
+  	HttpHeaders responseHeaders = exc.getResponseHeaders();
+  	CodecRegistry registry = null != binary && null != responseHeaders && binary.canRead(responseHeaders) ? binary : getCodecs();
+  	if (null != responseHeaders && !registry.canRead(responseHeaders)) {
+  		return null;
+  	}
+  	log.debug("Reading to [{}]", clazz);
+  	return registry.reader(clazz).readValue(exc.getResponseBodyAsByteArray());
 	}
+
+  /**
+   * @return JSON codecs sharing the {@link com.fasterxml.jackson.databind.ObjectMapper} of the {@link #restTemplate} converters,
+   * created on first call; set them again after replacing the converters
+   */
+  public CodecRegistry getCodecs() {
+    CodecRegistry registry = codecs;
+    if (null == registry) {
+      registry = CodecRegistry.of(restTemplate);
+      codecs = registry;
+    }
+    return registry;
+  }
+
+  /**
+   * {@link RestTemplate#exchange(URI, HttpMethod, HttpEntity, ParameterizedTypeReference)} with JSON bodies written and read
+   * by the cached {@link #getCodecs()} writer and reader of their type, without scanning the message converters on each call;
+   * responses of another content type still go through the converters; the binary format is negotiated when enabled,
+   * see {@link #enableBinaryFormat(CodecRegistry)}
+   * @param <T> response body type
+   * @param uri {@link URI}
+   * @param method {@link HttpMethod}
+   * @param entity headers and optional body of the request
+   * @param type response body type
+   * @return {@link ResponseEntity}, without body on 204, 304 or empty response
+   */
+  protected <T> ResponseEntity<T> exchange(URI uri, HttpMethod method, HttpEntity<?> entity, ParameterizedTypeReference<T> type) {
+    CodecRegistry binary = binaryCodecs;
+    boolean binaryBody = null != binary && binaryAccepted && entity.hasBody();
+    try {
+      return exchange(uri, method, entity, type, binary, binaryBody);
+    } catch (HttpClientErrorException.UnsupportedMediaType e) {
+      if (!binaryBody) {
+        throw e;
+      }
+      binaryAccepted = false;
+      log.info("{} does not accept {} request bodies, back to JSON", uri.getAuthority(), binary.getMediaType());
+      return exchange(uri, method, entity, type, binary, false);
+    }
+  }
+
+  private <T> ResponseEntity<T> exchange(URI uri, HttpMethod method, HttpEntity<?> entity, ParameterizedTypeReference<T> type,
+      @Nullable CodecRegistry binary, boolean binaryBody) {
+    CodecRegistry json = getCodecs();
+    return restTemplate.execute(uri, method, request -> {
+      HttpHeaders requestHeaders = request.getHeaders();
+      requestHeaders.putAll(entity.getHeaders());
+      if (requestHeaders.getAccept().isEmpty()) {
+        requestHeaders.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+      }
+      if (null != binary) {
+        List<MediaType> accept = new ArrayList<>(requestHeaders.getAccept());
+        accept.add(0, binary.getMediaType());
+        requestHeaders.setAccept(accept);
+      }
+      if (entity.hasBody()) {
+        CodecRegistry registry = binaryBody ? binary : json;
+        if (binaryBody || null == requestHeaders.getContentType()) {
+          requestHeaders.setContentType(registry.getMediaType());
+        }
+        registry.writer(entity.getBody().getClass()).writeValue(request.getBody(), entity.getBody());
+      }
+    }, response -> {
+      T body;
+      if (null != binary && binary.canRead(response.getHeaders())) {
+        binaryAccepted = true;
+        body = binary.read(type, response);
+      } else if (json.canRead(response.getHeaders())) {
+        body = json.read(type, response);
+      } else {
+        body = new HttpMessageConverterExtractor<T>(type.getType(), restTemplate.getMessageConverters()).extractData(response);
+      }
+      return ResponseEntity.status(response.getRawStatusCode()).headers(response.getHeaders()).body(body);
+    });
+  }
+
   /**
    * 
    * @return root URI
@@ -487,12 +1092,13 @@ public class AbstractClient {
    * @return {@link SimpleResponse} message, and ErrorCode for error if any
    */
   public SimpleResponse<UserDto> userCreate(UserDto request) {
+    long start = System.nanoTime();
     if (null == request) {
       throw new IllegalArgumentException("argument request missing");
     }
     SimpleResponse<UserDto> resp = null;
     try {
-      ResponseEntity<SimpleResponse<UserDto>> ret = restTemplate.exchange(
+      ResponseEntity<SimpleResponse<UserDto>> ret = exchange(
           buildUri(pathUserCreate), 
           HttpMethod.POST,
           new HttpEntity<UserDto>(request, headers),
@@ -507,10 +1113,11 @@ public class AbstractClient {
         resp = new SimpleResponse<>(ErrorCode.internalError, "REST response has no body");
       }
     } catch (Exception e) {
-      resp = new SimpleResponse<>(ErrorCode.internalError, handleException(e));
+      resp = new SimpleResponse<>(errorCode(e), handleException(e));
       log.warn("ERROR userCreate {}, [{}]", e.getClass().getSimpleName(), resp);
     }
-    return  resp;
+    invalidateUserCache(request);
+    return record("userCreate", start, resp);
   }
   
   /**
@@ -519,12 +1126,13 @@ public class AbstractClient {
    * @return {@link SimpleResponse} message, and ErrorCode for error if any
    */
   public SimpleResponse<UserDto> userUpdate(UserDto request) {
+    long start = System.nanoTime();
     if (null == request) {
       throw new IllegalArgumentException("argument request missing");
     }
     SimpleResponse<UserDto> resp = null;
     try {
-      ResponseEntity<SimpleResponse<UserDto>> ret = restTemplate.exchange(
+      ResponseEntity<SimpleResponse<UserDto>> ret = exchange(
           buildUri(pathUserUpdate), 
           HttpMethod.POST,
           new HttpEntity<UserDto>(request, headers),
@@ -539,14 +1147,18 @@ public class AbstractClient {
         resp = new SimpleResponse<>(ErrorCode.internalError, "REST response has no body");
       }
     } catch (Exception e) {
-      resp = new SimpleResponse<>(ErrorCode.internalError, handleException(e));
+      resp = new SimpleResponse<>(errorCode(e), handleException(e));
       log.warn("ERROR userUpdate {}, [{}]", e.getClass().getSimpleName(), resp);
     }
-    return  resp;
+    invalidateUserCache(request);
+    return record("userUpdate", start, resp);
   }
   
   /**
-   * Security user read
+   * Security user read<br>
+   * served from {@link #userCache} when enabled, see {@link #enableUserCache(long, Duration)}, the cached {@link SimpleResponse}
+   * is shared by all callers and must not be modified,
+   * concurrent reads of the same login are coalesced when enabled, see {@link #enableCoalescing()}
    * @param loginId user login ID
    * @return {@link SimpleResponse} message, and ErrorCode for error if any
    */
@@ -554,30 +1166,263 @@ public class AbstractClient {
     if (null == loginId) {
       throw new IllegalArgumentException("argument request missing");
     }
+    long start = System.nanoTime();
+    ResponseCache<String, SimpleResponse<UserDto>> cache = userCache;
+    long generation = null == cache ? 0 : cache.generation(loginId);
+    ResponseCache.Entry<SimpleResponse<UserDto>> cached = null == cache ? null : cache.get(loginId);
+    if (null != cached && cached.isFresh()) {
+      return record("userGet", start, cached.getValue());
+    }
+    String key = "userGet " + loginId + ' ' + userWrites.get(userWriteStripe(loginId));
+    return record("userGet", start, coalesce(key, () -> userGet(loginId, cache, cached, generation)));
+  }
+
+  private SimpleResponse<UserDto> userGet(String loginId, ResponseCache<String, SimpleResponse<UserDto>> cache,
+      ResponseCache.Entry<SimpleResponse<UserDto>> cached, long generation) {
     SimpleResponse<UserDto> resp = null;
     try {
       MultiValueMap<String, String> params = new LinkedMultiValueMap<String, String>();
       params.add("login", loginId);
-      ResponseEntity<SimpleResponse<UserDto>> ret = restTemplate.exchange(
+      HttpHeaders requestHeaders = headers;
+      if (null != cached) {
+        requestHeaders = new HttpHeaders();
+        requestHeaders.putAll(headers);
+        requestHeaders.setIfNoneMatch(cached.getEtag());
+      }
+      ResponseEntity<SimpleResponse<UserDto>> ret = exchange(
           buildUri(pathUserGet, params), 
           HttpMethod.GET,
-          new HttpEntity<String>(headers),
+          new HttpEntity<String>(requestHeaders),
           typeUserDto);
-      if (null != ret && ret.hasBody()) {
+      if (null != cached && null != ret && ret.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+        resp = cache.revalidated(loginId, cached, generation);
+      } else if (null != ret && ret.hasBody()) {
         if (ret.getStatusCode() != HttpStatus.OK) {
           log.warn("Error calling user read with code: {}, msg: {}", ret.getStatusCode(), ret.getBody());
         } else {
           resp = ret.getBody();
+          if (null != cache && ErrorCode.success == resp.getErrorId()) {
+            cache.put(loginId, resp, ret.getHeaders().getETag(), generation);
+          }
         }
       } else {
         resp = new SimpleResponse<>(ErrorCode.internalError, "REST response has no body");
       }
     } catch (Exception e) {
-      resp = new SimpleResponse<>(ErrorCode.internalError, handleException(e));
+      resp = new SimpleResponse<>(errorCode(e), handleException(e));
       log.warn("ERROR userGet {}, [{}]", e.getClass().getSimpleName(), resp);
     }
     return  resp;
   }
+
+  /**
+   * cache the responses of {@link #userGet(String)}, entries are invalidated by {@link #userCreate(UserDto)} and
+   * {@link #userUpdate(UserDto)} of the same login, stale entries with an ETag are revalidated with If-None-Match;
+   * a read in flight while its login is invalidated is not cached, cached responses are shared and must not be modified
+   * @param maxSize maximum number of users
+   * @param ttl time to live of a user before it is read or revalidated again
+   * @return the new {@link ResponseCache}, exposing hit, miss and eviction counters
+   */
+  public ResponseCache<String, SimpleResponse<UserDto>> enableUserCache(long maxSize, Duration ttl) {
+    return enableUserCache(new ResponseCache<>(maxSize, ttl));
+  }
+
+  /**
+   * cache the responses of {@link #userGet(String)} in the given cache, see {@link #enableUserCache(long, Duration)}
+   * @param cache {@link ResponseCache}, ie with its own time source
+   * @return the cache
+   */
+  public ResponseCache<String, SimpleResponse<UserDto>> enableUserCache(ResponseCache<String, SimpleResponse<UserDto>> cache) {
+    userCache = cache;
+    return userCache;
+  }
+
+  /**
+   * count the write, so that a later read of the login is not coalesced with a read started before it, and drop the
+   * cached user if any
+   * @param request user created or updated
+   */
+  protected void invalidateUserCache(UserDto request) {
+    if (null == request.getLogin()) {
+      return;
+    }
+    userWrites.incrementAndGet(userWriteStripe(request.getLogin()));
+    ResponseCache<String, SimpleResponse<UserDto>> cache = userCache;
+    if (null != cache) {
+      cache.invalidate(request.getLogin());
+    }
+  }
+
+  private static int userWriteStripe(String loginId) {
+    return (loginId.hashCode() & Integer.MAX_VALUE) % USER_WRITE_STRIPES;
+  }
+
+  /**
+   * coalesce concurrent identical reads of {@link #userGet(String)} and {@link #stats(LocalDate, LocalDate, ListenableFuture)}:
+   * a single HTTP call is made and all waiters get the same {@link SimpleResponse}, which must not be modified
+   * @return the new {@link SingleFlight}, exposing the number of collapsed calls
+   */
+  public SingleFlight<String, SimpleResponse<?>> enableCoalescing() {
+    singleFlight = new SingleFlight<>();
+    return singleFlight;
+  }
+
+  /**
+   * run the call through {@link #singleFlight} if enabled
+   * @param <T> payload type
+   * @param key identity of the request, ie operation and parameters
+   * @param call HTTP call
+   * @return {@link SimpleResponse} of the call, possibly made by another thread
+   */
+  @SuppressWarnings("unchecked")
+  protected <T> SimpleResponse<T> coalesce(String key, Supplier<SimpleResponse<T>> call) {
+    SingleFlight<String, SimpleResponse<?>> flight = singleFlight;
+    if (null == flight) {
+      return call.get();
+    }
+    return (SimpleResponse<T>) flight.execute(key, call::get);
+  }
+
+  /**
+   * Security users creation in chunks of {@value #BATCH_CHUNK_SIZE}, {@value #BATCH_PARALLELISM} chunks in flight
+   * @param requests list of {@link UserDto}, must not be modified until the call returns
+   * @return {@link SimpleResponse} with one {@link SimpleResponse} by user in data, in the same order,
+   * ErrorCode error if any user failed, see {@link #userCreateBatch(List, int, int)}
+   */
+  public SimpleResponse<List<SimpleResponse<UserDto>>> userCreateBatch(List<UserDto> requests) {
+    return userCreateBatch(requests, BATCH_CHUNK_SIZE, BATCH_PARALLELISM);
+  }
+
+  /**
+   * Security users creation, each chunk is one HTTP call run on {@link #getAsyncExecutor()}<br>
+   * a failed chunk does not abort the batch, its users get an internalError response with the chunk error;
+   * properties count and failed of the response hold the number of users and failures
+   * @param requests list of {@link UserDto}, must not be modified until the call returns
+   * @param chunkSize maximum number of users by HTTP call
+   * @param parallelism maximum number of HTTP calls in flight
+   * @return {@link SimpleResponse} with one {@link SimpleResponse} by user in data, in the same order, ErrorCode error if any user failed
+   */
+  public SimpleResponse<List<SimpleResponse<UserDto>>> userCreateBatch(List<UserDto> requests, int chunkSize, int parallelism) {
+    return userBatch("userCreateBatch", pathUserCreateBatch, requests, chunkSize, parallelism);
+  }
+
+  /**
+   * Security users update in chunks of {@value #BATCH_CHUNK_SIZE}, {@value #BATCH_PARALLELISM} chunks in flight
+   * @param requests list of {@link UserDto}, must not be modified until the call returns
+   * @return {@link SimpleResponse} with one {@link SimpleResponse} by user in data, in the same order,
+   * ErrorCode error if any user failed, see {@link #userUpdateBatch(List, int, int)}
+   */
+  public SimpleResponse<List<SimpleResponse<UserDto>>> userUpdateBatch(List<UserDto> requests) {
+    return userUpdateBatch(requests, BATCH_CHUNK_SIZE, BATCH_PARALLELISM);
+  }
+
+  /**
+   * Security users update, same behavior as {@link #userCreateBatch(List, int, int)}
+   * @param requests list of {@link UserDto}, must not be modified until the call returns
+   * @param chunkSize maximum number of users by HTTP call
+   * @param parallelism maximum number of HTTP calls in flight
+   * @return {@link SimpleResponse} with one {@link SimpleResponse} by user in data, in the same order, ErrorCode error if any user failed
+   */
+  public SimpleResponse<List<SimpleResponse<UserDto>>> userUpdateBatch(List<UserDto> requests, int chunkSize, int parallelism) {
+    return userBatch("userUpdateBatch", pathUserUpdateBatch, requests, chunkSize, parallelism);
+  }
+
+  /**
+   * send the users by chunks, at most parallelism chunks in flight
+   * @param operation name for logs
+   * @param path url path receiving a list of {@link UserDto}
+   * @param requests list of {@link UserDto}
+   * @param chunkSize maximum number of users by HTTP call
+   * @param parallelism maximum number of HTTP calls in flight
+   * @return {@link SimpleResponse} with one {@link SimpleResponse} by user in data
+   */
+  protected SimpleResponse<List<SimpleResponse<UserDto>>> userBatch(String operation, String path, List<UserDto> requests, int chunkSize,
+      int parallelism) {
+    long start = System.nanoTime();
+    if (null == requests) {
+      throw new IllegalArgumentException("argument requests missing");
+    }
+    if (chunkSize < 1 || parallelism < 1) {
+      throw new IllegalArgumentException(String.format("chunkSize %d and parallelism %d must be greater than 0", chunkSize, parallelism));
+    }
+    Executor executor = getAsyncExecutor();
+    Semaphore inFlight = new Semaphore(parallelism);
+    List<CompletableFuture<List<SimpleResponse<UserDto>>>> chunks = new ArrayList<>((requests.size() + chunkSize - 1) / chunkSize);
+    for (int i = 0; i < requests.size(); i += chunkSize) {
+      List<UserDto> chunk = requests.subList(i, Math.min(i + chunkSize, requests.size()));
+      try {
+        inFlight.acquire();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        chunks.add(CompletableFuture.completedFuture(userBatchFailure(chunk, errorCode(e), handleException(e))));
+        continue;
+      }
+      try {
+        chunks.add(CompletableFuture.supplyAsync(() -> userBatchChunk(operation, path, chunk), executor)
+            .whenComplete((r, t) -> inFlight.release()));
+      } catch (RejectedExecutionException e) {
+        inFlight.release();
+        chunks.add(CompletableFuture.completedFuture(userBatchFailure(chunk, errorCode(e), handleException(e))));
+      }
+    }
+    List<SimpleResponse<UserDto>> results = new ArrayList<>(requests.size());
+    for (List<SimpleResponse<UserDto>> chunk : Utils.sequence(chunks).join()) {
+      results.addAll(chunk);
+    }
+    for (UserDto request : requests) {
+      if (null != request) {
+        invalidateUserCache(request);
+      }
+    }
+    long failed = results.stream().filter(r -> null == r || ErrorCode.success != r.getErrorId()).count();
+    SimpleResponse<List<SimpleResponse<UserDto>>> resp = failed == 0
+        ? new SimpleResponse<>(ErrorCode.success, String.format("%d users", results.size()))
+        : new SimpleResponse<>(ErrorCode.error, String.format("%d of %d users failed", failed, results.size()));
+    resp.setData(results);
+    resp.setAdditionalProperty("count", results.size());
+    resp.setAdditionalProperty("failed", failed);
+    if (failed > 0) {
+      log.warn("{} {}", operation, resp.getMessage());
+    }
+    return record(operation, start, resp);
+  }
+
+  private List<SimpleResponse<UserDto>> userBatchChunk(String operation, String path, List<UserDto> chunk) {
+    ErrorCode code = ErrorCode.internalError;
+    String error;
+    try {
+      ResponseEntity<SimpleResponse<List<SimpleResponse<UserDto>>>> ret = exchange(
+          buildUri(path),
+          HttpMethod.POST,
+          new HttpEntity<List<UserDto>>(chunk, headers),
+          typeUserDtoBatch);
+      if (null != ret && ret.hasBody()) {
+        List<SimpleResponse<UserDto>> data = ret.getBody().getData();
+        if (null != data && data.size() == chunk.size()) {
+          return data;
+        }
+        error = String.format("%d results for %d users, %s", null == data ? 0 : data.size(), chunk.size(), ret.getBody().getMessage());
+        log.warn("Error calling {} with code: {}, msg: {}", operation, ret.getStatusCode(), error);
+      } else {
+        error = "REST response has no body";
+      }
+    } catch (Exception e) {
+      code = errorCode(e);
+      error = handleException(e);
+      log.warn("ERROR {} {} of {} users, [{}]", operation, e.getClass().getSimpleName(), chunk.size(), error);
+    }
+    return userBatchFailure(chunk, code, error);
+  }
+
+  private static List<SimpleResponse<UserDto>> userBatchFailure(List<UserDto> chunk, ErrorCode code, String error) {
+    List<SimpleResponse<UserDto>> failures = new ArrayList<>(chunk.size());
+    for (UserDto request : chunk) {
+      SimpleResponse<UserDto> failure = new SimpleResponse<>(code, error);
+      failure.setData(request);
+      failures.add(failure);
+    }
+    return failures;
+  }
   
 
 //CHECKSTYLE:OFF
@@ -608,40 +1453,51 @@ public class AbstractClient {
 //CHECKSTYLE:ON
   @SuppressWarnings("unchecked")
   public SimpleResponse<String> stats(LocalDate from, LocalDate to, ListenableFuture<ResponseEntity<String>> callback) {
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<String, String>();
+    if (null != from) {
+      params.add("from", from.toString());
+    }
+    if (null != to) {
+      params.add("to", to.toString());
+    }
+    if (null == callback) {
+      long start = System.nanoTime();
+      return record("stats", start, coalesce("stats " + params, () -> stats(params)));
+    }
     SimpleResponse<String> resp = null;
     try {
-      MultiValueMap<String, String> params = new LinkedMultiValueMap<String, String>();
-      if (null != from) {
-        params.add("from", from.toString());
-      }
-      if (null != to) {
-        params.add("to", to.toString());
-      }
-      if (null != callback) {
-        ListenableFuture<ResponseEntity<SimpleResponse<String>>> futureEntity = asyncRestTemplate.exchange(
-            buildUri(pathStats, params), 
-            HttpMethod.GET,
-            new HttpEntity<String>(headers),
-            typeString);
-        futureEntity.addCallback((ListenableFutureCallback<? super ResponseEntity<SimpleResponse<String>>>) callback);
-      } else {
-        ResponseEntity<SimpleResponse<String>> ret = restTemplate.exchange(
-            buildUri(pathStats, params), 
-            HttpMethod.GET,
-            new HttpEntity<String>(headers),
-            typeString);
-        if (null != ret && ret.hasBody()) {
-          if (ret.getStatusCode() != HttpStatus.OK) {
-            log.warn("Error calling stats with code: {}, msg: {}", ret.getStatusCode(), ret.getBody());
-          } else {
-            resp = ret.getBody();
-          }
+      ListenableFuture<ResponseEntity<SimpleResponse<String>>> futureEntity = asyncRestTemplate.exchange(
+          buildUri(pathStats, params), 
+          HttpMethod.GET,
+          new HttpEntity<String>(headers),
+          typeString);
+      futureEntity.addCallback((ListenableFutureCallback<? super ResponseEntity<SimpleResponse<String>>>) callback);
+    } catch (Exception e) {
+      resp = new SimpleResponse<>(errorCode(e), handleException(e));
+      log.warn("ERROR stats {}, [{}]", e.getClass().getSimpleName(), resp);
+    }
+    return resp;
+  }
+
+  private SimpleResponse<String> stats(MultiValueMap<String, String> params) {
+    SimpleResponse<String> resp = null;
+    try {
+      ResponseEntity<SimpleResponse<String>> ret = exchange(
+          buildUri(pathStats, params), 
+          HttpMethod.GET,
+          new HttpEntity<String>(headers),
+          typeString);
+      if (null != ret && ret.hasBody()) {
+        if (ret.getStatusCode() != HttpStatus.OK) {
+          log.warn("Error calling stats with code: {}, msg: {}", ret.getStatusCode(), ret.getBody());
         } else {
-          resp = new SimpleResponse<>(ErrorCode.internalError, "REST response has no body");
+          resp = ret.getBody();
         }
+      } else {
+        resp = new SimpleResponse<>(ErrorCode.internalError, "REST response has no body");
       }
     } catch (Exception e) {
-      resp = new SimpleResponse<>(ErrorCode.internalError, handleException(e));
+      resp = new SimpleResponse<>(errorCode(e), handleException(e));
       log.warn("ERROR stats {}, [{}]", e.getClass().getSimpleName(), resp);
     }
     return resp;
@@ -653,6 +1509,7 @@ public class AbstractClient {
    * @return {@link SimpleResponse} with property csv containing the file and count prop for the number of rows
    */
   public SimpleResponse<String> auditCsv(LocalDate from, LocalDate to) {
+    long start = System.nanoTime();
     SimpleResponse<String> resp = null;
     try {
       MultiValueMap<String, String> params = new LinkedMultiValueMap<String, String>();
@@ -662,7 +1519,7 @@ public class AbstractClient {
       if (null != to) {
         params.add("to", to.toString());
       }
-      ResponseEntity<SimpleResponse<String>> ret = restTemplate.exchange(
+      ResponseEntity<SimpleResponse<String>> ret = exchange(
           buildUri(pathAuditCsvAll, params), 
           HttpMethod.GET,
           new HttpEntity<String>(headers), 
@@ -677,9 +1534,257 @@ public class AbstractClient {
         resp = new SimpleResponse<>(ErrorCode.internalError, "REST response has no body");
       }
     } catch (Exception e) {
-      resp = new SimpleResponse<>(ErrorCode.internalError, handleException(e));
+      resp = new SimpleResponse<>(errorCode(e), handleException(e));
+      log.warn("ERROR audit CSV {}, [{}]", e.getClass().getSimpleName(), resp);
+    }
+    return record("auditCsv", start, resp);
+  }
+
+  /**
+   * stream the audit CSV row by row, the body is never held in memory<br>
+   * the server is asked for text/csv, a JSON {@link SimpleResponse} answer as returned by {@link #auditCsv(LocalDate, LocalDate)} is still accepted
+   * @param from {@link LocalDate}
+   * @param to {@link LocalDate}
+   * @param rowHandler called for each row, header included
+   * @return {@link SimpleResponse} with the number of rows in data, and ErrorCode for error if any
+   */
+  public SimpleResponse<Long> auditCsv(LocalDate from, LocalDate to, Consumer<String[]> rowHandler) {
+    return auditCsvStream(from, to, rows -> {
+      long[] count = { 0 };
+      rows.forEach(row -> {
+        rowHandler.accept(row);
+        count[0]++;
+      });
+      return count[0];
+    });
+  }
+
+  /**
+   * stream the audit CSV, see {@link #auditCsv(LocalDate, LocalDate, Consumer)}
+   * @param <R> result type
+   * @param from {@link LocalDate}
+   * @param to {@link LocalDate}
+   * @param rowsFunction consume the rows, header included, the {@link Stream} is only valid during the call
+   * @return {@link SimpleResponse} with the result of rowsFunction in data, and ErrorCode for error if any
+   */
+  public <R> SimpleResponse<R> auditCsvStream(LocalDate from, LocalDate to, Function<Stream<String[]>, R> rowsFunction) {
+    return auditCsvExecute(from, to, (body, charset) -> {
+      try (Stream<String[]> rows = CsvReader.stream(new InputStreamReader(body, charset))) {
+        return rowsFunction.apply(rows);
+      }
+    });
+  }
+
+  /**
+   * download the audit CSV into a file, see {@link #auditCsv(LocalDate, LocalDate, WritableByteChannel)}
+   * @param from {@link LocalDate}
+   * @param to {@link LocalDate}
+   * @param target file created or replaced
+   * @return {@link SimpleResponse} with the number of bytes written in data, and ErrorCode for error if any
+   */
+  public SimpleResponse<Long> auditCsv(LocalDate from, LocalDate to, Path target) {
+    try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      return auditCsv(from, to, channel);
+    } catch (IOException e) {
+      SimpleResponse<Long> resp = new SimpleResponse<>(errorCode(e), handleException(e));
+      log.warn("ERROR audit CSV {}, [{}]", e.getClass().getSimpleName(), resp);
+      return resp;
+    }
+  }
+
+  /**
+   * copy the audit CSV as received into a channel, through a single buffer
+   * @param from {@link LocalDate}
+   * @param to {@link LocalDate}
+   * @param target {@link WritableByteChannel}, left open
+   * @return {@link SimpleResponse} with the number of bytes written in data, and ErrorCode for error if any
+   */
+  public SimpleResponse<Long> auditCsv(LocalDate from, LocalDate to, WritableByteChannel target) {
+    return auditCsvExecute(from, to, (body, charset) -> {
+      ReadableByteChannel in = Channels.newChannel(body);
+      ByteBuffer buffer = ByteBuffer.allocate(STREAM_BUFFER_SIZE);
+      long count = 0;
+      while (in.read(buffer) >= 0) {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+          count += target.write(buffer);
+        }
+        buffer.clear();
+      }
+      return count;
+    });
+  }
+
+  /**
+   * GET the audit CSV and hand the body to handler while the connection is open
+   * @param <R> result type
+   * @param from {@link LocalDate}
+   * @param to {@link LocalDate}
+   * @param handler read the CSV body
+   * @return {@link SimpleResponse} with the result of handler in data, and ErrorCode for error if any
+   */
+  protected <R> SimpleResponse<R> auditCsvExecute(LocalDate from, LocalDate to, CsvBodyHandler<R> handler) {
+    long start = System.nanoTime();
+    SimpleResponse<R> resp;
+    try {
+      MultiValueMap<String, String> params = new LinkedMultiValueMap<String, String>();
+      if (null != from) {
+        params.add("from", from.toString());
+      }
+      if (null != to) {
+        params.add("to", to.toString());
+      }
+      CodecRegistry registry = getCodecs();
+      resp = restTemplate.execute(buildUri(pathAuditCsvAll, params), HttpMethod.GET, request -> {
+        request.getHeaders().putAll(headers);
+        request.getHeaders().setAccept(Arrays.asList(Defaults.TEXT_CSV_ZIP_DATA, MediaType.APPLICATION_JSON));
+      }, response -> {
+        MediaType contentType = response.getHeaders().getContentType();
+        if (null != contentType && contentType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+          SimpleResponse<String> json = registry.read(typeString, response);
+          if (null == json) {
+            return new SimpleResponse<R>(ErrorCode.internalError, "REST response has no body");
+          }
+          if (!Boolean.TRUE.equals(json.getSuccess())) {
+            return new SimpleResponse<R>(json.getErrorId(), json.getMessage());
+          }
+          Object csv = json.getAdditionalProperties().get("csv");
+          byte[] bytes = StringUtils.defaultString(null == csv ? json.getData() : csv.toString()).getBytes(StandardCharsets.UTF_8);
+          return data(handler.handle(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8));
+        }
+        Charset charset = null == contentType || null == contentType.getCharset() ? StandardCharsets.UTF_8 : contentType.getCharset();
+        return data(handler.handle(response.getBody(), charset));
+      });
+      if (null == resp) {
+        resp = new SimpleResponse<>(ErrorCode.internalError, "REST response has no body");
+      }
+    } catch (Exception e) {
+      resp = new SimpleResponse<>(errorCode(e), handleException(e));
       log.warn("ERROR audit CSV {}, [{}]", e.getClass().getSimpleName(), resp);
     }
+    return record("auditCsv", start, resp);
+  }
+
+  private static <R> SimpleResponse<R> data(R data) {
+    SimpleResponse<R> resp = new SimpleResponse<>(ErrorCode.success, null);
+    resp.setData(data);
     return resp;
   }
-}
\ No newline at end of file
+
+  /**
+   * read a CSV body
+   * @param <R> result type
+   */
+  @FunctionalInterface
+  protected interface CsvBodyHandler<R> {
+    /**
+     * @param body CSV bytes, closed by the caller
+     * @param charset of the body
+     * @return result
+     * @throws IOException if reading fails
+     */
+    R handle(InputStream body, Charset charset) throws IOException;
+  }
+
+  /**
+   * {@link #userCreate(UserDto)} run on {@link #getAsyncExecutor()}
+   * @param request {@link UserDto}
+   * @return {@link CompletableFuture} of {@link SimpleResponse} message, and ErrorCode for error if any
+   */
+  public CompletableFuture<SimpleResponse<UserDto>> userCreateAsync(UserDto request) {
+    if (null == request) {
+      throw new IllegalArgumentException("argument request missing");
+    }
+    return CompletableFuture.supplyAsync(() -> userCreate(request), getAsyncExecutor());
+  }
+
+  /**
+   * {@link #userUpdate(UserDto)} run on {@link #getAsyncExecutor()}
+   * @param request {@link UserDto}
+   * @return {@link CompletableFuture} of {@link SimpleResponse} message, and ErrorCode for error if any
+   */
+  public CompletableFuture<SimpleResponse<UserDto>> userUpdateAsync(UserDto request) {
+    if (null == request) {
+      throw new IllegalArgumentException("argument request missing");
+    }
+    return CompletableFuture.supplyAsync(() -> userUpdate(request), getAsyncExecutor());
+  }
+
+  /**
+   * {@link #userGet(String)} run on {@link #getAsyncExecutor()}
+   * @param loginId user login ID
+   * @return {@link CompletableFuture} of {@link SimpleResponse} message, and ErrorCode for error if any
+   */
+  public CompletableFuture<SimpleResponse<UserDto>> userGetAsync(String loginId) {
+    if (null == loginId) {
+      throw new IllegalArgumentException("argument request missing");
+    }
+    return CompletableFuture.supplyAsync(() -> userGet(loginId), getAsyncExecutor());
+  }
+
+  /**
+   * {@link #stats(LocalDate, LocalDate, ListenableFuture)} run on {@link #getAsyncExecutor()}
+   * @param from {@link LocalDate}
+   * @param to {@link LocalDate}
+   * @return {@link CompletableFuture} of {@link SimpleResponse} with csv content file in message
+   */
+  public CompletableFuture<SimpleResponse<String>> statsAsync(LocalDate from, LocalDate to) {
+    return CompletableFuture.supplyAsync(() -> stats(from, to, null), getAsyncExecutor());
+  }
+
+  /**
+   * {@link #auditCsv(LocalDate, LocalDate)} run on {@link #getAsyncExecutor()}
+   * @param from {@link LocalDate}
+   * @param to {@link LocalDate}
+   * @return {@link CompletableFuture} of {@link SimpleResponse} with property csv containing the file and count prop for the number of rows
+   */
+  public CompletableFuture<SimpleResponse<String>> auditCsvAsync(LocalDate from, LocalDate to) {
+    return CompletableFuture.supplyAsync(() -> auditCsv(from, to), getAsyncExecutor());
+  }
+
+  /**
+   * executor of the ...Async methods, override to provide your own
+   * @return {@link #defaultAsyncExecutor()}
+   */
+  protected Executor getAsyncExecutor() {
+    return defaultAsyncExecutor();
+  }
+
+  /**
+   * executor shared by all clients: a new virtual thread per task when the JDK provides them (21+),
+   * otherwise a bounded pool of {@link #ASYNC_POOL_SIZE} daemon threads
+   * @return {@link Executor}
+   */
+  public static Executor defaultAsyncExecutor() {
+    Executor executor = asyncExecutor;
+    if (null == executor) {
+      synchronized (AbstractClient.class) {
+        executor = asyncExecutor;
+        if (null == executor) {
+          executor = newAsyncExecutor();
+          asyncExecutor = executor;
+        }
+      }
+    }
+    return executor;
+  }
+
+  private static Executor newAsyncExecutor() {
+    try {
+      Executor executor = (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      log.info("client async calls run on virtual threads");
+      return executor;
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      log.info("virtual threads not available, client async calls run on a pool of {} threads", ASYNC_POOL_SIZE);
+    }
+    AtomicInteger count = new AtomicInteger();
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(ASYNC_POOL_SIZE, ASYNC_POOL_SIZE, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(ASYNC_QUEUE_SIZE), r -> {
+          Thread t = new Thread(r, "client-async-" + count.incrementAndGet());
+          t.setDaemon(true);
+          return t;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+    pool.allowCoreThreadTimeOut(true);
+    return pool;
+  }
+}
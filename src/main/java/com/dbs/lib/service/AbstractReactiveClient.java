@@ -0,0 +1,204 @@
+/**
+ * AbstractReactiveClient
+ */
+package com.dbs.lib.service;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDate;
+
+import javax.annotation.Nullable;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.dbs.lib.dto.SimpleResponse;
+import com.dbs.lib.dto.UserDto;
+import com.dbs.lib.dto.enumeration.ErrorCode;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * non blocking REST client, same paths and error mapping as {@link AbstractClient} on top of {@link WebClient}<br>
+ * no thread is held while waiting for the server, any failure is mapped to a {@link SimpleResponse} with {@link ErrorCode#internalError},
+ * the returned {@link Mono} never signals an error.<br>
+ * the ...Mono methods bypass the user cache, the metrics and the {@link RestTemplate} interceptors of {@link AbstractClient},
+ * their user writes still invalidate the cached user like {@link AbstractClient#userUpdate(UserDto)},
+ * the inherited ...Async methods keep them and run the blocking calls on {@link #getAsyncExecutor()}.
+ * <pre>
+ * client.userGetMono("john").toFuture().thenAccept(resp -&gt; ...);
+ * </pre>
+ * add dependencies org.springframework:spring-webflux and io.projectreactor.netty:reactor-netty-http
+ *
+ * @author dbs at 18 Oct 2026 19:48:26
+ * @since 1.2.0
+ * @version 1.0
+ * @version 1.1 {@link #userCreateMono(UserDto)} and {@link #userUpdateMono(UserDto)} invalidate the user cache
+ */
+@lombok.Getter
+@lombok.extern.slf4j.Slf4j
+public class AbstractReactiveClient extends AbstractClient {
+
+  protected final WebClient webClient;
+
+  /**
+   * @param webClient {@link WebClient} to set, the blocking methods inherited from {@link AbstractClient} use a default {@link RestTemplate}
+   */
+  public AbstractReactiveClient(WebClient webClient) {
+    this(new RestTemplate(), webClient);
+  }
+
+  /**
+   * @param restTemplate {@link RestTemplate} used by the blocking methods
+   * @param webClient {@link WebClient} used by the non blocking methods
+   */
+  public AbstractReactiveClient(RestTemplate restTemplate, WebClient webClient) {
+    super(restTemplate);
+    this.webClient = webClient;
+  }
+
+  /**
+   * Security user creation
+   * @param request {@link UserDto}
+   * @return {@link SimpleResponse} message, and ErrorCode for error if any
+   */
+  public Mono<SimpleResponse<UserDto>> userCreateMono(UserDto request) {
+    if (null == request) {
+      throw new IllegalArgumentException("argument request missing");
+    }
+    return exchange("userCreate", HttpMethod.POST, pathUserCreate, null, request, typeUserDto)
+        .doOnNext(resp -> invalidateUserCache(request));
+  }
+
+  /**
+   * Security user update
+   * @param request {@link UserDto}
+   * @return {@link SimpleResponse} message, and ErrorCode for error if any
+   */
+  public Mono<SimpleResponse<UserDto>> userUpdateMono(UserDto request) {
+    if (null == request) {
+      throw new IllegalArgumentException("argument request missing");
+    }
+    return exchange("userUpdate", HttpMethod.POST, pathUserUpdate, null, request, typeUserDto)
+        .doOnNext(resp -> invalidateUserCache(request));
+  }
+
+  /**
+   * Security user read
+   * @param loginId user login ID
+   * @return {@link SimpleResponse} message, and ErrorCode for error if any
+   */
+  public Mono<SimpleResponse<UserDto>> userGetMono(String loginId) {
+    if (null == loginId) {
+      throw new IllegalArgumentException("argument request missing");
+    }
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<String, String>();
+    params.add("login", loginId);
+    return exchange("userGet", HttpMethod.GET, pathUserGet, params, null, typeUserDto);
+  }
+
+  /**
+   * @param from {@link LocalDate}
+   * @param to {@link LocalDate}
+   * @return {@link SimpleResponse} with csv content file in message
+   */
+  public Mono<SimpleResponse<String>> statsMono(LocalDate from, LocalDate to) {
+    return exchange("stats", HttpMethod.GET, pathStats, dateParams(from, to), null, typeString);
+  }
+
+  /**
+   * @param from {@link LocalDate}
+   * @param to {@link LocalDate}
+   * @return {@link SimpleResponse} with property csv containing the file and count prop for the number of rows
+   */
+  public Mono<SimpleResponse<String>> auditCsvMono(LocalDate from, LocalDate to) {
+    return exchange("audit CSV", HttpMethod.GET, pathAuditCsvAll, dateParams(from, to), null, typeString);
+  }
+
+  /**
+   * handle {@link WebClientResponseException} like {@link org.springframework.web.client.HttpStatusCodeException},
+   * {@link WebClientRequestException} is unwrapped to report the connection failure
+   */
+  @Override
+  public String handleException(Exception e) {
+    if (e instanceof WebClientResponseException) {
+      WebClientResponseException ex = (WebClientResponseException) e;
+      if (ex.getStatusCode().is4xxClientError()) {
+        return String.format("%s, %s, body [%s]", ex.getStatusCode(), ex.getStatusText(), ex.getResponseBodyAsString());
+      }
+      return String.format("%s, %s", ex.getStatusCode(), ex.getStatusText());
+    }
+    if (e instanceof WebClientRequestException && e.getCause() instanceof Exception) {
+      return super.handleException((Exception) e.getCause());
+    }
+    return super.handleException(e);
+  }
+
+  /**
+   * send a request and map the outcome to a {@link SimpleResponse}
+   * @param <T> payload type
+   * @param operation name for logs
+   * @param method {@link HttpMethod}
+   * @param path url path
+   * @param params nullable query parameters
+   * @param body nullable request body
+   * @param type response type
+   * @return {@link Mono} completing with the response, never with an error
+   */
+  protected <T> Mono<SimpleResponse<T>> exchange(String operation, HttpMethod method, String path, @Nullable MultiValueMap<String, String> params,
+      @Nullable Object body, ParameterizedTypeReference<SimpleResponse<T>> type) {
+    URI uri;
+    try {
+      uri = buildUri(path, params);
+    } catch (UnsupportedEncodingException e) {
+      return Mono.just(new SimpleResponse<>(errorCode(e), handleException(e)));
+    }
+    WebClient.RequestBodySpec spec = webClient.method(method).uri(uri).headers(h -> {
+      h.addAll(headers);
+      if (StringUtils.isNoneBlank(user, pw)) {
+        h.setBasicAuth(user, pw);
+      }
+    });
+    Mono<ResponseEntity<SimpleResponse<T>>> response = (null == body ? spec : spec.bodyValue(body)).retrieve().toEntity(type);
+    if (timeout > 0) {
+      response = response.timeout(Duration.ofMillis(timeout));
+    }
+    return response
+        .map(ret -> {
+          if (!ret.hasBody()) {
+            return new SimpleResponse<T>(ErrorCode.internalError, "REST response has no body");
+          }
+          if (ret.getStatusCode() != HttpStatus.OK) {
+            log.warn("Error calling {} with code: {}, msg: {}", operation, ret.getStatusCode(), ret.getBody());
+          }
+          return ret.getBody();
+        })
+        .defaultIfEmpty(new SimpleResponse<>(ErrorCode.internalError, "REST response has no body"))
+        .onErrorResume(Exception.class, e -> {
+          SimpleResponse<T> resp = new SimpleResponse<>(errorCode(e), handleException(e));
+          log.warn("ERROR {} {}, [{}]", operation, e.getClass().getSimpleName(), resp);
+          return Mono.just(resp);
+        });
+  }
+
+  private static MultiValueMap<String, String> dateParams(LocalDate from, LocalDate to) {
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<String, String>();
+    if (null != from) {
+      params.add("from", from.toString());
+    }
+    if (null != to) {
+      params.add("to", to.toString());
+    }
+    return params;
+  }
+}
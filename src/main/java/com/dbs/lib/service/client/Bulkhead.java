@@ -0,0 +1,105 @@
+/**
+ * Bulkhead
+ */
+package com.dbs.lib.service.client;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * limit of concurrent calls: a call beyond the limit waits for a permit in a bounded queue,
+ * it is rejected at once when the queue is full and after the maximum wait otherwise.
+ *
+ * @author dbs at 19 Oct 2026 04:11:48
+ * @since 1.2.0
+ * @version 1.0
+ */
+public class Bulkhead {
+
+  private final int maxConcurrent;
+  private final int maxWaiting;
+  private final long maxWaitNanos;
+  private final Semaphore permits;
+  private final AtomicInteger waiting = new AtomicInteger();
+  private final LongAdder acquiredCount = new LongAdder();
+  private final LongAdder rejectedCount = new LongAdder();
+
+  /**
+   * @param maxConcurrent calls in flight, greater than 0
+   * @param maxWaiting calls waiting for a permit, 0 to reject at once
+   * @param maxWait longest wait for a permit in msec
+   */
+  public Bulkhead(int maxConcurrent, int maxWaiting, long maxWait) {
+    if (maxConcurrent < 1 || maxWaiting < 0 || maxWait < 0) {
+      throw new IllegalArgumentException(String.format("invalid maxConcurrent %d, maxWaiting %d or maxWait %d", maxConcurrent, maxWaiting,
+          maxWait));
+    }
+    this.maxConcurrent = maxConcurrent;
+    this.maxWaiting = maxWaiting;
+    this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWait);
+    this.permits = new Semaphore(maxConcurrent);
+  }
+
+  /**
+   * @return true if a permit was acquired, to {@link #release()} once the call is done
+   * @throws InterruptedIOException if interrupted while waiting
+   */
+  public boolean tryAcquire() throws InterruptedIOException {
+    if (permits.tryAcquire()) {
+      acquiredCount.increment();
+      return true;
+    }
+    if (waiting.incrementAndGet() > maxWaiting) {
+      waiting.decrementAndGet();
+      rejectedCount.increment();
+      return false;
+    }
+    try {
+      if (permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+        acquiredCount.increment();
+        return true;
+      }
+      rejectedCount.increment();
+      return false;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("interrupted while waiting for a bulkhead permit");
+    } finally {
+      waiting.decrementAndGet();
+    }
+  }
+
+  /**
+   * give back a permit acquired by {@link #tryAcquire()}
+   */
+  public void release() {
+    permits.release();
+  }
+
+  /**
+   * @return snapshot of the bulkhead state
+   */
+  public Stats getStats() {
+    return new Stats(maxConcurrent, maxWaiting, maxConcurrent - permits.availablePermits(), waiting.get(), acquiredCount.sum(),
+        rejectedCount.sum());
+  }
+
+  @lombok.Value
+  public static class Stats {
+    int maxConcurrent;
+    int maxWaiting;
+    /**
+     * calls holding a permit
+     */
+    int inFlight;
+    /**
+     * calls waiting for a permit
+     */
+    int waiting;
+    long acquiredCount;
+    long rejectedCount;
+  }
+}
@@ -0,0 +1,212 @@
+/**
+ * CircuitBreaker
+ */
+package com.dbs.lib.service.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * circuit breaker of one host, opened after consecutive failures, calls are then rejected until the open duration elapsed;
+ * a single trial call is then let through (half open), its success closes the circuit, its failure opens it again.
+ *
+ * @author dbs at 19 Oct 2026 00:12:40
+ * @since 1.2.0
+ * @version 1.0
+ * @version 1.1 injectable time source
+ */
+public class CircuitBreaker {
+
+  /**
+   * circuit state
+   */
+  public enum State {
+    /**
+     * calls let through
+     */
+    CLOSED,
+    /**
+     * calls rejected
+     */
+    OPEN,
+    /**
+     * a single trial call let through
+     */
+    HALF_OPEN
+  }
+
+  /**
+   * notified on each state change, out of any lock
+   */
+  @FunctionalInterface
+  public interface Listener {
+    /**
+     * @param name circuit name, ie http://10.0.0.2:8080
+     * @param from previous state
+     * @param to new state
+     */
+    void onStateChange(String name, State from, State to);
+  }
+
+  private final String name;
+  private final int failureThreshold;
+  private final long openNanos;
+  private final Listener listener;
+  private final LongSupplier ticker;
+  private final LongAdder successCount = new LongAdder();
+  private final LongAdder failureCount = new LongAdder();
+  private final LongAdder rejectedCount = new LongAdder();
+  private final LongAdder openCount = new LongAdder();
+  private State state = State.CLOSED;
+  private int consecutiveFailures;
+  private long openedAt;
+  private boolean trialInFlight;
+
+  /**
+   * @param name circuit name for events
+   * @param failureThreshold consecutive failures opening the circuit
+   * @param openMillis time to wait before a trial call
+   * @param listener nullable state change listener
+   */
+  public CircuitBreaker(String name, int failureThreshold, long openMillis, Listener listener) {
+    this(name, failureThreshold, openMillis, listener, System::nanoTime);
+  }
+
+  /**
+   * @param name circuit name for events
+   * @param failureThreshold consecutive failures opening the circuit
+   * @param openMillis time to wait before a trial call
+   * @param listener nullable state change listener
+   * @param ticker time source in nanoseconds, ie {@link System#nanoTime()}
+   */
+  public CircuitBreaker(String name, int failureThreshold, long openMillis, Listener listener, LongSupplier ticker) {
+    if (failureThreshold < 1 || openMillis < 0) {
+      throw new IllegalArgumentException(String.format("invalid failureThreshold %d or openMillis %d", failureThreshold, openMillis));
+    }
+    this.name = name;
+    this.failureThreshold = failureThreshold;
+    this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+    this.listener = listener;
+    this.ticker = ticker;
+  }
+
+  /**
+   * @return true if the call may proceed, it must then be reported with {@link #onSuccess()} or {@link #onFailure()}
+   */
+  public boolean tryAcquire() {
+    State from;
+    synchronized (this) {
+      from = state;
+      switch (state) {
+        case CLOSED:
+          return true;
+        case OPEN:
+          if (ticker.getAsLong() - openedAt < openNanos) {
+            rejectedCount.increment();
+            return false;
+          }
+          state = State.HALF_OPEN;
+          trialInFlight = true;
+          break;
+        default:
+          if (trialInFlight) {
+            rejectedCount.increment();
+            return false;
+          }
+          trialInFlight = true;
+          return true;
+      }
+    }
+    notify(from, State.HALF_OPEN);
+    return true;
+  }
+
+  /**
+   * report a successful call
+   */
+  public void onSuccess() {
+    successCount.increment();
+    State from;
+    synchronized (this) {
+      consecutiveFailures = 0;
+      trialInFlight = false;
+      from = state;
+      state = State.CLOSED;
+    }
+    if (from != State.CLOSED) {
+      notify(from, State.CLOSED);
+    }
+  }
+
+  /**
+   * report a failed call
+   */
+  public void onFailure() {
+    failureCount.increment();
+    State from;
+    synchronized (this) {
+      trialInFlight = false;
+      from = state;
+      if (state == State.OPEN || (state == State.CLOSED && ++consecutiveFailures < failureThreshold)) {
+        return;
+      }
+      state = State.OPEN;
+      openedAt = ticker.getAsLong();
+      consecutiveFailures = 0;
+    }
+    openCount.increment();
+    notify(from, State.OPEN);
+  }
+
+  private void notify(State from, State to) {
+    if (null != listener) {
+      listener.onStateChange(name, from, to);
+    }
+  }
+
+  /**
+   * @return circuit name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return current state, OPEN until a call is tried after the open duration
+   */
+  public synchronized State getState() {
+    return state;
+  }
+
+  /**
+   * @return snapshot of the counters
+   */
+  public Stats getStats() {
+    return new Stats(getState(), successCount.sum(), failureCount.sum(), rejectedCount.sum(), openCount.sum());
+  }
+
+  /**
+   * snapshot of the circuit breaker counters
+   */
+  @lombok.Value
+  public static class Stats {
+    State state;
+    /**
+     * calls succeeded
+     */
+    long successCount;
+    /**
+     * calls failed
+     */
+    long failureCount;
+    /**
+     * calls rejected while open
+     */
+    long rejectedCount;
+    /**
+     * number of times the circuit opened
+     */
+    long openCount;
+  }
+}
@@ -0,0 +1,25 @@
+/**
+ * CircuitBreakerOpenException
+ */
+package com.dbs.lib.service.client;
+
+import java.io.IOException;
+
+/**
+ * call rejected without any network access because the {@link CircuitBreaker} of the host is open
+ *
+ * @author dbs at 19 Oct 2026 00:14:02
+ * @since 1.2.0
+ * @version 1.0
+ */
+public class CircuitBreakerOpenException extends IOException {
+
+  private static final long serialVersionUID = -4188245103962265710L;
+
+  /**
+   * @param name circuit name
+   */
+  public CircuitBreakerOpenException(String name) {
+    super(String.format("circuit breaker open for [%s]", name));
+  }
+}
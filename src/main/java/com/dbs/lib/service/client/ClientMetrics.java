@@ -0,0 +1,54 @@
+/**
+ * ClientMetrics
+ */
+package com.dbs.lib.service.client;
+
+import com.dbs.lib.dto.enumeration.ErrorCode;
+
+/**
+ * instrumentation of the REST client calls, all methods are no-op by default<br>
+ * implement it to bridge to a metrics library, ie a Micrometer Timer by operation and a Counter by {@link ErrorCode} and status,
+ * or use {@link SimpleClientMetrics}. Methods are called on the calling thread and must not block.
+ * <ul>
+ * <li>operation: method name of the client, ie userGet, stats</li>
+ * <li>call: one operation as seen by the caller, served from a cache or made of several HTTP exchanges</li>
+ * <li>exchange: one HTTP request and its response</li>
+ * </ul>
+ *
+ * @author dbs at 19 Oct 2026 00:58:24
+ * @since 1.2.0
+ * @version 1.0
+ */
+public interface ClientMetrics {
+
+  /**
+   * records nothing
+   */
+  ClientMetrics NOOP = new ClientMetrics() {
+  };
+
+  /**
+   * @param operation client operation
+   * @param durationNanos time spent by the caller
+   * @param errorCode outcome, {@link ErrorCode#none} if there is no response
+   */
+  default void recordCall(String operation, long durationNanos, ErrorCode errorCode) {
+  }
+
+  /**
+   * @param operation client operation
+   * @param status HTTP status, 0 when no response was received
+   * @param requestBytes size of the request body
+   * @param responseBytes bytes of the response body read by the client
+   */
+  default void recordExchange(String operation, int status, long requestBytes, long responseBytes) {
+  }
+
+  /**
+   * @param operation client operation
+   * @param counter counter name, ie retry
+   * @param amount to add
+   */
+  default void increment(String operation, String counter, long amount) {
+  }
+}
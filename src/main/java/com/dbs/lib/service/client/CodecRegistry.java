@@ -0,0 +1,190 @@
+/**
+ * CodecRegistry
+ */
+package com.dbs.lib.service.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * {@link ObjectReader} and {@link ObjectWriter} built once by type and reused by every exchange,
+ * so the message converters of the {@link RestTemplate} are not scanned and the types not resolved again on each call.
+ * <pre>
+ * CodecRegistry codecs = CodecRegistry.of(restTemplate);
+ * SimpleResponse&lt;UserDto&gt; resp = codecs.reader(AbstractClient.typeUserDto).readValue(json);
+ * </pre>
+ * the binary Jackson formats {@link #smile()} and {@link #cbor()} need jackson-dataformat-smile or jackson-dataformat-cbor.
+ *
+ * @author dbs at 19 Oct 2026 02:51:06
+ * @since 1.2.0
+ * @version 1.0
+ * @version 1.1 media type of the codecs, binary formats {@link #smile()} and {@link #cbor()}
+ */
+public class CodecRegistry {
+
+  /**
+   * media type of Smile, binary JSON of Jackson
+   */
+  public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+  private final ObjectMapper mapper;
+  private final MediaType mediaType;
+  private final Map<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+  private final Map<Type, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+  /**
+   * @param mapper {@link ObjectMapper} configuring the JSON codecs
+   */
+  public CodecRegistry(ObjectMapper mapper) {
+    this(mapper, MediaType.APPLICATION_JSON);
+  }
+
+  /**
+   * @param mapper {@link ObjectMapper} configuring the codecs, its factory must produce the media type
+   * @param mediaType content type written by the codecs
+   */
+  public CodecRegistry(ObjectMapper mapper, MediaType mediaType) {
+    this.mapper = mapper;
+    this.mediaType = mediaType;
+  }
+
+  /**
+   * @return Smile codecs with the Spring default configuration
+   */
+  public static CodecRegistry smile() {
+    return new CodecRegistry(Jackson2ObjectMapperBuilder.smile().build(), APPLICATION_SMILE);
+  }
+
+  /**
+   * @return CBOR codecs with the Spring default configuration
+   */
+  public static CodecRegistry cbor() {
+    return new CodecRegistry(Jackson2ObjectMapperBuilder.cbor().build(), MediaType.APPLICATION_CBOR);
+  }
+
+  /**
+   * @param restTemplate {@link RestTemplate} to take the {@link ObjectMapper} of its {@link MappingJackson2HttpMessageConverter} from
+   * @return a registry with the same Jackson configuration as the converters, or Spring defaults if there is none
+   */
+  public static CodecRegistry of(RestTemplate restTemplate) {
+    return restTemplate.getMessageConverters().stream()
+        .filter(MappingJackson2HttpMessageConverter.class::isInstance)
+        .map(c -> new CodecRegistry(((MappingJackson2HttpMessageConverter) c).getObjectMapper()))
+        .findFirst()
+        .orElseGet(() -> new CodecRegistry(Jackson2ObjectMapperBuilder.json().build()));
+  }
+
+  /**
+   * @param type value type
+   * @return cached {@link ObjectReader} of the type
+   */
+  public ObjectReader reader(Type type) {
+    return readers.computeIfAbsent(type, t -> mapper.readerFor(mapper.constructType(t)));
+  }
+
+  /**
+   * @param <T> value type
+   * @param type value type, ie {@code AbstractClient.typeUserDto}
+   * @return cached {@link ObjectReader} of the type
+   */
+  public <T> ObjectReader reader(ParameterizedTypeReference<T> type) {
+    return reader(type.getType());
+  }
+
+  /**
+   * @param type value type
+   * @return cached {@link ObjectWriter} of the type, the target stream is left open
+   */
+  public ObjectWriter writer(Type type) {
+    return writers.computeIfAbsent(type, t -> mapper.writerFor(mapper.constructType(t)).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+  }
+
+  /**
+   * @param <T> value type
+   * @param type value type
+   * @param response {@link ClientHttpResponse} to read
+   * @return the body, null if the response has none
+   * @throws IOException if the body is not a valid value
+   */
+  public <T> T read(ParameterizedTypeReference<T> type, ClientHttpResponse response) throws IOException {
+    InputStream body = body(response);
+    return null == body ? null : reader(type).readValue(body);
+  }
+
+  /**
+   * @return the {@link ObjectMapper} of the codecs
+   */
+  public ObjectMapper getMapper() {
+    return mapper;
+  }
+
+  /**
+   * @return content type written by the codecs
+   */
+  public MediaType getMediaType() {
+    return mediaType;
+  }
+
+  /**
+   * @param headers of a message
+   * @return true if the codecs read its content type; a JSON registry reads JSON and content without type
+   */
+  public boolean canRead(HttpHeaders headers) {
+    MediaType contentType = headers.getContentType();
+    if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+      return isJson(headers);
+    }
+    return null != contentType && mediaType.isCompatibleWith(contentType);
+  }
+
+  /**
+   * @param response {@link ClientHttpResponse}
+   * @return body of the response, null if it has none
+   * @throws IOException if the body can not be read
+   */
+  static InputStream body(ClientHttpResponse response) throws IOException {
+    int status = response.getRawStatusCode();
+    if (status < 200 || status == HttpStatus.NO_CONTENT.value() || status == HttpStatus.NOT_MODIFIED.value()
+        || response.getHeaders().getContentLength() == 0) {
+      return null;
+    }
+    InputStream in = response.getBody();
+    if (null == in) {
+      return null;
+    }
+    PushbackInputStream body = new PushbackInputStream(in, 1);
+    int first = body.read();
+    if (first < 0) {
+      return null;
+    }
+    body.unread(first);
+    return body;
+  }
+
+  /**
+   * @param headers of a message
+   * @return true if the content type is JSON or not set
+   */
+  public static boolean isJson(HttpHeaders headers) {
+    return null == headers.getContentType() || headers.getContentType().getSubtype().equals("json")
+        || headers.getContentType().getSubtype().endsWith("+json");
+  }
+}
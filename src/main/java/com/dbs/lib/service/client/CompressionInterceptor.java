@@ -0,0 +1,388 @@
+/**
+ * CompressionInterceptor
+ */
+package com.dbs.lib.service.client;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+import org.apache.commons.io.input.CountingInputStream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * {@link org.springframework.web.client.RestTemplate} interceptor compressing request bodies and negotiating compressed responses<br>
+ * request bodies from the threshold size are gzipped with pooled {@link Deflater}s and buffers, and sent as they are if gzip does not
+ * make them smaller; responses encoded with gzip or deflate are decompressed while read with pooled {@link Inflater}s and buffers,
+ * given back when the response is closed, the body is never held in memory; bytes saved on the wire are reported to
+ * {@link ClientMetrics#increment(String, String, long)} as {@value #REQUEST_BYTES_SAVED} and {@value #RESPONSE_BYTES_SAVED}.
+ * Responses already decompressed by the HTTP library, ie Apache HttpClient, are passed as they are.
+ *
+ * @author dbs at 19 Oct 2026 02:18:45
+ * @since 1.2.0
+ * @version 1.0
+ * @version 1.1 pooled {@link Inflater}s, request body sent uncompressed when gzip does not shrink it
+ */
+public class CompressionInterceptor implements ClientHttpRequestInterceptor {
+
+  /**
+   * counter of the request bytes saved
+   */
+  public static final String REQUEST_BYTES_SAVED = "requestBytesSaved";
+  /**
+   * counter of the response bytes saved
+   */
+  public static final String RESPONSE_BYTES_SAVED = "responseBytesSaved";
+
+  private static final String GZIP = "gzip";
+  private static final String DEFLATE = "deflate";
+  private static final int POOL_SIZE = 16;
+  private static final int BUFFER_SIZE = 8192;
+  private static final int MAX_POOLED_BUFFER_SIZE = 1 << 20;
+  private static final int GZIP_HEADER_SIZE = 10;
+  private static final int GZIP_TRAILER_SIZE = 8;
+  private static final int FHCRC = 2;
+  private static final int FEXTRA = 4;
+  private static final int FNAME = 8;
+  private static final int FCOMMENT = 16;
+
+  private final int threshold;
+  private final int level;
+  private final Supplier<ClientMetrics> metrics;
+  private final Function<URI, String> operations;
+  private final BlockingQueue<Compressor> pool = new ArrayBlockingQueue<>(POOL_SIZE);
+  private final BlockingQueue<Decompressor> gzipPool = new ArrayBlockingQueue<>(POOL_SIZE);
+  private final BlockingQueue<Decompressor> deflatePool = new ArrayBlockingQueue<>(POOL_SIZE);
+
+  /**
+   * @param threshold minimum size of a request body to compress
+   * @param level {@link Deflater} level, ie {@link Deflater#BEST_SPEED}
+   * @param metrics current {@link ClientMetrics}, read on each exchange
+   * @param operations name of the operation of a request URI
+   */
+  public CompressionInterceptor(int threshold, int level, Supplier<ClientMetrics> metrics, Function<URI, String> operations) {
+    if (threshold < 0 || level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+      throw new IllegalArgumentException(String.format("invalid threshold %d or level %d", threshold, level));
+    }
+    this.threshold = threshold;
+    this.level = level;
+    this.metrics = metrics;
+    this.operations = operations;
+  }
+
+  @Override
+  public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+    HttpHeaders headers = request.getHeaders();
+    if (!headers.containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+      headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+    }
+    ClientMetrics recorder = metrics.get();
+    String operation = operations.apply(request.getURI());
+    byte[] payload = body;
+    if (body.length >= threshold && body.length > 0 && !headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+      byte[] gzipped = gzip(body);
+      if (gzipped.length < body.length) {
+        payload = gzipped;
+        headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+        headers.setContentLength(payload.length);
+        recorder.increment(operation, REQUEST_BYTES_SAVED, body.length - payload.length);
+      }
+    }
+    ClientHttpResponse response = execution.execute(request, payload);
+    List<String> encodings = response.getHeaders().get(HttpHeaders.CONTENT_ENCODING);
+    if (null == encodings || encodings.size() != 1) {
+      return response;
+    }
+    String encoding = encodings.get(0).trim();
+    if (!GZIP.equalsIgnoreCase(encoding) && !DEFLATE.equalsIgnoreCase(encoding)) {
+      return response;
+    }
+    return new DecompressingResponse(response, GZIP.equalsIgnoreCase(encoding), recorder, operation);
+  }
+
+  /**
+   * @param data to compress
+   * @return gzip member of data
+   */
+  byte[] gzip(byte[] data) {
+    Compressor compressor = pool.poll();
+    if (null == compressor) {
+      compressor = new Compressor(level);
+    }
+    try {
+      return compressor.gzip(data);
+    } finally {
+      if (compressor.buffer.length > MAX_POOLED_BUFFER_SIZE) {
+        compressor.buffer = new byte[BUFFER_SIZE];
+      }
+      if (!pool.offer(compressor)) {
+        compressor.deflater.end();
+      }
+    }
+  }
+
+  private Decompressor borrowDecompressor(boolean gzip) {
+    Decompressor decompressor = (gzip ? gzipPool : deflatePool).poll();
+    return null == decompressor ? new Decompressor(gzip) : decompressor;
+  }
+
+  private void releaseDecompressor(boolean gzip, Decompressor decompressor) {
+    decompressor.inflater.reset();
+    decompressor.crc.reset();
+    if (!(gzip ? gzipPool : deflatePool).offer(decompressor)) {
+      decompressor.inflater.end();
+    }
+  }
+
+  /**
+   * skip the gzip member header, the compressed data follows
+   * @param in compressed stream
+   * @throws IOException if not gzip or truncated
+   */
+  static void readGzipHeader(InputStream in) throws IOException {
+    if (readByte(in) != 0x1f || readByte(in) != 0x8b || readByte(in) != Deflater.DEFLATED) {
+      throw new ZipException("Not in GZIP format");
+    }
+    int flags = readByte(in);
+    skip(in, 6);
+    if ((flags & FEXTRA) != 0) {
+      skip(in, readByte(in) | readByte(in) << 8);
+    }
+    if ((flags & FNAME) != 0) {
+      while (readByte(in) != 0) {
+        // zero terminated file name
+      }
+    }
+    if ((flags & FCOMMENT) != 0) {
+      while (readByte(in) != 0) {
+        // zero terminated comment
+      }
+    }
+    if ((flags & FHCRC) != 0) {
+      skip(in, 2);
+    }
+  }
+
+  private static int readByte(InputStream in) throws IOException {
+    int b = in.read();
+    if (b < 0) {
+      throw new EOFException("Unexpected end of GZIP input stream");
+    }
+    return b;
+  }
+
+  private static void skip(InputStream in, int count) throws IOException {
+    for (int i = 0; i < count; i++) {
+      readByte(in);
+    }
+  }
+
+  /**
+   * reusable {@link Deflater}, checksum and output buffer
+   */
+  private static final class Compressor {
+    final Deflater deflater;
+    final CRC32 crc = new CRC32();
+    byte[] buffer = new byte[BUFFER_SIZE];
+
+    Compressor(int level) {
+      deflater = new Deflater(level, true);
+    }
+
+    byte[] gzip(byte[] data) {
+      deflater.reset();
+      crc.reset();
+      crc.update(data, 0, data.length);
+      int bound = GZIP_HEADER_SIZE + data.length + (data.length >> 12) + (data.length >> 14) + (data.length >> 25) + 13 + GZIP_TRAILER_SIZE;
+      if (buffer.length < bound) {
+        buffer = new byte[bound];
+      }
+      buffer[0] = (byte) 0x1f;
+      buffer[1] = (byte) 0x8b;
+      buffer[2] = Deflater.DEFLATED;
+      Arrays.fill(buffer, 3, GZIP_HEADER_SIZE, (byte) 0);
+      deflater.setInput(data);
+      deflater.finish();
+      int length = GZIP_HEADER_SIZE;
+      while (!deflater.finished()) {
+        length += deflater.deflate(buffer, length, buffer.length - length - GZIP_TRAILER_SIZE);
+        if (!deflater.finished() && length == buffer.length - GZIP_TRAILER_SIZE) {
+          buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+      }
+      writeInt(buffer, length, (int) crc.getValue());
+      writeInt(buffer, length + 4, data.length);
+      return Arrays.copyOf(buffer, length + GZIP_TRAILER_SIZE);
+    }
+
+    private static void writeInt(byte[] b, int offset, int value) {
+      b[offset] = (byte) value;
+      b[offset + 1] = (byte) (value >> 8);
+      b[offset + 2] = (byte) (value >> 16);
+      b[offset + 3] = (byte) (value >> 24);
+    }
+  }
+
+  /**
+   * reusable {@link Inflater}, checksum and input buffer, raw deflate for gzip, zlib for deflate
+   */
+  private static final class Decompressor {
+    final Inflater inflater;
+    final CRC32 crc = new CRC32();
+    final byte[] buffer = new byte[BUFFER_SIZE];
+
+    Decompressor(boolean gzip) {
+      inflater = new Inflater(gzip);
+    }
+  }
+
+  /**
+   * body inflated with a {@link Decompressor}, the gzip trailer of a single member is checked at the end of the data
+   */
+  private static final class DecompressorInputStream extends InflaterInputStream {
+    private final boolean gzip;
+    private final CRC32 crc;
+    private boolean eos;
+
+    DecompressorInputStream(InputStream in, Decompressor decompressor, boolean gzip) {
+      super(in, decompressor.inflater, 1);
+      this.buf = decompressor.buffer;
+      this.gzip = gzip;
+      this.crc = decompressor.crc;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (eos) {
+        return -1;
+      }
+      int n = super.read(b, off, len);
+      if (n < 0) {
+        eos = true;
+        if (gzip) {
+          readTrailer();
+        }
+      } else if (gzip) {
+        crc.update(b, off, n);
+      }
+      return n;
+    }
+
+    private void readTrailer() throws IOException {
+      int remaining = inf.getRemaining();
+      long checksum = 0;
+      long size = 0;
+      for (int i = 0; i < GZIP_TRAILER_SIZE; i++) {
+        long b = i < remaining ? buf[len - remaining + i] & 0xff : readByte(in);
+        if (i < 4) {
+          checksum |= b << (8 * i);
+        } else {
+          size |= b << (8 * (i - 4));
+        }
+      }
+      if (checksum != crc.getValue() || size != (inf.getBytesWritten() & 0xffffffffL)) {
+        throw new ZipException("Corrupt GZIP trailer");
+      }
+    }
+  }
+
+  /**
+   * response with the body decompressed while read, Content-Encoding and Content-Length removed
+   */
+  private final class DecompressingResponse implements ClientHttpResponse {
+    private final ClientHttpResponse response;
+    private final boolean gzip;
+    private final ClientMetrics recorder;
+    private final String operation;
+    private final HttpHeaders headers = new HttpHeaders();
+    private CountingInputStream compressed;
+    private Decompressor decompressor;
+    private InputStream decoded;
+    private CountingInputStream body;
+    private boolean closed;
+
+    DecompressingResponse(ClientHttpResponse response, boolean gzip, ClientMetrics recorder, String operation) {
+      this.response = response;
+      this.gzip = gzip;
+      this.recorder = recorder;
+      this.operation = operation;
+      headers.putAll(response.getHeaders());
+      headers.remove(HttpHeaders.CONTENT_ENCODING);
+      headers.remove(HttpHeaders.CONTENT_LENGTH);
+    }
+
+    @Override
+    public InputStream getBody() throws IOException {
+      if (null == body) {
+        compressed = new CountingInputStream(response.getBody());
+        if (gzip) {
+          readGzipHeader(compressed);
+        }
+        decompressor = borrowDecompressor(gzip);
+        decoded = new DecompressorInputStream(compressed, decompressor, gzip);
+        body = new CountingInputStream(new FilterInputStream(decoded) {
+          @Override
+          public void close() throws IOException {
+            DecompressingResponse.this.close();
+          }
+        });
+      }
+      return body;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return headers;
+    }
+
+    @Override
+    public HttpStatus getStatusCode() throws IOException {
+      return response.getStatusCode();
+    }
+
+    @Override
+    public int getRawStatusCode() throws IOException {
+      return response.getRawStatusCode();
+    }
+
+    @Override
+    public String getStatusText() throws IOException {
+      return response.getStatusText();
+    }
+
+    @Override
+    public void close() {
+      if (!closed) {
+        closed = true;
+        if (null != body) {
+          recorder.increment(operation, RESPONSE_BYTES_SAVED, body.getByteCount() - compressed.getByteCount());
+          try {
+            decoded.close();
+          } catch (IOException e) {
+            // the connection is released below
+          }
+          releaseDecompressor(gzip, decompressor);
+        }
+        response.close();
+      }
+    }
+  }
+}
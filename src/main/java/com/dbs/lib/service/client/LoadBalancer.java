@@ -0,0 +1,419 @@
+/**
+ * LoadBalancer
+ */
+package com.dbs.lib.service.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * {@link RestTemplate} interceptor spreading the requests over several endpoints, see {@link #builder()}<br>
+ * scheme, host and port of each request are replaced by the endpoint chosen by the {@link Strategy}.
+ * An endpoint failing several times in a row, on {@link IOException} or 5xx status, is ejected and probed in background
+ * until it answers again; when all endpoints are ejected they are all used.
+ * A request refused at connection, or by the open {@link CircuitBreaker} of its endpoint, is sent once to each other candidate endpoint,
+ * ejected ones skipped; the following interceptors run for the first endpoint only, except the {@link ResilienceInterceptor} of
+ * {@link #setResilience(ResilienceInterceptor)} run again for each other endpoint, so its circuit breaker is checked and updated.
+ * <pre>
+ * LoadBalancer balancer = client.enableLoadBalancing(AbstractClient.loadBalancing().strategy(Strategy.EWMA)
+ *     .endpoint("http://10.0.0.2:8080").endpoint("http://10.0.0.3:8080"));
+ * balancer.getEndpoints(); // outstanding requests, latency and state by endpoint
+ * </pre>
+ * close it to stop the probe thread.
+ *
+ * @author dbs at 19 Oct 2026 01:44:18
+ * @since 1.2.0
+ * @version 1.0
+ * @version 1.1 fail over on {@link CircuitBreakerOpenException}, to the candidate endpoints only
+ * @version 1.2 fail over through the {@link ResilienceInterceptor}, see {@link #setResilience(ResilienceInterceptor)}
+ */
+@lombok.extern.slf4j.Slf4j
+public class LoadBalancer implements ClientHttpRequestInterceptor, Closeable {
+
+  private static final AtomicInteger PROBE_THREADS = new AtomicInteger();
+  /**
+   * latency accounted for a failure, a fast failing endpoint must not look like a fast one
+   */
+  private static final long FAILURE_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  /**
+   * endpoint selection
+   */
+  public enum Strategy {
+    /**
+     * each endpoint in turn
+     */
+    ROUND_ROBIN,
+    /**
+     * endpoint with the fewest requests in flight
+     */
+    LEAST_OUTSTANDING,
+    /**
+     * endpoint with the lowest exponentially weighted moving average latency, weighted by its requests in flight
+     */
+    EWMA
+  }
+
+  private final Strategy strategy;
+  private final List<Endpoint> endpoints;
+  private final int failureThreshold;
+  private final double decay;
+  private final Predicate<URI> probe;
+  private final ScheduledExecutorService prober;
+  private final AtomicInteger next = new AtomicInteger();
+  private volatile ResilienceInterceptor resilience;
+
+  private LoadBalancer(Builder builder) {
+    this.strategy = builder.strategy;
+    List<Endpoint> list = new ArrayList<>();
+    for (URI uri : builder.endpoints) {
+      list.add(new Endpoint(uri));
+    }
+    this.endpoints = Collections.unmodifiableList(list);
+    this.failureThreshold = builder.failureThreshold;
+    this.decay = builder.decay;
+    this.probe = builder.probe;
+    this.prober = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "client-lb-probe-" + PROBE_THREADS.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    });
+    prober.scheduleWithFixedDelay(this::probe, builder.probeInterval, builder.probeInterval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * @return a {@link Builder} with default settings
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  @Override
+  public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+    List<Endpoint> candidates = candidates();
+    Endpoint endpoint = choose(candidates);
+    ResilienceInterceptor guard = resilience;
+    for (int tried = 1;; tried++) {
+      try {
+        return send(endpoint, request, body, execution, tried > 1 ? guard : null);
+      } catch (ConnectException | NoRouteToHostException | CircuitBreakerOpenException e) {
+        if (tried >= candidates.size()) {
+          throw e;
+        }
+        Endpoint failed = endpoint;
+        endpoint = candidates.get((candidates.indexOf(failed) + 1) % candidates.size());
+        log.debug("{} {} failed over from {} to {} after {}", request.getMethod(), request.getURI().getPath(), failed.uri, endpoint.uri, e.toString());
+      }
+    }
+  }
+
+  private ClientHttpResponse send(Endpoint endpoint, HttpRequest request, byte[] body, ClientHttpRequestExecution execution,
+      ResilienceInterceptor guard) throws IOException {
+    URI uri = UriComponentsBuilder.fromUri(request.getURI()).scheme(endpoint.uri.getScheme()).host(endpoint.uri.getHost())
+        .port(endpoint.uri.getPort()).build(true).toUri();
+    HttpRequest routed = new HttpRequestWrapper(request) {
+      @Override
+      public URI getURI() {
+        return uri;
+      }
+    };
+    endpoint.outstanding.incrementAndGet();
+    long start = System.nanoTime();
+    try {
+      ClientHttpResponse response = null == guard ? execution.execute(routed, body) : guard.intercept(routed, body, execution);
+      endpoint.completed(System.nanoTime() - start, response.getRawStatusCode() < 500, failureThreshold, decay);
+      return response;
+    } catch (CircuitBreakerOpenException e) {
+      throw e;
+    } catch (IOException | RuntimeException e) {
+      endpoint.completed(System.nanoTime() - start, false, failureThreshold, decay);
+      throw e;
+    } finally {
+      endpoint.outstanding.decrementAndGet();
+    }
+  }
+
+  private List<Endpoint> candidates() {
+    List<Endpoint> healthy = new ArrayList<>(endpoints.size());
+    for (Endpoint endpoint : endpoints) {
+      if (!endpoint.ejected) {
+        healthy.add(endpoint);
+      }
+    }
+    return healthy.isEmpty() ? endpoints : healthy;
+  }
+
+  private Endpoint choose(List<Endpoint> candidates) {
+    int size = candidates.size();
+    int offset = Math.floorMod(next.getAndIncrement(), size);
+    if (strategy == Strategy.ROUND_ROBIN || size == 1) {
+      return candidates.get(offset);
+    }
+    Endpoint best = null;
+    double bestScore = Double.MAX_VALUE;
+    for (int i = 0; i < size; i++) {
+      Endpoint endpoint = candidates.get((offset + i) % size);
+      double score = strategy == Strategy.LEAST_OUTSTANDING ? endpoint.outstanding.get()
+          : endpoint.ewmaNanos * (endpoint.outstanding.get() + 1);
+      if (score < bestScore) {
+        best = endpoint;
+        bestScore = score;
+      }
+    }
+    return best;
+  }
+
+  private void probe() {
+    for (Endpoint endpoint : endpoints) {
+      if (endpoint.ejected) {
+        boolean alive;
+        try {
+          alive = probe.test(endpoint.uri);
+        } catch (RuntimeException e) {
+          alive = false;
+        }
+        if (alive) {
+          endpoint.reinstate();
+          log.info("endpoint {} reinstated", endpoint.uri);
+        }
+      }
+    }
+  }
+
+  /**
+   * @param resilience interceptor following this balancer, run again for each fail over as the request execution does not, null for none
+   */
+  public void setResilience(ResilienceInterceptor resilience) {
+    this.resilience = resilience;
+  }
+
+  /**
+   * @return endpoints, in the order of the builder
+   */
+  public List<Endpoint> getEndpoints() {
+    return endpoints;
+  }
+
+  /**
+   * @return the selection strategy
+   */
+  public Strategy getStrategy() {
+    return strategy;
+  }
+
+  /**
+   * stop the probe thread
+   */
+  @Override
+  public void close() {
+    prober.shutdownNow();
+  }
+
+  /**
+   * one target of the requests and its live statistics
+   */
+  public static final class Endpoint {
+    final URI uri;
+    final AtomicInteger outstanding = new AtomicInteger();
+    final LongAdder requestCount = new LongAdder();
+    final LongAdder failureCount = new LongAdder();
+    final LongAdder ejectionCount = new LongAdder();
+    volatile double ewmaNanos;
+    volatile boolean ejected;
+    private int consecutiveFailures;
+
+    Endpoint(URI uri) {
+      this.uri = uri;
+    }
+
+    synchronized void completed(long nanos, boolean success, int failureThreshold, double decay) {
+      requestCount.increment();
+      long sample = success ? nanos : Math.max(nanos, FAILURE_PENALTY_NANOS);
+      ewmaNanos = ewmaNanos == 0 ? sample : ewmaNanos + decay * (sample - ewmaNanos);
+      if (success) {
+        consecutiveFailures = 0;
+        return;
+      }
+      failureCount.increment();
+      if (++consecutiveFailures >= failureThreshold && !ejected) {
+        ejected = true;
+        ejectionCount.increment();
+        log.warn("endpoint {} ejected after {} failures", uri, consecutiveFailures);
+      }
+    }
+
+    synchronized void reinstate() {
+      consecutiveFailures = 0;
+      ejected = false;
+    }
+
+    /**
+     * @return scheme, host and port of the endpoint
+     */
+    public URI getUri() {
+      return uri;
+    }
+
+    /**
+     * @return requests in flight, until the response headers are received
+     */
+    public int getOutstanding() {
+      return outstanding.get();
+    }
+
+    /**
+     * @return moving average latency in msec, 0 before the first request
+     */
+    public double getEwmaMillis() {
+      return ewmaNanos / 1e6;
+    }
+
+    /**
+     * @return number of requests sent
+     */
+    public long getRequestCount() {
+      return requestCount.sum();
+    }
+
+    /**
+     * @return number of failed requests
+     */
+    public long getFailureCount() {
+      return failureCount.sum();
+    }
+
+    /**
+     * @return number of times the endpoint was ejected
+     */
+    public long getEjectionCount() {
+      return ejectionCount.sum();
+    }
+
+    /**
+     * @return true while no request is sent to it, until a probe succeeds
+     */
+    public boolean isEjected() {
+      return ejected;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s [outstanding: %d; ewma: %.3f ms; requests: %d; failures: %d; ejected: %s]", uri, getOutstanding(),
+          getEwmaMillis(), getRequestCount(), getFailureCount(), ejected);
+    }
+  }
+
+  /**
+   * {@link LoadBalancer} settings, all durations in msec
+   */
+  public static class Builder {
+    Strategy strategy = Strategy.ROUND_ROBIN;
+    List<URI> endpoints = new ArrayList<>();
+    int failureThreshold = 3;
+    long probeInterval = 5000;
+    double decay = 0.3;
+    Predicate<URI> probe;
+
+    Builder() {
+    }
+
+    /**
+     * @param strategy endpoint selection, default {@link Strategy#ROUND_ROBIN}
+     * @return this
+     */
+    public Builder strategy(Strategy strategy) {
+      this.strategy = strategy;
+      return this;
+    }
+
+    /**
+     * @param endpoint scheme, host and port, ie http://10.0.0.2:8080
+     * @return this
+     */
+    public Builder endpoint(String endpoint) {
+      URI uri = URI.create(endpoint);
+      if (null == uri.getScheme() || null == uri.getHost()) {
+        throw new IllegalArgumentException(String.format("endpoint [%s] must have a scheme and a host", endpoint));
+      }
+      endpoints.add(uri);
+      return this;
+    }
+
+    /**
+     * @param failureThreshold consecutive failures ejecting an endpoint, default 3
+     * @return this
+     */
+    public Builder failureThreshold(int failureThreshold) {
+      this.failureThreshold = failureThreshold;
+      return this;
+    }
+
+    /**
+     * @param probeInterval delay between two probes of the ejected endpoints, default 5000
+     * @return this
+     */
+    public Builder probeInterval(long probeInterval) {
+      this.probeInterval = probeInterval;
+      return this;
+    }
+
+    /**
+     * @param decay weight of the last latency in the moving average, between 0 and 1, default 0.3
+     * @return this
+     */
+    public Builder decay(double decay) {
+      this.decay = decay;
+      return this;
+    }
+
+    /**
+     * @param probe true if an ejected endpoint is alive again
+     * @return this
+     */
+    public Builder probe(Predicate<URI> probe) {
+      this.probe = probe;
+      return this;
+    }
+
+    /**
+     * @return true if a probe is set
+     */
+    public boolean hasProbe() {
+      return null != probe;
+    }
+
+    /**
+     * @return a new {@link LoadBalancer}, its probe thread started
+     */
+    public LoadBalancer build() {
+      if (endpoints.isEmpty() || null == probe) {
+        throw new IllegalArgumentException("at least one endpoint and a probe are required");
+      }
+      if (failureThreshold < 1 || probeInterval < 1 || decay <= 0 || decay > 1) {
+        throw new IllegalArgumentException(String.format("invalid failureThreshold %d, probeInterval %d or decay %s", failureThreshold,
+            probeInterval, decay));
+      }
+      return new LoadBalancer(this);
+    }
+  }
+}
@@ -0,0 +1,117 @@
+/**
+ * MetricsInterceptor
+ */
+package com.dbs.lib.service.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.apache.commons.io.input.CountingInputStream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * report each HTTP exchange to {@link ClientMetrics#recordExchange(String, int, long, long)}, once the response is closed
+ * so the bytes streamed by the client are counted.
+ *
+ * @author dbs at 19 Oct 2026 01:06:51
+ * @since 1.2.0
+ * @version 1.0
+ */
+public class MetricsInterceptor implements ClientHttpRequestInterceptor {
+
+  private final Supplier<ClientMetrics> metrics;
+  private final Function<URI, String> operations;
+
+  /**
+   * @param metrics current {@link ClientMetrics}, read on each exchange
+   * @param operations name of the operation of a request URI
+   */
+  public MetricsInterceptor(Supplier<ClientMetrics> metrics, Function<URI, String> operations) {
+    this.metrics = metrics;
+    this.operations = operations;
+  }
+
+  @Override
+  public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+    ClientMetrics recorder = metrics.get();
+    if (ClientMetrics.NOOP == recorder) {
+      return execution.execute(request, body);
+    }
+    String operation = operations.apply(request.getURI());
+    ClientHttpResponse response;
+    try {
+      response = execution.execute(request, body);
+    } catch (IOException | RuntimeException e) {
+      recorder.recordExchange(operation, 0, body.length, 0);
+      throw e;
+    }
+    return new CountingResponse(response, recorder, operation, body.length);
+  }
+
+  private static final class CountingResponse implements ClientHttpResponse {
+    private final ClientHttpResponse response;
+    private final ClientMetrics recorder;
+    private final String operation;
+    private final long requestBytes;
+    private CountingInputStream body;
+    private boolean closed;
+
+    CountingResponse(ClientHttpResponse response, ClientMetrics recorder, String operation, long requestBytes) {
+      this.response = response;
+      this.recorder = recorder;
+      this.operation = operation;
+      this.requestBytes = requestBytes;
+    }
+
+    @Override
+    public InputStream getBody() throws IOException {
+      if (null == body) {
+        body = new CountingInputStream(response.getBody());
+      }
+      return body;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return response.getHeaders();
+    }
+
+    @Override
+    public HttpStatus getStatusCode() throws IOException {
+      return response.getStatusCode();
+    }
+
+    @Override
+    public int getRawStatusCode() throws IOException {
+      return response.getRawStatusCode();
+    }
+
+    @Override
+    public String getStatusText() throws IOException {
+      return response.getStatusText();
+    }
+
+    @Override
+    public void close() {
+      if (!closed) {
+        closed = true;
+        int status;
+        try {
+          status = response.getRawStatusCode();
+        } catch (IOException e) {
+          status = 0;
+        }
+        recorder.recordExchange(operation, status, requestBytes, null == body ? 0 : body.getByteCount());
+      }
+      response.close();
+    }
+  }
+}
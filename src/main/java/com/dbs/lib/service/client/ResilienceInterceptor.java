@@ -0,0 +1,307 @@
+/**
+ * ResilienceInterceptor
+ */
+package com.dbs.lib.service.client;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * {@link RestTemplate} interceptor retrying idempotent calls with exponential backoff and jitter,
+ * behind a {@link CircuitBreaker} by host, see {@link #builder()}<br>
+ * a call fails on {@link IOException}, ie {@link java.net.NoRouteToHostException}, or on a 5xx status;
+ * it is retried if its method is idempotent and the exception or the status is transient.
+ * While the circuit of a host is open, calls fail at once with {@link CircuitBreakerOpenException}.
+ * <pre>
+ * client.enableResilience(AbstractClient.resilience().maxAttempts(4).failureThreshold(10)
+ *     .listener((host, from, to) -&gt; log.warn("{} {} -&gt; {}", host, from, to)).build());
+ * </pre>
+ * must be the last interceptor of the {@link RestTemplate}, each attempt runs the request again without the following interceptors.
+ *
+ * @author dbs at 19 Oct 2026 00:21:33
+ * @since 1.2.0
+ * @version 1.0
+ * @version 1.1 injectable time source of the circuit breakers
+ * @version 1.2 any {@link Throwable} of an attempt is a failure, so an {@link Error} cannot leave a trial call in flight
+ */
+@lombok.extern.slf4j.Slf4j
+public class ResilienceInterceptor implements ClientHttpRequestInterceptor {
+
+  private final int maxAttempts;
+  private final long initialBackoff;
+  private final long maxBackoff;
+  private final double multiplier;
+  private final Set<Integer> retryStatuses;
+  private final Set<HttpMethod> retryMethods;
+  private final int failureThreshold;
+  private final long openDuration;
+  private final CircuitBreaker.Listener listener;
+  private final LongSupplier ticker;
+  private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+  private final LongAdder callCount = new LongAdder();
+  private final LongAdder retryCount = new LongAdder();
+  private final LongAdder rejectedCount = new LongAdder();
+
+  private ResilienceInterceptor(Builder builder) {
+    this.maxAttempts = builder.maxAttempts;
+    this.initialBackoff = builder.initialBackoff;
+    this.maxBackoff = builder.maxBackoff;
+    this.multiplier = builder.multiplier;
+    this.retryStatuses = Collections.unmodifiableSet(new HashSet<>(builder.retryStatuses));
+    this.retryMethods = Collections.unmodifiableSet(EnumSet.copyOf(builder.retryMethods));
+    this.failureThreshold = builder.failureThreshold;
+    this.openDuration = builder.openDuration;
+    this.listener = builder.listener;
+    this.ticker = builder.ticker;
+  }
+
+  /**
+   * @return a {@link Builder} with default settings
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  @Override
+  public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+    callCount.increment();
+    CircuitBreaker breaker = getBreaker(request);
+    boolean idempotent = retryMethods.contains(request.getMethod());
+    for (int attempt = 1;; attempt++) {
+      if (!breaker.tryAcquire()) {
+        rejectedCount.increment();
+        throw new CircuitBreakerOpenException(breaker.getName());
+      }
+      boolean last = !idempotent || attempt >= maxAttempts;
+      ClientHttpResponse response;
+      try {
+        response = execution.execute(request, body);
+      } catch (IOException | RuntimeException | Error e) {
+        breaker.onFailure();
+        if (last || !(e instanceof IOException) || e instanceof InterruptedIOException) {
+          throw e;
+        }
+        log.debug("retry {} {} after {}", request.getMethod(), request.getURI(), e.toString());
+        backoff(attempt);
+        continue;
+      }
+      int status;
+      try {
+        status = response.getRawStatusCode();
+      } catch (IOException | RuntimeException | Error e) {
+        breaker.onFailure();
+        response.close();
+        throw e;
+      }
+      if (status >= 500) {
+        breaker.onFailure();
+      } else {
+        breaker.onSuccess();
+      }
+      if (last || !retryStatuses.contains(status)) {
+        return response;
+      }
+      response.close();
+      log.debug("retry {} {} after status {}", request.getMethod(), request.getURI(), status);
+      backoff(attempt);
+    }
+  }
+
+  /**
+   * @param attempt number of the failed attempt, from 1
+   * @return delay before the next attempt in msec, between half and all of the exponential delay
+   */
+  long backoffDelay(int attempt) {
+    double delay = Math.min(maxBackoff, initialBackoff * Math.pow(multiplier, attempt - 1));
+    return (long) (delay / 2 + ThreadLocalRandom.current().nextDouble() * delay / 2);
+  }
+
+  private void backoff(int attempt) throws InterruptedIOException {
+    retryCount.increment();
+    try {
+      Thread.sleep(backoffDelay(attempt));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("interrupted while waiting to retry");
+    }
+  }
+
+  private CircuitBreaker getBreaker(HttpRequest request) {
+    String name = String.format("%s://%s:%d", request.getURI().getScheme(), request.getURI().getHost(), request.getURI().getPort());
+    return breakers.computeIfAbsent(name, n -> new CircuitBreaker(n, failureThreshold, openDuration, listener, ticker));
+  }
+
+  /**
+   * @return circuit breakers by host, ie {http://10.0.0.2:8080=CircuitBreaker}
+   */
+  public Map<String, CircuitBreaker> getBreakers() {
+    return Collections.unmodifiableMap(breakers);
+  }
+
+  /**
+   * @return snapshot of the counters
+   */
+  public Stats getStats() {
+    return new Stats(callCount.sum(), retryCount.sum(), rejectedCount.sum());
+  }
+
+  /**
+   * snapshot of the retry counters, see {@link CircuitBreaker#getStats()} for each host
+   */
+  @lombok.Value
+  public static class Stats {
+    /**
+     * calls received
+     */
+    long callCount;
+    /**
+     * attempts run again
+     */
+    long retryCount;
+    /**
+     * calls rejected by an open circuit
+     */
+    long rejectedCount;
+  }
+
+  /**
+   * {@link ResilienceInterceptor} settings, all durations in msec
+   */
+  public static class Builder {
+    int maxAttempts = 3;
+    long initialBackoff = 100;
+    long maxBackoff = 2000;
+    double multiplier = 2.0;
+    Set<Integer> retryStatuses = new HashSet<>(Arrays.asList(502, 503, 504));
+    EnumSet<HttpMethod> retryMethods = EnumSet.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE);
+    int failureThreshold = 5;
+    long openDuration = 30000;
+    CircuitBreaker.Listener listener = (name, from, to) -> log.warn("circuit breaker [{}] {} -> {}", name, from, to);
+    LongSupplier ticker = System::nanoTime;
+
+    Builder() {
+    }
+
+    /**
+     * @param maxAttempts attempts of an idempotent call, first one included, default 3, 1 disables retry
+     * @return this
+     */
+    public Builder maxAttempts(int maxAttempts) {
+      this.maxAttempts = maxAttempts;
+      return this;
+    }
+
+    /**
+     * @param initialBackoff delay before the first retry, default 100
+     * @return this
+     */
+    public Builder initialBackoff(long initialBackoff) {
+      this.initialBackoff = initialBackoff;
+      return this;
+    }
+
+    /**
+     * @param maxBackoff maximum delay between two attempts, default 2000
+     * @return this
+     */
+    public Builder maxBackoff(long maxBackoff) {
+      this.maxBackoff = maxBackoff;
+      return this;
+    }
+
+    /**
+     * @param multiplier growth of the delay after each attempt, default 2
+     * @return this
+     */
+    public Builder multiplier(double multiplier) {
+      this.multiplier = multiplier;
+      return this;
+    }
+
+    /**
+     * @param retryStatuses transient statuses, default 502, 503 and 504
+     * @return this
+     */
+    public Builder retryStatuses(Integer... retryStatuses) {
+      this.retryStatuses = new HashSet<>(Arrays.asList(retryStatuses));
+      return this;
+    }
+
+    /**
+     * @param retryMethods idempotent methods, default GET, HEAD, OPTIONS, PUT and DELETE
+     * @return this
+     */
+    public Builder retryMethods(HttpMethod... retryMethods) {
+      this.retryMethods = EnumSet.noneOf(HttpMethod.class);
+      Collections.addAll(this.retryMethods, retryMethods);
+      return this;
+    }
+
+    /**
+     * @param failureThreshold consecutive failures opening the circuit of a host, default 5
+     * @return this
+     */
+    public Builder failureThreshold(int failureThreshold) {
+      this.failureThreshold = failureThreshold;
+      return this;
+    }
+
+    /**
+     * @param openDuration time an open circuit rejects calls before a trial call, default 30000
+     * @return this
+     */
+    public Builder openDuration(long openDuration) {
+      this.openDuration = openDuration;
+      return this;
+    }
+
+    /**
+     * @param listener state change events, default a warning log
+     * @return this
+     */
+    public Builder listener(CircuitBreaker.Listener listener) {
+      this.listener = listener;
+      return this;
+    }
+
+    /**
+     * @param ticker time source in nanoseconds of the circuit breakers, default {@link System#nanoTime()}
+     * @return this
+     */
+    public Builder ticker(LongSupplier ticker) {
+      this.ticker = ticker;
+      return this;
+    }
+
+    /**
+     * @return a new {@link ResilienceInterceptor}
+     */
+    public ResilienceInterceptor build() {
+      if (maxAttempts < 1 || initialBackoff < 0 || maxBackoff < initialBackoff || multiplier < 1) {
+        throw new IllegalArgumentException(String.format("invalid maxAttempts %d, backoff %d..%d or multiplier %s", maxAttempts, initialBackoff,
+            maxBackoff, multiplier));
+      }
+      if (failureThreshold < 1 || openDuration < 0) {
+        throw new IllegalArgumentException(String.format("invalid failureThreshold %d or openDuration %d", failureThreshold, openDuration));
+      }
+      return new ResilienceInterceptor(this);
+    }
+  }
+}
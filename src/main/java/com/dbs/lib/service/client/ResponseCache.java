@@ -0,0 +1,282 @@
+/**
+ * ResponseCache
+ */
+package com.dbs.lib.service.client;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * bounded cache of responses with a time to live, entries carrying an ETag are kept once stale so they can be revalidated
+ * with If-None-Match instead of downloaded again<br>
+ * values are shared by all callers and must not be modified.<br>
+ * a response read while its key is invalidated must not be cached: take the {@link #generation(Object)} of the key before the call
+ * and pass it to {@link #put(Object, Object, String, long)}, the value is dropped if the key was invalidated in between.
+ * <ul>
+ * <li>hit: fresh entry served without any call</li>
+ * <li>miss: no entry, or a stale entry sent for revalidation</li>
+ * <li>revalidation: stale entry confirmed by the server (304 Not Modified)</li>
+ * <li>eviction: entry dropped because of the size limit or stale without ETag</li>
+ * </ul>
+ * add dependency com.google.guava:guava
+ *
+ * @param <K> key type
+ * @param <V> value type
+ * @author dbs at 18 Oct 2026 23:02:18
+ * @since 1.2.0
+ * @version 1.0
+ * @version 1.1 generation of the keys, an invalidation during a call drops its response
+ * @version 1.2 injectable time source
+ */
+public class ResponseCache<K, V> {
+
+  /**
+   * number of generation counters, keys are spread over them by hash
+   */
+  static final int GENERATIONS = 64;
+
+  private final Cache<K, Entry<V>> cache;
+  private final AtomicLongArray generations = new AtomicLongArray(GENERATIONS);
+  private final long ttlNanos;
+  private final LongSupplier ticker;
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder revalidationCount = new LongAdder();
+  private final LongAdder evictionCount = new LongAdder();
+
+  /**
+   * @param maxSize maximum number of entries
+   * @param ttl time to live of an entry before it must be revalidated
+   */
+  public ResponseCache(long maxSize, Duration ttl) {
+    this(maxSize, ttl, System::nanoTime);
+  }
+
+  /**
+   * @param maxSize maximum number of entries
+   * @param ttl time to live of an entry before it must be revalidated
+   * @param ticker time source in nanoseconds of the time to live, ie {@link System#nanoTime()}
+   */
+  public ResponseCache(long maxSize, Duration ttl, LongSupplier ticker) {
+    if (maxSize < 1 || ttl.isNegative()) {
+      throw new IllegalArgumentException(String.format("invalid maxSize %d or ttl %s", maxSize, ttl));
+    }
+    this.ttlNanos = ttl.toNanos();
+    this.ticker = ticker;
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .<K, Entry<V>>removalListener(notification -> {
+          if (notification.wasEvicted()) {
+            evictionCount.increment();
+          }
+        })
+        .build();
+  }
+
+  /**
+   * @param key to look for
+   * @return fresh entry, stale entry with an ETag to revalidate, or null
+   */
+  public Entry<V> get(K key) {
+    Entry<V> entry = cache.getIfPresent(key);
+    if (null == entry) {
+      missCount.increment();
+      return null;
+    }
+    if (entry.isFresh()) {
+      hitCount.increment();
+      return entry;
+    }
+    missCount.increment();
+    if (null == entry.etag) {
+      if (cache.asMap().remove(key, entry)) {
+        evictionCount.increment();
+      }
+      return null;
+    }
+    return entry;
+  }
+
+  /**
+   * @param key of the entry
+   * @param value to store
+   * @param etag validator sent by the server, nullable
+   */
+  public void put(K key, V value, String etag) {
+    cache.put(key, newEntry(value, etag));
+  }
+
+  /**
+   * @param key of the entry
+   * @param value to store
+   * @param etag validator sent by the server, nullable
+   * @param generation of the key taken before the call, see {@link #generation(Object)}
+   * @return false if the key was invalidated since, nothing is stored
+   */
+  public boolean put(K key, V value, String etag, long generation) {
+    return putIfCurrent(key, newEntry(value, etag), generation);
+  }
+
+  /**
+   * the server confirmed a stale entry is still valid, it is fresh again
+   * @param key of the entry
+   * @param entry stale entry returned by {@link #get(Object)}
+   * @return the cached value
+   */
+  public V revalidated(K key, Entry<V> entry) {
+    revalidationCount.increment();
+    cache.put(key, newEntry(entry.value, entry.etag));
+    return entry.value;
+  }
+
+  /**
+   * the server confirmed a stale entry is still valid, it is fresh again unless the key was invalidated since
+   * @param key of the entry
+   * @param entry stale entry returned by {@link #get(Object)}
+   * @param generation of the key taken before the call, see {@link #generation(Object)}
+   * @return the cached value
+   */
+  public V revalidated(K key, Entry<V> entry, long generation) {
+    revalidationCount.increment();
+    putIfCurrent(key, newEntry(entry.value, entry.etag), generation);
+    return entry.value;
+  }
+
+  private Entry<V> newEntry(V value, String etag) {
+    return new Entry<>(value, etag, ticker.getAsLong() + ttlNanos, ticker);
+  }
+
+  /**
+   * the entry is stored first then dropped if the generation moved, so an invalidation running concurrently
+   * either sees the entry and removes it, or is seen here
+   */
+  private boolean putIfCurrent(K key, Entry<V> entry, long generation) {
+    int index = index(key);
+    if (generations.get(index) != generation) {
+      return false;
+    }
+    cache.put(key, entry);
+    if (generations.get(index) != generation) {
+      cache.asMap().remove(key, entry);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * @param key of an entry
+   * @return counter moved by each invalidation of the key, or of another key sharing its counter
+   */
+  public long generation(K key) {
+    return generations.get(index(key));
+  }
+
+  private static int index(Object key) {
+    int h = key.hashCode();
+    return (h ^ (h >>> 16)) & (GENERATIONS - 1);
+  }
+
+  /**
+   * @param key to drop
+   */
+  public void invalidate(K key) {
+    generations.incrementAndGet(index(key));
+    cache.invalidate(key);
+  }
+
+  /**
+   * drop all entries
+   */
+  public void invalidateAll() {
+    for (int i = 0; i < GENERATIONS; i++) {
+      generations.incrementAndGet(i);
+    }
+    cache.invalidateAll();
+  }
+
+  /**
+   * @return snapshot of the counters
+   */
+  public Stats getStats() {
+    return new Stats(cache.size(), hitCount.sum(), missCount.sum(), revalidationCount.sum(), evictionCount.sum());
+  }
+
+  /**
+   * cached value with its validator
+   * @param <V> value type
+   */
+  public static final class Entry<V> {
+    final V value;
+    final String etag;
+    final long expiresAt;
+    final LongSupplier ticker;
+
+    Entry(V value, String etag, long expiresAt, LongSupplier ticker) {
+      this.value = value;
+      this.etag = etag;
+      this.expiresAt = expiresAt;
+      this.ticker = ticker;
+    }
+
+    /**
+     * @return cached value
+     */
+    public V getValue() {
+      return value;
+    }
+
+    /**
+     * @return ETag sent by the server, null if none
+     */
+    public String getEtag() {
+      return etag;
+    }
+
+    /**
+     * @return true until the time to live is elapsed
+     */
+    public boolean isFresh() {
+      return ticker.getAsLong() - expiresAt < 0;
+    }
+  }
+
+  /**
+   * snapshot of the cache counters
+   */
+  @lombok.Value
+  public static class Stats {
+    /**
+     * number of entries
+     */
+    long size;
+    /**
+     * fresh entries served
+     */
+    long hitCount;
+    /**
+     * absent or stale entries
+     */
+    long missCount;
+    /**
+     * stale entries confirmed by the server
+     */
+    long revalidationCount;
+    /**
+     * entries dropped because of the size limit or the time to live
+     */
+    long evictionCount;
+
+    /**
+     * @return ratio of calls served without downloading the response, 1 when there was no call
+     */
+    public double getHitRate() {
+      long total = hitCount + missCount;
+      return total == 0 ? 1.0 : (double) (hitCount + revalidationCount) / total;
+    }
+  }
+}
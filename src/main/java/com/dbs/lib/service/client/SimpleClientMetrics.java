@@ -0,0 +1,219 @@
+/**
+ * SimpleClientMetrics
+ */
+package com.dbs.lib.service.client;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.dbs.lib.dto.enumeration.ErrorCode;
+
+/**
+ * in memory {@link ClientMetrics} by operation: latency histogram, outcomes by {@link ErrorCode}, HTTP statuses,
+ * payload sizes and counters; for tests and services without a metrics library.
+ * <pre>
+ * SimpleClientMetrics metrics = new SimpleClientMetrics();
+ * client.setMetrics(metrics);
+ * metrics.get("userGet").getPercentileMillis(0.99);
+ * </pre>
+ *
+ * @author dbs at 19 Oct 2026 01:15:37
+ * @since 1.2.0
+ * @version 1.0
+ */
+public class SimpleClientMetrics implements ClientMetrics {
+
+  /**
+   * upper bounds of the latency histogram buckets in msec, the last bucket is unbounded
+   */
+  public static final long[] BUCKETS_MILLIS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000 };
+
+  private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+  @Override
+  public void recordCall(String operation, long durationNanos, ErrorCode errorCode) {
+    get(operation).recordCall(durationNanos, errorCode);
+  }
+
+  @Override
+  public void recordExchange(String operation, int status, long requestBytes, long responseBytes) {
+    get(operation).recordExchange(status, requestBytes, responseBytes);
+  }
+
+  @Override
+  public void increment(String operation, String counter, long amount) {
+    get(operation).counters.computeIfAbsent(counter, c -> new LongAdder()).add(amount);
+  }
+
+  /**
+   * @param operation client operation
+   * @return metrics of the operation, created empty if unknown
+   */
+  public Operation get(String operation) {
+    return operations.computeIfAbsent(operation, o -> new Operation());
+  }
+
+  /**
+   * @return metrics by operation, sorted by name
+   */
+  public Map<String, Operation> getOperations() {
+    return Collections.unmodifiableMap(new TreeMap<>(operations));
+  }
+
+  /**
+   * metrics of one operation
+   */
+  public static class Operation {
+    private final LongAdder callCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final LongAdder[] buckets = new LongAdder[BUCKETS_MILLIS.length + 1];
+    private final Map<ErrorCode, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder exchangeCount = new LongAdder();
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    Operation() {
+      for (int i = 0; i < buckets.length; i++) {
+        buckets[i] = new LongAdder();
+      }
+    }
+
+    void recordCall(long durationNanos, ErrorCode errorCode) {
+      callCount.increment();
+      totalNanos.add(durationNanos);
+      maxNanos.accumulateAndGet(durationNanos, Math::max);
+      long millis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+      int i = 0;
+      while (i < BUCKETS_MILLIS.length && millis >= BUCKETS_MILLIS[i]) {
+        i++;
+      }
+      buckets[i].increment();
+      outcomes.computeIfAbsent(errorCode, e -> new LongAdder()).increment();
+    }
+
+    void recordExchange(int status, long requestBytes, long responseBytes) {
+      exchangeCount.increment();
+      statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+      this.requestBytes.add(requestBytes);
+      this.responseBytes.add(responseBytes);
+    }
+
+    /**
+     * @return number of calls
+     */
+    public long getCallCount() {
+      return callCount.sum();
+    }
+
+    /**
+     * @return mean duration of a call in msec
+     */
+    public double getMeanMillis() {
+      long count = callCount.sum();
+      return count == 0 ? 0 : totalNanos.sum() / 1e6 / count;
+    }
+
+    /**
+     * @return longest call in msec
+     */
+    public double getMaxMillis() {
+      return maxNanos.get() / 1e6;
+    }
+
+    /**
+     * @param quantile between 0 and 1, ie 0.99
+     * @return upper bound in msec of the histogram bucket holding the quantile, {@link Long#MAX_VALUE} beyond the last bucket
+     */
+    public long getPercentileMillis(double quantile) {
+      long count = 0;
+      long[] counts = new long[buckets.length];
+      for (int i = 0; i < buckets.length; i++) {
+        counts[i] = buckets[i].sum();
+        count += counts[i];
+      }
+      long rank = (long) Math.ceil(quantile * count);
+      long seen = 0;
+      for (int i = 0; i < BUCKETS_MILLIS.length; i++) {
+        seen += counts[i];
+        if (seen >= rank) {
+          return BUCKETS_MILLIS[i];
+        }
+      }
+      return Long.MAX_VALUE;
+    }
+
+    /**
+     * @return number of calls by upper bound in msec, see {@link #BUCKETS_MILLIS}, last key {@link Long#MAX_VALUE}
+     */
+    public Map<Long, Long> getHistogram() {
+      Map<Long, Long> histogram = new TreeMap<>();
+      for (int i = 0; i < buckets.length; i++) {
+        histogram.put(i < BUCKETS_MILLIS.length ? BUCKETS_MILLIS[i] : Long.MAX_VALUE, buckets[i].sum());
+      }
+      return histogram;
+    }
+
+    /**
+     * @return number of calls by {@link ErrorCode}
+     */
+    public Map<ErrorCode, Long> getOutcomes() {
+      return snapshot(outcomes);
+    }
+
+    /**
+     * @return number of exchanges by HTTP status, 0 for no response
+     */
+    public Map<Integer, Long> getStatuses() {
+      return snapshot(statuses);
+    }
+
+    /**
+     * @return number of HTTP exchanges
+     */
+    public long getExchangeCount() {
+      return exchangeCount.sum();
+    }
+
+    /**
+     * @return total size of the request bodies
+     */
+    public long getRequestBytes() {
+      return requestBytes.sum();
+    }
+
+    /**
+     * @return total size of the response bodies
+     */
+    public long getResponseBytes() {
+      return responseBytes.sum();
+    }
+
+    /**
+     * @return counters by name
+     */
+    public Map<String, Long> getCounters() {
+      return snapshot(counters);
+    }
+
+    private static <K> Map<K, Long> snapshot(Map<K, LongAdder> adders) {
+      Map<K, Long> values = new TreeMap<>();
+      adders.forEach((k, v) -> values.put(k, v.sum()));
+      return values;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("calls %d, mean %.3f ms, p99 %d ms, max %.3f ms, outcomes %s, statuses %s, bytes %d/%d, counters %s", getCallCount(),
+          getMeanMillis(), getPercentileMillis(0.99), getMaxMillis(), getOutcomes(), getStatuses(), getRequestBytes(), getResponseBytes(),
+          getCounters());
+    }
+  }
+}
@@ -0,0 +1,105 @@
+/**
+ * SingleFlight
+ */
+package com.dbs.lib.service.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * coalesce concurrent identical calls: while a call is in flight for a key, other callers of the same key wait for it
+ * and get the same result instead of running the call again<br>
+ * nothing is cached, the next call after completion runs again; results are shared by all waiters and must not be modified.
+ * <pre>
+ * SingleFlight&lt;String, SimpleResponse&lt;?&gt;&gt; flight = new SingleFlight&lt;&gt;();
+ * flight.execute("userGet john", () -&gt; restCall("john"));
+ * </pre>
+ *
+ * @param <K> key type
+ * @param <V> result type
+ * @author dbs at 18 Oct 2026 23:41:07
+ * @since 1.2.0
+ * @version 1.0
+ */
+public class SingleFlight<K, V> {
+
+  private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+  private final LongAdder callCount = new LongAdder();
+  private final LongAdder executionCount = new LongAdder();
+  private final LongAdder collapsedCount = new LongAdder();
+
+  /**
+   * run the call, or wait for the one already in flight for the same key
+   * @param key identity of the call
+   * @param call to run if none is in flight
+   * @return result of the call, shared with concurrent callers of the same key
+   */
+  public V execute(K key, Supplier<V> call) {
+    callCount.increment();
+    CompletableFuture<V> flight = new CompletableFuture<>();
+    CompletableFuture<V> running = inFlight.putIfAbsent(key, flight);
+    if (null != running) {
+      collapsedCount.increment();
+      return join(running);
+    }
+    executionCount.increment();
+    V result;
+    try {
+      result = call.get();
+    } catch (RuntimeException | Error e) {
+      inFlight.remove(key, flight);
+      flight.completeExceptionally(e);
+      throw e;
+    }
+    inFlight.remove(key, flight);
+    flight.complete(result);
+    return result;
+  }
+
+  private static <V> V join(CompletableFuture<V> running) {
+    try {
+      return running.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * @return snapshot of the counters
+   */
+  public Stats getStats() {
+    return new Stats(inFlight.size(), callCount.sum(), executionCount.sum(), collapsedCount.sum());
+  }
+
+  /**
+   * snapshot of the single flight counters
+   */
+  @lombok.Value
+  public static class Stats {
+    /**
+     * keys currently in flight
+     */
+    int inFlight;
+    /**
+     * calls received
+     */
+    long callCount;
+    /**
+     * calls actually run
+     */
+    long executionCount;
+    /**
+     * calls served by a call of another thread
+     */
+    long collapsedCount;
+  }
+}
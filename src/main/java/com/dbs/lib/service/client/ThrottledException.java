@@ -0,0 +1,26 @@
+/**
+ * ThrottledException
+ */
+package com.dbs.lib.service.client;
+
+import java.io.IOException;
+
+/**
+ * call rejected without any network access because a client limit is reached, see {@link ThrottlingInterceptor}
+ *
+ * @author dbs at 19 Oct 2026 04:14:30
+ * @since 1.2.0
+ * @version 1.0
+ */
+public class ThrottledException extends IOException {
+
+  private static final long serialVersionUID = 6021938877465102113L;
+
+  /**
+   * @param operation client operation
+   * @param limit name of the limit reached, ie {@value ThrottlingInterceptor#RATE_LIMITED}
+   */
+  public ThrottledException(String operation, String limit) {
+    super(String.format("%s rejected for [%s]", limit, operation));
+  }
+}
@@ -0,0 +1,306 @@
+/**
+ * ThrottlingInterceptor
+ */
+package com.dbs.lib.service.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * {@link RestTemplate} interceptor limiting the calls of a client, and of each of its operations, with a {@link Bulkhead}
+ * of concurrent calls and a {@link TokenBucket} of calls per second, see {@link #builder()}<br>
+ * a call over a limit fails at once with {@link ThrottledException}, reported to
+ * {@link ClientMetrics#increment(String, String, long)} as {@value #RATE_LIMITED} or {@value #BULKHEAD_REJECTED};
+ * a bulkhead permit is held until the response is closed, so streamed bodies are counted in flight.
+ * <pre>
+ * ThrottlingInterceptor throttling = client.enableThrottling(AbstractClient.throttling().bulkhead(20, 10).maxWait(500)
+ *     .rateLimit(100, 20).operationRateLimit("stats", 1, 1));
+ * throttling.getBulkhead().getStats();
+ * </pre>
+ *
+ * @author dbs at 19 Oct 2026 04:20:07
+ * @since 1.2.0
+ * @version 1.0
+ * @version 1.1 injectable time source of the rate limits
+ * @version 1.2 the operation token is given back when the client rate limit rejects the call
+ */
+public class ThrottlingInterceptor implements ClientHttpRequestInterceptor {
+
+  /**
+   * counter of the calls rejected by a rate limit
+   */
+  public static final String RATE_LIMITED = "rateLimited";
+  /**
+   * counter of the calls rejected by a bulkhead
+   */
+  public static final String BULKHEAD_REJECTED = "bulkheadRejected";
+
+  private final Bulkhead bulkhead;
+  private final TokenBucket rateLimit;
+  private final Map<String, Bulkhead> operationBulkheads;
+  private final Map<String, TokenBucket> operationRateLimits;
+  private final Supplier<ClientMetrics> metrics;
+  private final Function<URI, String> operations;
+
+  private ThrottlingInterceptor(Builder builder, Supplier<ClientMetrics> metrics, Function<URI, String> operations) {
+    this.bulkhead = builder.maxConcurrent > 0 ? new Bulkhead(builder.maxConcurrent, builder.maxWaiting, builder.maxWait) : null;
+    this.rateLimit = builder.permitsPerSecond > 0 ? new TokenBucket(builder.permitsPerSecond, builder.burst, builder.ticker) : null;
+    Map<String, Bulkhead> bulkheads = new HashMap<>();
+    builder.operationBulkheads.forEach((operation, limits) -> bulkheads.put(operation, new Bulkhead(limits[0], limits[1], builder.maxWait)));
+    this.operationBulkheads = Collections.unmodifiableMap(bulkheads);
+    Map<String, TokenBucket> rateLimits = new HashMap<>();
+    builder.operationRateLimits.forEach((operation, limits) -> rateLimits.put(operation, new TokenBucket(limits[0], (int) limits[1], builder.ticker)));
+    this.operationRateLimits = Collections.unmodifiableMap(rateLimits);
+    this.metrics = metrics;
+    this.operations = operations;
+  }
+
+  /**
+   * @return a {@link Builder} without any limit
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  @Override
+  public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+    String operation = operations.apply(request.getURI());
+    TokenBucket operationRateLimit = operationRateLimits.get(operation);
+    if (null != operationRateLimit && !operationRateLimit.tryAcquire()) {
+      throw reject(operation, RATE_LIMITED);
+    }
+    if (null != rateLimit && !rateLimit.tryAcquire()) {
+      if (null != operationRateLimit) {
+        operationRateLimit.release();
+      }
+      throw reject(operation, RATE_LIMITED);
+    }
+    Bulkhead operationBulkhead = operationBulkheads.get(operation);
+    if (null != operationBulkhead && !operationBulkhead.tryAcquire()) {
+      throw reject(operation, BULKHEAD_REJECTED);
+    }
+    if (null != bulkhead) {
+      boolean acquired = false;
+      try {
+        acquired = bulkhead.tryAcquire();
+      } finally {
+        if (!acquired && null != operationBulkhead) {
+          operationBulkhead.release();
+        }
+      }
+      if (!acquired) {
+        throw reject(operation, BULKHEAD_REJECTED);
+      }
+    }
+    if (null == bulkhead && null == operationBulkhead) {
+      return execution.execute(request, body);
+    }
+    ClientHttpResponse response;
+    try {
+      response = execution.execute(request, body);
+    } catch (IOException | RuntimeException e) {
+      release(operationBulkhead);
+      throw e;
+    }
+    return new ReleasingResponse(response, () -> release(operationBulkhead));
+  }
+
+  private ThrottledException reject(String operation, String limit) {
+    metrics.get().increment(operation, limit, 1);
+    return new ThrottledException(operation, limit);
+  }
+
+  private void release(Bulkhead operationBulkhead) {
+    if (null != bulkhead) {
+      bulkhead.release();
+    }
+    if (null != operationBulkhead) {
+      operationBulkhead.release();
+    }
+  }
+
+  /**
+   * @return bulkhead of all the calls, null if unlimited
+   */
+  public Bulkhead getBulkhead() {
+    return bulkhead;
+  }
+
+  /**
+   * @return rate limit of all the calls, null if unlimited
+   */
+  public TokenBucket getRateLimit() {
+    return rateLimit;
+  }
+
+  /**
+   * @return bulkheads by operation
+   */
+  public Map<String, Bulkhead> getOperationBulkheads() {
+    return operationBulkheads;
+  }
+
+  /**
+   * @return rate limits by operation
+   */
+  public Map<String, TokenBucket> getOperationRateLimits() {
+    return operationRateLimits;
+  }
+
+  /**
+   * response releasing the bulkhead permits once closed
+   */
+  private static final class ReleasingResponse implements ClientHttpResponse {
+    private final ClientHttpResponse response;
+    private final Runnable release;
+    private boolean closed;
+
+    ReleasingResponse(ClientHttpResponse response, Runnable release) {
+      this.response = response;
+      this.release = release;
+    }
+
+    @Override
+    public InputStream getBody() throws IOException {
+      return response.getBody();
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return response.getHeaders();
+    }
+
+    @Override
+    public HttpStatus getStatusCode() throws IOException {
+      return response.getStatusCode();
+    }
+
+    @Override
+    public int getRawStatusCode() throws IOException {
+      return response.getRawStatusCode();
+    }
+
+    @Override
+    public String getStatusText() throws IOException {
+      return response.getStatusText();
+    }
+
+    @Override
+    public void close() {
+      try {
+        response.close();
+      } finally {
+        if (!closed) {
+          closed = true;
+          release.run();
+        }
+      }
+    }
+  }
+
+  /**
+   * {@link ThrottlingInterceptor} settings, all durations in msec, no limit by default
+   */
+  public static class Builder {
+    int maxConcurrent;
+    int maxWaiting;
+    long maxWait = 1000;
+    double permitsPerSecond;
+    int burst;
+    Map<String, int[]> operationBulkheads = new HashMap<>();
+    Map<String, double[]> operationRateLimits = new HashMap<>();
+    LongSupplier ticker = System::nanoTime;
+
+    Builder() {
+    }
+
+    /**
+     * @param maxConcurrent calls in flight of the client
+     * @param maxWaiting calls waiting for a permit, 0 to reject at once
+     * @return this
+     */
+    public Builder bulkhead(int maxConcurrent, int maxWaiting) {
+      this.maxConcurrent = maxConcurrent;
+      this.maxWaiting = maxWaiting;
+      return this;
+    }
+
+    /**
+     * @param maxWait longest wait for a bulkhead permit, default 1000
+     * @return this
+     */
+    public Builder maxWait(long maxWait) {
+      this.maxWait = maxWait;
+      return this;
+    }
+
+    /**
+     * @param permitsPerSecond sustained calls per second of the client
+     * @param burst calls allowed at once after an idle period
+     * @return this
+     */
+    public Builder rateLimit(double permitsPerSecond, int burst) {
+      this.permitsPerSecond = permitsPerSecond;
+      this.burst = burst;
+      return this;
+    }
+
+    /**
+     * @param operation client operation, ie userGet
+     * @param maxConcurrent calls in flight of the operation
+     * @param maxWaiting calls waiting for a permit, 0 to reject at once
+     * @return this
+     */
+    public Builder operationBulkhead(String operation, int maxConcurrent, int maxWaiting) {
+      operationBulkheads.put(operation, new int[] { maxConcurrent, maxWaiting });
+      return this;
+    }
+
+    /**
+     * @param operation client operation, ie stats
+     * @param permitsPerSecond sustained calls per second of the operation
+     * @param burst calls allowed at once after an idle period
+     * @return this
+     */
+    public Builder operationRateLimit(String operation, double permitsPerSecond, int burst) {
+      operationRateLimits.put(operation, new double[] { permitsPerSecond, burst });
+      return this;
+    }
+
+    /**
+     * @param ticker time source in nanoseconds of the rate limits, default {@link System#nanoTime()}
+     * @return this
+     */
+    public Builder ticker(LongSupplier ticker) {
+      this.ticker = ticker;
+      return this;
+    }
+
+    /**
+     * @param metrics current {@link ClientMetrics}, read on each rejection
+     * @param operations name of the operation of a request URI
+     * @return a new {@link ThrottlingInterceptor}
+     */
+    public ThrottlingInterceptor build(Supplier<ClientMetrics> metrics, Function<URI, String> operations) {
+      if (maxConcurrent < 0 || permitsPerSecond < 0) {
+        throw new IllegalArgumentException(String.format("invalid maxConcurrent %d or rate %s", maxConcurrent, permitsPerSecond));
+      }
+      return new ThrottlingInterceptor(this, metrics, operations);
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/**
+ * TokenBucket
+ */
+package com.dbs.lib.service.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * token bucket rate limiter: refilled continuously at a rate of permits per second up to the burst size,
+ * a call takes one token or is rejected at once, it never waits.
+ *
+ * @author dbs at 19 Oct 2026 04:05:12
+ * @since 1.2.0
+ * @version 1.0
+ * @version 1.1 injectable time source
+ * @version 1.2 add {@link #release()}
+ */
+public class TokenBucket {
+
+  private final double permitsPerSecond;
+  private final int burst;
+  private final double tokensPerNano;
+  private final LongSupplier ticker;
+  private final LongAdder grantedCount = new LongAdder();
+  private final LongAdder rejectedCount = new LongAdder();
+  private double tokens;
+  private long refilled;
+
+  /**
+   * @param permitsPerSecond sustained rate, greater than 0
+   * @param burst maximum number of tokens, the bucket starts full
+   */
+  public TokenBucket(double permitsPerSecond, int burst) {
+    this(permitsPerSecond, burst, System::nanoTime);
+  }
+
+  /**
+   * @param permitsPerSecond sustained rate, greater than 0
+   * @param burst maximum number of tokens, the bucket starts full
+   * @param ticker time source in nanoseconds, ie {@link System#nanoTime()}
+   */
+  public TokenBucket(double permitsPerSecond, int burst, LongSupplier ticker) {
+    if (permitsPerSecond <= 0 || burst < 1) {
+      throw new IllegalArgumentException(String.format("invalid rate %s or burst %d", permitsPerSecond, burst));
+    }
+    this.permitsPerSecond = permitsPerSecond;
+    this.burst = burst;
+    this.tokensPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+    this.tokens = burst;
+    this.ticker = ticker;
+    this.refilled = ticker.getAsLong();
+  }
+
+  /**
+   * @return true if a token was taken, false if the bucket is empty
+   */
+  public boolean tryAcquire() {
+    boolean granted;
+    synchronized (this) {
+      refill();
+      granted = tokens >= 1;
+      if (granted) {
+        tokens--;
+      }
+    }
+    (granted ? grantedCount : rejectedCount).increment();
+    return granted;
+  }
+
+  /**
+   * give back a token taken by {@link #tryAcquire()} for a call finally not made, ie rejected by another limit
+   */
+  public void release() {
+    synchronized (this) {
+      refill();
+      tokens = Math.min(burst, tokens + 1);
+    }
+    grantedCount.decrement();
+  }
+
+  private void refill() {
+    long now = ticker.getAsLong();
+    tokens = Math.min(burst, tokens + (now - refilled) * tokensPerNano);
+    refilled = now;
+  }
+
+  /**
+   * @return snapshot of the limiter state
+   */
+  public Stats getStats() {
+    double available;
+    synchronized (this) {
+      refill();
+      available = tokens;
+    }
+    return new Stats(permitsPerSecond, burst, available, grantedCount.sum(), rejectedCount.sum());
+  }
+
+  @lombok.Value
+  public static class Stats {
+    double permitsPerSecond;
+    int burst;
+    /**
+     * tokens left, a call needs one
+     */
+    double available;
+    long grantedCount;
+    long rejectedCount;
+  }
+}
@@ -0,0 +1 @@
+package com.dbs.lib.service.client;
\ No newline at end of file
@@ -0,0 +1,176 @@
+/**
+ * CsvReader
+ */
+package com.dbs.lib.spreadsheet;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * RFC 4180 CSV rows read one at a time from a {@link Reader}, the input is never held in memory as a whole<br>
+ * quoted fields may contain separators, line breaks and doubled quotes, lines end with CRLF or LF.
+ * <pre>
+ * try (Stream&lt;String[]&gt; rows = CsvReader.stream(reader)) {
+ *   rows.skip(1).forEach(row -&gt; ...);
+ * }
+ * </pre>
+ *
+ * @author dbs at 18 Oct 2026 22:34:50
+ * @since 1.2.0
+ * @version 1.0
+ */
+public class CsvReader implements Iterator<String[]>, Closeable {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final Reader reader;
+  private final char separator;
+  private final char[] buffer = new char[BUFFER_SIZE];
+  private final StringBuilder field = new StringBuilder(64);
+  private int position;
+  private int limit;
+  private String[] next;
+  private boolean eof;
+
+  /**
+   * @param reader CSV source, closed by {@link #close()}
+   */
+  public CsvReader(Reader reader) {
+    this(reader, ',');
+  }
+
+  /**
+   * @param reader CSV source, closed by {@link #close()}
+   * @param separator field separator, ie ',' or ';'
+   */
+  public CsvReader(Reader reader, char separator) {
+    this.reader = reader;
+    this.separator = separator;
+  }
+
+  /**
+   * @param reader CSV source, closed with the {@link Stream}
+   * @return sequential {@link Stream} of rows
+   */
+  public static Stream<String[]> stream(Reader reader) {
+    CsvReader csv = new CsvReader(reader);
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(csv, Spliterator.ORDERED | Spliterator.NONNULL), false)
+        .onClose(() -> {
+          try {
+            csv.close();
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (null == next && !eof) {
+      try {
+        next = readRow();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    return null != next;
+  }
+
+  @Override
+  public String[] next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    String[] row = next;
+    next = null;
+    return row;
+  }
+
+  /**
+   * @return next row, null at end of input
+   * @throws IOException if the reader fails
+   */
+  public String[] readRow() throws IOException {
+    List<String> row = new ArrayList<>();
+    field.setLength(0);
+    boolean quoted = false;
+    boolean any = false;
+    int c;
+    while ((c = read()) >= 0) {
+      any = true;
+      if (quoted) {
+        if (c == '"') {
+          if (peek() == '"') {
+            read();
+            field.append('"');
+          } else {
+            quoted = false;
+          }
+        } else {
+          field.append((char) c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == separator) {
+        row.add(field.toString());
+        field.setLength(0);
+      } else if (c == '\n') {
+        break;
+      } else if (c == '\r') {
+        if (peek() == '\n') {
+          read();
+        }
+        break;
+      } else {
+        field.append((char) c);
+      }
+    }
+    if (c < 0) {
+      eof = true;
+      if (!any) {
+        return null;
+      }
+    }
+    row.add(field.toString());
+    return row.toArray(new String[row.size()]);
+  }
+
+  private int read() throws IOException {
+    if (position == limit && !fill()) {
+      return -1;
+    }
+    return buffer[position++];
+  }
+
+  private int peek() throws IOException {
+    if (position == limit && !fill()) {
+      return -1;
+    }
+    return buffer[position];
+  }
+
+  private boolean fill() throws IOException {
+    int n;
+    do {
+      n = reader.read(buffer, 0, buffer.length);
+    } while (n == 0);
+    position = 0;
+    limit = Math.max(n, 0);
+    return n > 0;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+}
@@ -0,0 +1,138 @@
+/**
+ * AeadServiceTest
+ */
+package com.dbs.lib.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.crypto.AEADBadTagException;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author dbs at 18 Oct 2026 18:40:17
+ * @since 1.2.0
+ * @version 1.0
+ */
+@Tag("AES-GCM")
+public class AeadServiceTest {
+
+  private final AeadService aead = new AeadService(AeadService.generateKey(256));
+
+  /**
+   * Test method for {@link com.dbs.lib.security.AeadService#encrypt(String)}.
+   *
+   * @throws GeneralSecurityException
+   */
+  @Test
+  public void testRoundTrip() throws GeneralSecurityException {
+    String plain = "6282881390158 \u00e9t\u00e9";
+    String encrypted = aead.encrypt(plain);
+    assertNotEquals(encrypted, aead.encrypt(plain), "a new nonce is drawn for each message");
+    assertEquals(plain, aead.decrypt(encrypted));
+    byte[] empty = aead.encrypt(new byte[0]);
+    assertEquals(AeadService.encryptedLength(0), empty.length);
+    assertEquals(0, aead.decrypt(empty).length);
+    assertThrows(AEADBadTagException.class, () -> new AeadService(AeadService.generateKey(128)).decrypt(encrypted));
+    assertThrows(IllegalArgumentException.class, () -> new AeadService(new byte[10]));
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.security.AeadService#decrypt(byte[], byte[])}.
+   *
+   * @throws GeneralSecurityException
+   */
+  @Test
+  public void testTamperAndAad() throws GeneralSecurityException {
+    byte[] plain = "Selamat pagi".getBytes(StandardCharsets.UTF_8);
+    byte[] aad = "row-42".getBytes(StandardCharsets.UTF_8);
+    byte[] encrypted = aead.encrypt(plain, aad);
+    assertArrayEquals(plain, aead.decrypt(encrypted, aad));
+    assertThrows(AEADBadTagException.class, () -> aead.decrypt(encrypted));
+    assertThrows(AEADBadTagException.class, () -> aead.decrypt(encrypted, "row-43".getBytes(StandardCharsets.UTF_8)));
+    encrypted[AeadService.NONCE_LENGTH] ^= 1;
+    assertThrows(AEADBadTagException.class, () -> aead.decrypt(encrypted, aad));
+    assertThrows(GeneralSecurityException.class, () -> aead.decrypt(new byte[5]));
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.security.AeadService#encrypt(ByteBuffer, ByteBuffer, byte[])}.
+   *
+   * @throws GeneralSecurityException
+   */
+  @Test
+  public void testByteBuffer() throws GeneralSecurityException {
+    byte[][] rows = { "first".getBytes(StandardCharsets.UTF_8), "second row".getBytes(StandardCharsets.UTF_8) };
+    ByteBuffer out = ByteBuffer.allocateDirect(AeadService.encryptedLength(rows[0].length) + AeadService.encryptedLength(rows[1].length));
+    for (byte[] row : rows) {
+      assertEquals(AeadService.encryptedLength(row.length), aead.encrypt(ByteBuffer.wrap(row), out, null));
+    }
+    assertFalse(out.hasRemaining());
+    out.flip();
+    ByteBuffer plain = ByteBuffer.allocate(64);
+    for (byte[] row : rows) {
+      ByteBuffer record = out.duplicate();
+      record.limit(record.position() + AeadService.encryptedLength(row.length));
+      out.position(record.limit());
+      int start = plain.position();
+      assertEquals(row.length, aead.decrypt(record, plain, null));
+      byte[] decrypted = new byte[row.length];
+      ((ByteBuffer) plain.duplicate().position(start)).get(decrypted);
+      assertArrayEquals(row, decrypted);
+    }
+    assertThrows(GeneralSecurityException.class, () -> aead.encrypt(ByteBuffer.wrap(rows[1]), ByteBuffer.allocate(10), null));
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.security.AeadService#encryptAll(List)}.
+   *
+   * @throws GeneralSecurityException
+   */
+  @Test
+  public void testBatch() throws GeneralSecurityException {
+    List<byte[]> plains = new ArrayList<>();
+    for (int i = 0; i < 100_000; i++) {
+      plains.add(("628288" + i).getBytes(StandardCharsets.UTF_8));
+    }
+    long start = System.nanoTime();
+    List<byte[]> encrypted = aead.encryptAll(plains);
+    System.out.println(String.format("encryptAll %d rows: %s", plains.size(), Duration.ofNanos(System.nanoTime() - start)));
+    Set<ByteBuffer> nonces = new HashSet<>();
+    for (byte[] e : encrypted) {
+      nonces.add(ByteBuffer.wrap(e, 0, AeadService.NONCE_LENGTH).slice());
+    }
+    assertEquals(plains.size(), nonces.size());
+    start = System.nanoTime();
+    List<byte[]> decrypted = aead.decryptAll(encrypted);
+    System.out.println(String.format("decryptAll %d rows: %s", plains.size(), Duration.ofNanos(System.nanoTime() - start)));
+    for (int i = 0; i < plains.size(); i++) {
+      assertArrayEquals(plains.get(i), decrypted.get(i));
+    }
+    encrypted.get(777)[AeadService.NONCE_LENGTH + 1] ^= 1;
+    assertThrows(AEADBadTagException.class, () -> aead.decryptAll(encrypted));
+
+    List<ByteBuffer> src = new ArrayList<>();
+    List<ByteBuffer> dst = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      src.add(ByteBuffer.wrap(plains.get(i)));
+      dst.add(ByteBuffer.allocate(AeadService.encryptedLength(plains.get(i).length)));
+    }
+    aead.encryptAll(src, dst, ForkJoinPool.commonPool());
+    for (int i = 0; i < dst.size(); i++) {
+      dst.get(i).flip();
+      assertArrayEquals(plains.get(i), aead.decrypt(dst.get(i).array()));
+    }
+  }
+}
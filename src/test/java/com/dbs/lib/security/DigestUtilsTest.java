@@ -4,19 +4,35 @@
 package com.dbs.lib.security;
 
 import static org.junit.jupiter.api.Assertions.*;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.Provider;
 import java.security.Security;
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import javax.crypto.Cipher;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 
 /**
@@ -28,6 +44,8 @@ import org.junit.jupiter.params.provider.MethodSource;
 @Tag("Digest-MD5-SHAx-BLAK2b_X")
 public class DigestUtilsTest {
 
+  private static final int ITERATIONS = 20_000;
+
   public static Collection<Object[]> data() {
     return Arrays.asList(new Object[][] { { "6282881390158|510278280822315|free" }, { "6282881390150|510278280822316|gold" } });
   }
@@ -220,4 +238,257 @@ public class DigestUtilsTest {
     System.out.println(String.format("testBlake2b_512 Duration our: %s\n", Duration.ofNanos(System.nanoTime() - start).toString()));
   }
 
+  /**
+   * Test method for {@link com.dbs.lib.security.DigestUtils#hash(DigestAlgorithm, String)} shared by many threads,
+   * compared with a single {@link MessageDigest} guarded by a global lock.
+   * 
+   * @throws Exception
+   */
+  @ParameterizedTest
+  @ValueSource(ints = { 1, 8, 64 })
+  public void testHashConcurrent(int threads) throws Exception {
+    System.out.println("\n--------------------\n");
+    final String[] inputs = new String[ITERATIONS];
+    final String[] expected = new String[ITERATIONS];
+    for (int i = 0; i < ITERATIONS; i++) {
+      inputs[i] = "628288139" + i;
+      expected[i] = org.apache.commons.codec.digest.DigestUtils.sha256Hex(inputs[i]);
+    }
+    final MessageDigest shared = MessageDigest.getInstance("SHA-256");
+    long locked = runConcurrent(threads, i -> {
+      byte[] result;
+      synchronized (shared) {
+        result = shared.digest(inputs[i].getBytes());
+      }
+      assertEquals(expected[i], org.apache.commons.codec.binary.Hex.encodeHexString(result));
+    });
+    long engine = runConcurrent(threads, i -> {
+      byte[] result = DigestAlgorithm.SHA256.getMessageDigest().digest(inputs[i].getBytes());
+      assertEquals(expected[i], org.apache.commons.codec.binary.Hex.encodeHexString(result));
+    });
+    runConcurrent(threads, i -> assertEquals(expected[i], DigestUtils.sha256(inputs[i])));
+    System.out.println(String.format("testHashConcurrent %d threads, %d hashes: global lock %s (%.0f ops/s), per thread digest %s (%.0f ops/s)%n",
+        threads, threads * ITERATIONS, Duration.ofNanos(locked), opsPerSecond(threads, locked), Duration.ofNanos(engine), opsPerSecond(threads, engine)));
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.security.DigestAlgorithm#getMessageDigest()}.
+   * 
+   * @throws Exception
+   */
+  @Test
+  public void testMessageDigestPerThread() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Callable<MessageDigest> task = () -> DigestAlgorithm.SHA256.getMessageDigest();
+      MessageDigest first = executor.submit(task).get();
+      MessageDigest current = DigestAlgorithm.SHA256.getMessageDigest();
+      assertNotSame(first, current);
+      assertSame(current, DigestAlgorithm.SHA256.getMessageDigest());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.security.DigestAlgorithm#acquire()} on a platform thread, the pool is only used by virtual threads.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testAcquire() throws Exception {
+    assertFalse(VirtualThreads.isVirtual());
+    MessageDigest md = DigestAlgorithm.SHA256.acquire();
+    assertSame(DigestAlgorithm.SHA256.getMessageDigest(), md);
+    DigestAlgorithm.SHA256.release(md);
+    assertSame(md, DigestAlgorithm.SHA256.acquire());
+    byte[] buffer = DigestUtils.acquireBuffer();
+    assertEquals(DigestUtils.STREAM_BUFFER_SIZE, buffer.length);
+    DigestUtils.releaseBuffer(buffer);
+    assertSame(buffer, DigestUtils.acquireBuffer());
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.security.DigestUtils#aes128ecb(String, String)} shared by many threads.
+   * 
+   * @throws Exception
+   */
+  @Test
+  public void testAesConcurrent() throws Exception {
+    String input = "6282881390158|51";
+    String key = "0123456789abcdef";
+    String expected = DigestUtils.aes128ecb(input, key);
+    runConcurrent(16, i -> assertEquals(expected, DigestUtils.aes128ecb(input, key)));
+    CipherPool.Stats stats = DigestUtils.getCipherPool().getStats(DigestUtils.AES_128_ECB);
+    assertNotNull(stats);
+    assertEquals(0, stats.getLeased());
+    assertTrue(stats.getCreated() <= stats.getMaxSize());
+    assertEquals(stats.getCreated(), stats.getIdle());
+    System.out.println(String.format("testAesConcurrent %s%n", stats));
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.security.HexUtils}.
+   * 
+   * @throws NoSuchAlgorithmException
+   */
+  @ParameterizedTest
+  @MethodSource("data")
+  public void testHex(String toDigest) throws NoSuchAlgorithmException {
+    byte[] digest = DigestUtils.digest(DigestAlgorithm.SHA512, toDigest);
+    String apache = org.apache.commons.codec.binary.Hex.encodeHexString(digest);
+    assertEquals(apache, HexUtils.encode(digest));
+    assertEquals(apache, new String(DigestUtils.hashAscii(DigestAlgorithm.SHA512, toDigest), java.nio.charset.StandardCharsets.US_ASCII));
+    assertEquals("#" + apache, DigestUtils.appendHash(DigestAlgorithm.SHA512, toDigest, new StringBuilder("#")).toString());
+    assertEquals("", HexUtils.encode(new byte[0]));
+    assertEquals("00ff7f80", HexUtils.encode(new byte[] { 0, -1, 127, -128 }));
+  }
+
+  /**
+   * Test method for the streaming variants of {@link com.dbs.lib.security.DigestUtils#digest(DigestAlgorithm, java.io.InputStream)}.
+   * 
+   * @throws Exception
+   */
+  @ParameterizedTest
+  @EnumSource(DigestAlgorithm.class)
+  public void testDigestStreaming(DigestAlgorithm algorithm) throws Exception {
+    byte[] content = new byte[(int) DigestUtils.MAPPED_THRESHOLD + 12345];
+    new Random(42).nextBytes(content);
+    String expected = HexUtils.encode(algorithm.newMessageDigest().digest(content));
+    Path file = Files.createTempFile("digest", ".bin");
+    try {
+      Files.write(file, content);
+      assertEquals(expected, DigestUtils.hash(algorithm, new ByteArrayInputStream(content)));
+      assertEquals(expected, DigestUtils.hash(algorithm, Channels.newChannel(new ByteArrayInputStream(content))));
+      assertEquals(expected, DigestUtils.hash(algorithm, ByteBuffer.wrap(content)));
+      ByteBuffer direct = ByteBuffer.allocateDirect(content.length);
+      direct.put(content).flip();
+      assertEquals(expected, DigestUtils.hash(algorithm, direct));
+      assertEquals(expected, DigestUtils.hash(algorithm, file));
+      Files.write(file, Arrays.copyOf(content, 100));
+      assertEquals(HexUtils.encode(algorithm.newMessageDigest().digest(Arrays.copyOf(content, 100))), DigestUtils.hash(algorithm, file));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.security.DigestUtils#hashAll(DigestAlgorithm, Collection)}.
+   * 
+   * @throws NoSuchAlgorithmException
+   */
+  @Test
+  public void testHashAll() throws NoSuchAlgorithmException {
+    List<String> inputs = new ArrayList<>(ITERATIONS);
+    for (int i = 0; i < ITERATIONS; i++) {
+      inputs.add("628288139" + i);
+    }
+    long start = System.nanoTime();
+    List<String> hashes = DigestUtils.hashAll(DigestAlgorithm.SHA256, inputs);
+    System.out.println(String.format("testHashAll Duration %d hashes: %s%n", ITERATIONS, Duration.ofNanos(System.nanoTime() - start)));
+    assertEquals(inputs.size(), hashes.size());
+    for (int i = 0; i < ITERATIONS; i++) {
+      assertEquals(org.apache.commons.codec.digest.DigestUtils.sha256Hex(inputs.get(i)), hashes.get(i));
+    }
+    assertEquals(hashes, DigestUtils.hashAll(DigestAlgorithm.SHA256, inputs.stream()).collect(Collectors.toList()));
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.security.DigestUtils#hash(DigestAlgorithm, String)} with non ASCII input,
+   * longer than the encoder buffer.
+   * 
+   * @throws NoSuchAlgorithmException
+   */
+  @Test
+  public void testHashUtf8() throws NoSuchAlgorithmException {
+    StringBuilder sb = new StringBuilder("Selamat pagi, \u00e9t\u00e9 \u65e5\u672c \ud83d\ude00 ");
+    while (sb.length() < 3 * Utf8Encoder.BUFFER_SIZE) {
+      sb.append("\u00e9\u65e5\ud83d\ude00").append(sb.length());
+    }
+    for (String input : new String[] { sb.toString(), "\u00e9", "broken \ud83d surrogate" }) {
+      byte[] utf8 = input.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+      assertEquals(org.apache.commons.codec.digest.DigestUtils.sha256Hex(utf8), DigestUtils.hash(DigestAlgorithm.SHA256, input));
+      assertArrayEquals(org.apache.commons.codec.digest.DigestUtils.sha1(utf8), DigestUtils.digest(DigestAlgorithm.SHA1, input));
+    }
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.security.DigestUtils#warmUp(DigestAlgorithm...)} and
+   * {@link com.dbs.lib.security.CipherPool#warmUp(String, int)}.
+   * 
+   * @throws Exception
+   */
+  @Test
+  public void testWarmUp() throws Exception {
+    DigestUtils.warmUp(DigestAlgorithm.SHA256, DigestAlgorithm.BLAKE2B256);
+    assertTrue(DigestAlgorithm.SHA256.isInitialized());
+    assertTrue(DigestAlgorithm.BLAKE2B256.isInitialized());
+    assertNotNull(java.security.Security.getProvider("BC"));
+    CipherPool pool = new CipherPool(2, 100, 8);
+    pool.warmUp(DigestUtils.AES_128_CTR, 4);
+    assertEquals(2, pool.getStats(DigestUtils.AES_128_CTR).getCreated());
+    assertEquals(2, pool.getStats(DigestUtils.AES_128_CTR).getIdle());
+    assertEquals(0, pool.getStats(DigestUtils.AES_128_CTR).getLeased());
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.security.CipherPool#release(String, javax.crypto.Cipher)} and
+   * {@link com.dbs.lib.security.CipherPool#keySpec(String, String)}.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testCipherPoolRelease() throws Exception {
+    CipherPool pool = new CipherPool(2, 100, 8);
+    Cipher first = pool.borrow(DigestUtils.AES_128_ECB);
+    pool.release(DigestUtils.AES_128_ECB, first);
+    pool.release(DigestUtils.AES_128_ECB, first);
+    pool.release(DigestUtils.AES_128_ECB, Cipher.getInstance(DigestUtils.AES_128_ECB));
+    assertEquals(1, pool.getStats(DigestUtils.AES_128_ECB).getIdle());
+    assertEquals(0, pool.getStats(DigestUtils.AES_128_ECB).getLeased());
+    Cipher a = pool.borrow(DigestUtils.AES_128_ECB);
+    Cipher b = pool.borrow(DigestUtils.AES_128_ECB);
+    assertNotSame(a, b);
+    assertThrows(java.security.GeneralSecurityException.class, () -> pool.borrow(DigestUtils.AES_128_ECB));
+    pool.release(DigestUtils.AES_128_ECB, a);
+    pool.release(DigestUtils.AES_128_ECB, b);
+    assertEquals(2, pool.getStats(DigestUtils.AES_128_ECB).getIdle());
+
+    String key = "0123456789abcdef";
+    assertSame(pool.keySpec(key, "AES"), pool.keySpec(key, "AES"));
+    assertNotSame(pool.keySpec(key, "AES"), pool.keySpec(key, "HmacSHA256"));
+    assertEquals(2, pool.getKeyCount());
+  }
+
+  private static double opsPerSecond(int threads, long nanos) {
+    return threads * (double) ITERATIONS / (nanos / 1_000_000_000d);
+  }
+
+  private static long runConcurrent(int threads, HashTask task) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Callable<Void>> tasks = new ArrayList<>(threads);
+      for (int t = 0; t < threads; t++) {
+        tasks.add(() -> {
+          for (int i = 0; i < ITERATIONS; i++) {
+            task.run(i);
+          }
+          return null;
+        });
+      }
+      long start = System.nanoTime();
+      for (Future<Void> future : executor.invokeAll(tasks)) {
+        future.get();
+      }
+      return System.nanoTime() - start;
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+  @FunctionalInterface
+  private interface HashTask {
+    void run(int i) throws Exception;
+  }
 }
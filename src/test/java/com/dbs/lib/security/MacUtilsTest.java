@@ -0,0 +1,112 @@
+/**
+ * MacUtilsTest
+ */
+package com.dbs.lib.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+
+import org.apache.commons.codec.digest.HmacAlgorithms;
+import org.apache.commons.codec.digest.HmacUtils;
+import org.bouncycastle.crypto.digests.Blake2bDigest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * 
+ * @author dbs at 18 Oct 2026 16:12:54
+ * @since 1.2.0
+ * @version 1.0
+ */
+@Tag("HMAC-BLAKE2b")
+public class MacUtilsTest {
+
+  private static final byte[] KEY = "webhook-secret-0123456789".getBytes(StandardCharsets.UTF_8);
+  private static final String PAYLOAD = "{\"msisdn\":\"6282881390158\",\"plan\":\"gold\",\"note\":\"\u00e9t\u00e9\"}";
+
+  /**
+   * Test method for {@link com.dbs.lib.security.MacUtils#macHex(MacAlgorithm, byte[], CharSequence)}.
+   * 
+   * @throws GeneralSecurityException
+   */
+  @Test
+  public void testHmac() throws GeneralSecurityException {
+    assertEquals(new HmacUtils(HmacAlgorithms.HMAC_SHA_256, KEY).hmacHex(PAYLOAD), MacUtils.macHex(MacAlgorithm.HMAC_SHA256, KEY, PAYLOAD));
+    assertEquals(new HmacUtils(HmacAlgorithms.HMAC_SHA_512, KEY).hmacHex(PAYLOAD), MacUtils.macHex(MacAlgorithm.HMAC_SHA512, KEY, PAYLOAD));
+    byte[] other = "another-secret".getBytes(StandardCharsets.UTF_8);
+    assertEquals(new HmacUtils(HmacAlgorithms.HMAC_SHA_256, other).hmacHex(PAYLOAD), MacUtils.macHex(MacAlgorithm.HMAC_SHA256, other, PAYLOAD));
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.security.MacUtils#mac(MacAlgorithm, byte[], byte[])} in BLAKE2b keyed mode.
+   * 
+   * @throws GeneralSecurityException
+   */
+  @Test
+  public void testBlake2b() throws GeneralSecurityException {
+    byte[] input = PAYLOAD.getBytes(StandardCharsets.UTF_8);
+    Blake2bDigest digest = new Blake2bDigest(KEY, 32, null, null);
+    digest.update(input, 0, input.length);
+    byte[] expected = new byte[32];
+    digest.doFinal(expected, 0);
+    assertArrayEquals(expected, MacUtils.mac(MacAlgorithm.BLAKE2B256, KEY, input));
+    assertArrayEquals(expected, MacUtils.mac(MacAlgorithm.BLAKE2B256, KEY, PAYLOAD));
+    assertEquals(64, MacUtils.mac(MacAlgorithm.BLAKE2B512, KEY, input).length);
+    assertThrows(GeneralSecurityException.class, () -> MacUtils.mac(MacAlgorithm.BLAKE2B256, new byte[65], input));
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.security.MacUtils#mac(MacAlgorithm, byte[], java.io.InputStream)}.
+   * 
+   * @throws Exception
+   */
+  @ParameterizedTest
+  @EnumSource(MacAlgorithm.class)
+  public void testStreamAndVerify(MacAlgorithm algorithm) throws Exception {
+    byte[] input = PAYLOAD.getBytes(StandardCharsets.UTF_8);
+    byte[] expected = MacUtils.mac(algorithm, KEY, input);
+    assertEquals(algorithm.getLength(), expected.length);
+    assertArrayEquals(expected, MacUtils.mac(algorithm, KEY, new ByteArrayInputStream(input)));
+    assertTrue(MacUtils.verify(algorithm, KEY, PAYLOAD, expected));
+    assertTrue(MacUtils.verifyHex(algorithm, KEY, PAYLOAD, HexUtils.encode(expected).toUpperCase()));
+    assertFalse(MacUtils.verifyHex(algorithm, KEY, PAYLOAD + " ", HexUtils.encode(expected)));
+    assertFalse(MacUtils.verify(expected, null));
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.security.MacUtils#mac(MacAlgorithm, byte[], CharSequence)} failing in the middle of the input.
+   * 
+   * @throws GeneralSecurityException
+   */
+  @ParameterizedTest
+  @EnumSource(MacAlgorithm.class)
+  public void testResetOnFailure(MacAlgorithm algorithm) throws GeneralSecurityException {
+    byte[] expected = MacUtils.mac(algorithm, KEY, PAYLOAD);
+    CharSequence failing = new CharSequence() {
+      @Override
+      public int length() {
+        return 4096;
+      }
+
+      @Override
+      public char charAt(int index) {
+        if (index >= 3000) {
+          throw new IllegalStateException("input changed");
+        }
+        return 'a';
+      }
+
+      @Override
+      public CharSequence subSequence(int start, int end) {
+        throw new UnsupportedOperationException();
+      }
+    };
+    assertThrows(Throwable.class, () -> MacUtils.mac(algorithm, KEY, failing), "wrapped in CoderMalfunctionError by the encoder");
+    assertArrayEquals(expected, MacUtils.mac(algorithm, KEY, PAYLOAD), "partial input discarded");
+  }
+}
@@ -0,0 +1,919 @@
+/**
+ * AbstractClientTest
+ */
+package com.dbs.lib.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.pool.PoolStats;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.dbs.lib.Utils;
+import com.dbs.lib.dto.SimpleResponse;
+import com.dbs.lib.dto.UserDto;
+import com.dbs.lib.dto.enumeration.ErrorCode;
+import com.dbs.lib.service.client.Bulkhead;
+import com.dbs.lib.service.client.CircuitBreaker;
+import com.dbs.lib.service.client.CodecRegistry;
+import com.dbs.lib.service.client.CompressionInterceptor;
+import com.dbs.lib.service.client.LoadBalancer;
+import com.dbs.lib.service.client.MetricsInterceptor;
+import com.dbs.lib.service.client.PooledRequestFactory;
+import com.dbs.lib.service.client.ResilienceInterceptor;
+import com.dbs.lib.service.client.ResponseCache;
+import com.dbs.lib.service.client.SimpleClientMetrics;
+import com.dbs.lib.service.client.SingleFlight;
+import com.dbs.lib.service.client.ThrottlingInterceptor;
+import com.dbs.lib.service.client.TokenBucket;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ *
+ * @author dbs at 18 Oct 2026 20:52:13
+ * @since 1.2.0
+ * @version 1.0
+ */
+@Tag("client")
+public class AbstractClientTest {
+
+  static SupportApiStub stub;
+  static AbstractClient client;
+
+  @BeforeAll
+  public static void setUp() throws Exception {
+    stub = new SupportApiStub();
+    client = stub.configure(new AbstractClient(new RestTemplate()));
+  }
+
+  @AfterAll
+  public static void tearDown() {
+    stub.close();
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.service.AbstractClient#userGet(String)}.
+   */
+  @Test
+  public void testCalls() {
+    SimpleResponse<UserDto> resp = client.userGet("john");
+    assertEquals(ErrorCode.success, resp.getErrorId());
+    assertEquals("john", resp.getData().getLogin());
+    assertEquals("jane", client.userCreate(new UserDto("jane")).getData().getLogin());
+    assertEquals("from=2026-01-01", client.stats(LocalDate.of(2026, 1, 1), null, null).getMessage());
+
+    AbstractClient legacy = new AbstractClient(null, new RestTemplate(), "http", "127.0.0.1", stub.getPort(), 0, null, null, null,
+        client.getHeaders(), client.getHeadersPlain(), client.getPathPing(), client.getPathUserCreate(), client.getPathUserUpdate(),
+        client.getPathUserGet(), client.getPathStats(), client.getPathAuditCsvAll(), null);
+    assertEquals("legacy", legacy.userGet("legacy").getData().getLogin(), "metrics default to none");
+    assertNotNull(legacy.getPathUserCreateBatch());
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.service.AbstractClient#userGetAsync(String)}.
+   */
+  @Test
+  public void testAsync() {
+    assertThrows(IllegalArgumentException.class, () -> client.userGetAsync(null));
+    stub.delayMillis = 50;
+    try {
+      long start = System.nanoTime();
+      List<CompletableFuture<SimpleResponse<UserDto>>> futures = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        futures.add(client.userGetAsync("user" + i));
+      }
+      CompletableFuture<SimpleResponse<String>> stats = client.statsAsync(null, LocalDate.of(2026, 1, 31));
+      CompletableFuture<SimpleResponse<String>> audit = client.auditCsvAsync(LocalDate.of(2026, 1, 1), null);
+      List<SimpleResponse<UserDto>> all = Utils.sequence(futures).join();
+      System.out.println(String.format("100 async calls of 50 ms on %s: %s", AbstractClient.defaultAsyncExecutor().getClass().getSimpleName(),
+          Duration.ofNanos(System.nanoTime() - start)));
+      for (int i = 0; i < all.size(); i++) {
+        assertEquals("user" + i, all.get(i).getData().getLogin());
+      }
+      assertEquals("to=2026-01-31", stats.join().getMessage());
+      assertEquals("from=2026-01-01", audit.join().getMessage());
+      assertEquals("jane", client.userUpdateAsync(new UserDto("jane")).join().getData().getLogin());
+    } finally {
+      stub.delayMillis = 0;
+    }
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.service.AbstractClient#buildUri(String, MultiValueMap)}.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testBuildUri() throws Exception {
+    AbstractClient c = new AbstractClient(new RestTemplate());
+    c.setParams("https", "support.example.co.id", 8443, null);
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.add("login", "j\u00f6hn doe+1@x.id&admin=true");
+    params.add("from", "2026-01-01");
+    params.add("from", "a/b?c=d#e");
+    params.add("flag", null);
+    params.put("empty", new ArrayList<>());
+    for (String path : new String[] { "/api/support/user/get", "/api/support/r\u00e9sum\u00e9 x", "/" }) {
+      for (MultiValueMap<String, String> p : Arrays.asList(params, null, new LinkedMultiValueMap<String, String>())) {
+        assertEquals(legacyUri(c, path, p), c.buildUri(path, p));
+        assertEquals(legacyUri(c, path, p), c.buildUri(path, p), "second call served from the cache");
+      }
+    }
+    assertEquals(URI.create("https://support.example.co.id:8443/api/user/42/j%20d"), c.buildUri("/api/user/{id}/{name}", null, 42, "j d"));
+    c.setPort(9443);
+    assertEquals(URI.create("https://support.example.co.id:9443/api/support/ping"), c.buildUri("/api/support/ping"));
+    c.setHost("10.0.0.2");
+    c.setScheme("http");
+    assertEquals(URI.create("http://10.0.0.2:9443/api/support/ping"), c.buildUri("/api/support/ping"));
+    c.setParams(null, null, 80, null);
+    assertEquals("http://10.0.0.2:80/", c.getRootUri());
+    c.port = 7443;
+    c.host = "10.0.0.3";
+    assertEquals(URI.create("http://10.0.0.3:7443/api/support/ping"), c.buildUri("/api/support/ping"), "fields assigned without setter");
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.service.AbstractClient#pooling()}.
+   */
+  @Test
+  public void testPooling() throws Exception {
+    PooledRequestFactory factory = AbstractClient.pooling().maxTotal(50).maxPerRoute(4).readTimeout(2000).build();
+    try {
+      AbstractClient pooled = stub.configure(new AbstractClient(new RestTemplate(factory)));
+      long start = System.nanoTime();
+      for (int i = 0; i < 200; i++) {
+        assertEquals("user" + i, pooled.userGet("user" + i).getData().getLogin());
+      }
+      System.out.println(String.format("200 calls on a pooled connection: %s", Duration.ofNanos(System.nanoTime() - start)));
+      PoolStats stats = factory.getStats();
+      assertEquals(0, stats.getLeased());
+      assertEquals(1, stats.getAvailable(), "a single connection kept alive and reused");
+      assertEquals(50, stats.getMax());
+      Utils.sequence(Arrays.asList(pooled.userGetAsync("a"), pooled.userGetAsync("b"), pooled.userGetAsync("c"), pooled.userGetAsync("d"),
+          pooled.userGetAsync("e"), pooled.userGetAsync("f"))).join();
+      assertTrue(factory.getStats().getAvailable() <= 4, factory.getStats().toString());
+      assertEquals(Collections.singleton("http://127.0.0.1:" + stub.getPort()), factory.getRouteStats().keySet());
+    } finally {
+      factory.destroy();
+    }
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.service.AbstractClient#auditCsv(LocalDate, LocalDate, java.util.function.Consumer)}.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testAuditCsvStreaming() throws Exception {
+    stub.csvRows = 200_000;
+    try {
+      long start = System.nanoTime();
+      long[] checked = { 0 };
+      SimpleResponse<Long> resp = client.auditCsv(null, null, row -> {
+        if (checked[0]++ > 0) {
+          assertEquals(4, row.length);
+          assertEquals("said \"hi\"\nthen left", row[2]);
+        }
+      });
+      System.out.println(String.format("audit CSV of %d rows streamed: %s", stub.csvRows, Duration.ofNanos(System.nanoTime() - start)));
+      assertEquals(ErrorCode.success, resp.getErrorId());
+      assertEquals(stub.csvRows + 1, resp.getData().longValue());
+
+      SimpleResponse<String[]> last = client.auditCsvStream(null, null, rows -> rows.reduce((a, b) -> b).orElse(null));
+      assertArrayEquals(new String[] { "200000", "Doe, John 200000", "said \"hi\"\nthen left", "6281280200000" }, last.getData());
+
+      Path file = Files.createTempFile("audit", ".csv");
+      try {
+        SimpleResponse<Long> written = client.auditCsv(LocalDate.of(2026, 1, 1), null, file);
+        assertEquals(Files.size(file), written.getData().longValue());
+        assertTrue(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).endsWith(SupportApiStub.csvRow(stub.csvRows)));
+      } finally {
+        Files.delete(file);
+      }
+    } finally {
+      stub.csvRows = 0;
+    }
+    List<String[]> rows = new ArrayList<>();
+    assertEquals(2L, client.auditCsv(null, null, rows::add).getData().longValue(), "JSON answer of a server without CSV support");
+    assertArrayEquals(new String[] { "1", "Doe, John" }, rows.get(1));
+    stub.failures.put("/api/support/csvAll", 500);
+    try {
+      assertEquals(ErrorCode.internalError, client.auditCsv(null, null, rows::add).getErrorId());
+    } finally {
+      stub.failures.clear();
+    }
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.service.AbstractClient#enableUserCache(long, Duration)}.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testUserCache() throws Exception {
+    AbstractClient cached = stub.configure(new AbstractClient(new RestTemplate()));
+    AtomicLong now = new AtomicLong();
+    ResponseCache<String, SimpleResponse<UserDto>> cache = cached.enableUserCache(new ResponseCache<>(2, Duration.ofMillis(200), now::get));
+    String path = "/api/support/user/get";
+    int hits = stub.hits(path);
+    long start = System.nanoTime();
+    for (int i = 0; i < 1000; i++) {
+      assertEquals("cache1", cached.userGet("cache1").getData().getLogin());
+    }
+    System.out.println(String.format("1000 cached userGet: %s", Duration.ofNanos(System.nanoTime() - start)));
+    assertEquals(hits + 1, stub.hits(path));
+    assertEquals(999, cache.getStats().getHitCount());
+
+    now.addAndGet(Duration.ofMillis(250).toNanos());
+    assertEquals("cache1", cached.userGet("cache1").getData().getLogin());
+    assertEquals(hits + 2, stub.hits(path), "stale entry revalidated");
+    assertEquals(1, cache.getStats().getRevalidationCount());
+    cached.userGet("cache1");
+    assertEquals(hits + 2, stub.hits(path), "fresh again after 304");
+
+    cached.userUpdate(new UserDto("cache1"));
+    cached.userGet("cache1");
+    assertEquals(hits + 3, stub.hits(path), "invalidated by update");
+    assertEquals(1, cache.getStats().getRevalidationCount());
+
+    cached.userGet("cache2");
+    cached.userGet("cache3");
+    cached.userGet("cache4");
+    ResponseCache.Stats stats = cache.getStats();
+    assertEquals(2, stats.getSize());
+    assertTrue(stats.getEvictionCount() >= 1, stats.toString());
+    assertTrue(stats.getHitRate() > 0.9, stats.toString());
+
+    stub.failures.put(path, 500);
+    try {
+      assertEquals(ErrorCode.internalError, cached.userGet("cache5").getErrorId());
+      assertNull(cache.get("cache5"), "errors are not cached");
+    } finally {
+      stub.failures.clear();
+    }
+
+    long generation = cache.generation("race");
+    SimpleResponse<UserDto> read = cached.userGet("race");
+    cached.userUpdate(new UserDto("race"));
+    assertFalse(cache.put("race", read, null, generation), "invalidated while the read was in flight");
+    assertNull(cache.get("race"));
+    assertTrue(cache.put("race", read, null, cache.generation("race")));
+    assertSame(read, cache.get("race").getValue());
+    assertThrows(IllegalArgumentException.class, () -> new ResponseCache<String, String>(0, Duration.ZERO));
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.service.AbstractClient#enableCoalescing()}.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testCoalescing() throws Exception {
+    AbstractClient coalesced = stub.configure(new AbstractClient(new RestTemplate()));
+    SingleFlight<String, SimpleResponse<?>> flight = coalesced.enableCoalescing();
+    String path = "/api/support/user/get";
+    int hits = stub.hits(path);
+    int statsHits = stub.hits("/api/support/stats");
+    int threads = 32;
+    ExecutorService executor = Executors.newFixedThreadPool(threads * 2);
+    stub.delayMillis = 300;
+    try {
+      long start = System.nanoTime();
+      List<Future<SimpleResponse<UserDto>>> users = new ArrayList<>();
+      List<Future<SimpleResponse<String>>> stats = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        users.add(executor.submit(() -> coalesced.userGet("spike")));
+        stats.add(executor.submit(() -> coalesced.stats(LocalDate.of(2026, 1, 1), null, null)));
+      }
+      SimpleResponse<UserDto> first = users.get(0).get();
+      for (Future<SimpleResponse<UserDto>> user : users) {
+        assertSame(first, user.get());
+      }
+      for (Future<SimpleResponse<String>> stat : stats) {
+        assertEquals("from=2026-01-01", stat.get().getMessage());
+      }
+      System.out.println(String.format("%d concurrent identical userGet and stats of 300 ms: %s, %s", threads,
+          Duration.ofNanos(System.nanoTime() - start), flight.getStats()));
+    } finally {
+      stub.delayMillis = 0;
+      executor.shutdown();
+    }
+    SingleFlight.Stats stats = flight.getStats();
+    assertEquals(threads * 2, stats.getCallCount());
+    assertEquals(stats.getCallCount(), stats.getExecutionCount() + stats.getCollapsedCount());
+    assertEquals(stats.getExecutionCount(), stub.hits(path) - hits + stub.hits("/api/support/stats") - statsHits);
+    assertTrue(stats.getCollapsedCount() > threads, stats.toString());
+    assertEquals(0, stats.getInFlight());
+
+    int before = stub.hits(path);
+    coalesced.userGet("spike");
+    coalesced.userGet("spike");
+    assertEquals(before + 2, stub.hits(path), "sequential calls are not coalesced");
+    assertEquals(stats.getExecutionCount() + 2, flight.getStats().getExecutionCount());
+
+    // update then get while a slow read started before the update is in flight: the get must not join it
+    ExecutorService slow = Executors.newSingleThreadExecutor();
+    stub.delayMillis = 1000;
+    try {
+      before = stub.hits(path);
+      Future<SimpleResponse<UserDto>> stale = slow.submit(() -> coalesced.userGet("john"));
+      while (stub.hits(path) == before) {
+        Thread.sleep(5);
+      }
+      Thread.sleep(100);
+      stub.delayMillis = 0;
+      coalesced.userUpdate(new UserDto("john"));
+      assertEquals(ErrorCode.success, coalesced.userGet("john").getErrorId());
+      assertFalse(stale.isDone(), "the get after the update made its own call");
+      assertEquals(before + 2, stub.hits(path));
+      assertNotNull(stale.get());
+    } finally {
+      stub.delayMillis = 0;
+      slow.shutdown();
+    }
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.service.AbstractClient#userCreateBatch(List, int, int)}.
+   */
+  @Test
+  public void testUserBatch() {
+    List<UserDto> users = new ArrayList<>();
+    for (int i = 0; i < 1050; i++) {
+      users.add(new UserDto((i % 100 == 7 ? "bad" : "batch") + i));
+    }
+    int hits = stub.hits("/api/support/user/createBatch");
+    stub.delayMillis = 20;
+    stub.maxActive.set(0);
+    long start = System.nanoTime();
+    SimpleResponse<List<SimpleResponse<UserDto>>> resp;
+    try {
+      resp = client.userCreateBatch(users, 100, 3);
+    } finally {
+      stub.delayMillis = 0;
+    }
+    System.out.println(String.format("batch of %d users by 100, 3 in flight: %s", users.size(), Duration.ofNanos(System.nanoTime() - start)));
+    assertEquals(hits + 11, stub.hits("/api/support/user/createBatch"));
+    assertTrue(stub.maxActive.get() <= 3, "in flight " + stub.maxActive.get());
+    assertEquals(ErrorCode.error, resp.getErrorId());
+    assertEquals(users.size(), resp.getData().size());
+    assertEquals(11L, resp.getProperty("failed"));
+    for (int i = 0; i < users.size(); i++) {
+      SimpleResponse<UserDto> item = resp.getData().get(i);
+      assertEquals(users.get(i).getLogin(), item.getData().getLogin());
+      assertEquals(i % 100 == 7 ? ErrorCode.format : ErrorCode.success, item.getErrorId());
+    }
+
+    stub.failures.put("/api/support/user/updateBatch", 500);
+    try {
+      resp = client.userUpdateBatch(users.subList(0, 10), 4, 2);
+    } finally {
+      stub.failures.clear();
+    }
+    assertEquals(10L, resp.getProperty("failed"));
+    assertEquals(ErrorCode.internalError, resp.getData().get(9).getErrorId());
+
+    AbstractClient throttled = stub.configure(new AbstractClient(new RestTemplate()));
+    throttled.enableThrottling(AbstractClient.throttling().rateLimit(0.001, 1));
+    resp = throttled.userUpdateBatch(users.subList(0, 10), 5, 1);
+    assertEquals(5L, resp.getProperty("failed"));
+    assertEquals(5L, resp.getData().stream().filter(r -> ErrorCode.tooManyRequests == r.getErrorId()).count(), "chunk failure mapped");
+    assertEquals(ErrorCode.success, client.userUpdateBatch(users.subList(0, 7)).getErrorId());
+    assertEquals(0, client.userUpdateBatch(new ArrayList<>()).getData().size());
+    assertThrows(IllegalArgumentException.class, () -> client.userCreateBatch(users, 0, 1));
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.service.AbstractClient#enableResilience(ResilienceInterceptor)}.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testResilience() throws Exception {
+    AbstractClient resilient = stub.configure(new AbstractClient(new RestTemplate()));
+    List<String> events = Collections.synchronizedList(new ArrayList<>());
+    AtomicLong now = new AtomicLong();
+    ResilienceInterceptor interceptor = resilient.enableResilience(AbstractClient.resilience().initialBackoff(10).maxBackoff(40)
+        .failureThreshold(3).openDuration(300).ticker(now::get).listener((name, from, to) -> events.add(from + ">" + to)).build());
+    String get = "/api/support/user/get";
+    String create = "/api/support/user/create";
+    String stats = "/api/support/stats";
+    int getHits = stub.hits(get);
+    try {
+      stub.failures.put(get, 503);
+      stub.failuresLeft.put(get, new AtomicInteger(2));
+      assertEquals("retried", resilient.userGet("retried").getData().getLogin());
+      assertEquals(getHits + 3, stub.hits(get), "2 transient failures retried");
+      assertEquals(2, interceptor.getStats().getRetryCount());
+
+      int createHits = stub.hits(create);
+      stub.failures.put(create, 503);
+      assertEquals(ErrorCode.internalError, resilient.userCreate(new UserDto("once")).getErrorId());
+      assertEquals(createHits + 1, stub.hits(create), "POST is not retried");
+
+      int statsHits = stub.hits(stats);
+      stub.failures.put(stats, 503);
+      assertEquals(ErrorCode.unavailable, resilient.stats(null, null, null).getErrorId(), "circuit opened by the 3rd consecutive failure");
+      assertEquals(statsHits + 2, stub.hits(stats));
+      CircuitBreaker breaker = interceptor.getBreakers().get("http://127.0.0.1:" + stub.getPort());
+      assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+      getHits = stub.hits(get);
+      long start = System.nanoTime();
+      assertEquals(ErrorCode.unavailable, resilient.userGet("fast").getErrorId());
+      System.out.println(String.format("call rejected by open circuit: %s", Duration.ofNanos(System.nanoTime() - start)));
+      assertEquals(getHits, stub.hits(get), "no call while open");
+    } finally {
+      stub.failures.clear();
+      stub.failuresLeft.clear();
+    }
+    assertEquals(ErrorCode.unavailable, resilient.userGet("early").getErrorId(), "still open before the open duration");
+    now.addAndGet(Duration.ofMillis(300).toNanos());
+    assertEquals("trial", resilient.userGet("trial").getData().getLogin());
+    assertEquals(Arrays.asList("CLOSED>OPEN", "OPEN>HALF_OPEN", "HALF_OPEN>CLOSED"), events);
+    CircuitBreaker.Stats breakerStats = interceptor.getBreakers().values().iterator().next().getStats();
+    assertEquals(CircuitBreaker.State.CLOSED, breakerStats.getState());
+    assertEquals(1, breakerStats.getOpenCount());
+    assertTrue(breakerStats.getRejectedCount() >= 2, breakerStats.toString());
+    System.out.println(String.format("%s %s", interceptor.getStats(), breakerStats));
+
+    AbstractClient down = new AbstractClient(new RestTemplate());
+    down.setParams("http", "127.0.0.1", 1, null);
+    ResilienceInterceptor downInterceptor = down.enableResilience(AbstractClient.resilience().initialBackoff(1).maxBackoff(2).build());
+    assertEquals(ErrorCode.internalError, down.userGet("nobody").getErrorId());
+    assertEquals(2, downInterceptor.getStats().getRetryCount(), "connection refused retried");
+    assertThrows(IllegalArgumentException.class, () -> AbstractClient.resilience().maxAttempts(0).build());
+
+    ResilienceInterceptor direct = AbstractClient.resilience().failureThreshold(1).openDuration(300).ticker(now::get).build();
+    HttpRequest request = new SimpleClientHttpRequestFactory().createRequest(URI.create("http://10.0.0.9:8080/api"), HttpMethod.POST);
+    assertThrows(IOException.class, () -> direct.intercept(request, new byte[0], (r, b) -> {
+      throw new IOException("down");
+    }));
+    CircuitBreaker trial = direct.getBreakers().get("http://10.0.0.9:8080");
+    assertEquals(CircuitBreaker.State.OPEN, trial.getState());
+    now.addAndGet(Duration.ofMillis(300).toNanos());
+    assertThrows(StackOverflowError.class, () -> direct.intercept(request, new byte[0], (r, b) -> {
+      throw new StackOverflowError();
+    }));
+    assertEquals(CircuitBreaker.State.OPEN, trial.getState(), "an Error of the trial call opens the circuit again");
+    now.addAndGet(Duration.ofMillis(300).toNanos());
+    assertTrue(trial.tryAcquire(), "next trial allowed");
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.service.AbstractClient#setMetrics(com.dbs.lib.service.client.ClientMetrics)}.
+   */
+  @Test
+  public void testMetrics() {
+    AbstractClient instrumented = stub.configure(new AbstractClient(new RestTemplate()));
+    SimpleClientMetrics metrics = new SimpleClientMetrics();
+    instrumented.setMetrics(metrics);
+    instrumented.setMetrics(metrics);
+    assertEquals(1, instrumented.getRestTemplate().getInterceptors().size());
+    for (int i = 0; i < 20; i++) {
+      instrumented.userGet("metrics" + i);
+    }
+    instrumented.userCreate(new UserDto("metrics"));
+    stub.failures.put("/api/support/stats", 500);
+    try {
+      assertEquals(ErrorCode.internalError, instrumented.stats(null, null, null).getErrorId());
+    } finally {
+      stub.failures.clear();
+    }
+    stub.csvRows = 1000;
+    try {
+      assertEquals(1001L, instrumented.auditCsv(null, null, row -> {
+      }).getData().longValue());
+    } finally {
+      stub.csvRows = 0;
+    }
+    metrics.getOperations().forEach((operation, m) -> System.out.println(String.format("%s: %s", operation, m)));
+
+    SimpleClientMetrics.Operation userGet = metrics.get("userGet");
+    assertEquals(20, userGet.getCallCount());
+    assertEquals(Collections.singletonMap(ErrorCode.success, 20L), userGet.getOutcomes());
+    assertEquals(Collections.singletonMap(200, 20L), userGet.getStatuses());
+    assertEquals(0, userGet.getRequestBytes());
+    assertTrue(userGet.getResponseBytes() > 20 * 20, "json bodies read");
+    assertTrue(userGet.getPercentileMillis(0.5) <= userGet.getPercentileMillis(1.0));
+    assertEquals(20L, userGet.getHistogram().values().stream().mapToLong(Long::longValue).sum());
+
+    SimpleClientMetrics.Operation create = metrics.get("userCreate");
+    assertTrue(create.getRequestBytes() > 0);
+    assertEquals(Collections.singletonMap(ErrorCode.internalError, 1L), metrics.get("stats").getOutcomes());
+    assertEquals(Collections.singletonMap(500, 1L), metrics.get("stats").getStatuses());
+    SimpleClientMetrics.Operation audit = metrics.get("auditCsv");
+    assertTrue(audit.getResponseBytes() > 1000 * SupportApiStub.csvRow(1).length(), audit.toString());
+
+    instrumented.setMetrics(null);
+    instrumented.userGet("metrics");
+    assertEquals(20, userGet.getCallCount(), "no metrics once removed");
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.service.AbstractClient#enableLoadBalancing(LoadBalancer.Builder)}.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testLoadBalancing() throws Exception {
+    AtomicBoolean alive = new AtomicBoolean();
+    try (SupportApiStub other = new SupportApiStub()) {
+      AbstractClient balanced = stub.configure(new AbstractClient(new RestTemplate()));
+      String a = "http://127.0.0.1:" + stub.getPort();
+      String b = "http://127.0.0.1:" + other.getPort();
+      try (LoadBalancer balancer = balanced.enableLoadBalancing(AbstractClient.loadBalancing().endpoint(a).endpoint(b).endpoint("http://127.0.0.1:1")
+          .failureThreshold(2).probeInterval(50).probe(uri -> alive.get()))) {
+        String path = "/api/support/user/get";
+        int hitsA = stub.hits(path);
+        for (int i = 0; i < 30; i++) {
+          assertEquals("lb" + i, balanced.userGet("lb" + i).getData().getLogin(), "refused endpoint failed over");
+        }
+        LoadBalancer.Endpoint down = balancer.getEndpoints().get(2);
+        assertTrue(down.isEjected(), down.toString());
+        assertEquals(2, down.getRequestCount());
+        assertEquals(30, stub.hits(path) - hitsA + other.hits(path));
+        assertTrue(other.hits(path) >= 10, "round robin");
+        alive.set(true);
+        Thread.sleep(200);
+        assertFalse(down.isEjected(), "reinstated by the probe");
+        System.out.println(balancer.getEndpoints());
+      }
+
+      other.delayMillis = 30;
+      try (LoadBalancer balancer = balanced.enableLoadBalancing(AbstractClient.loadBalancing().strategy(LoadBalancer.Strategy.EWMA).endpoint(a)
+          .endpoint(b).probe(uri -> true))) {
+        assertEquals(1, balanced.getRestTemplate().getInterceptors().size(), "previous balancer replaced");
+        for (int i = 0; i < 20; i++) {
+          balanced.userGet("ewma");
+        }
+        System.out.println(balancer.getEndpoints());
+        assertTrue(balancer.getEndpoints().get(0).getRequestCount() > 15, "fastest endpoint preferred");
+      } finally {
+        other.delayMillis = 0;
+      }
+      assertTrue(balanced.probe(URI.create(b)), "answers over HTTP");
+      assertFalse(balanced.probe(URI.create("http://127.0.0.1:1")), "connection refused");
+
+      AbstractClient resilient = stub.configure(new AbstractClient(new RestTemplate()));
+      ResilienceInterceptor interceptor = resilient.enableResilience(AbstractClient.resilience().maxAttempts(1).failureThreshold(1)
+          .openDuration(60_000).build());
+      try (LoadBalancer balancer = resilient.enableLoadBalancing(AbstractClient.loadBalancing().endpoint(a).endpoint("http://127.0.0.1:1")
+          .endpoint(b).failureThreshold(1).probe(uri -> false))) {
+        String path = "/api/support/user/get";
+        for (int i = 0; i < 3; i++) {
+          assertEquals(ErrorCode.success, resilient.userGet("breaker" + i).getErrorId());
+        }
+        LoadBalancer.Endpoint down = balancer.getEndpoints().get(1);
+        assertTrue(down.isEjected(), down.toString());
+        long downRequests = down.getRequestCount();
+        interceptor.getBreakers().get(a).onFailure();
+        int hitsA = stub.hits(path);
+        int hitsB = other.hits(path);
+        for (int i = 0; i < 10; i++) {
+          assertEquals(ErrorCode.success, resilient.userGet("breaker" + i).getErrorId(), "open circuit failed over");
+        }
+        assertEquals(hitsA, stub.hits(path), "circuit of the first endpoint open");
+        assertEquals(hitsB + 10, other.hits(path));
+        assertEquals(downRequests, down.getRequestCount(), "ejected endpoint skipped");
+      }
+
+      try (SupportApiStub third = new SupportApiStub()) {
+        String c = "http://127.0.0.1:" + third.getPort();
+        AbstractClient guarded = stub.configure(new AbstractClient(new RestTemplate()));
+        ResilienceInterceptor breakers = guarded.enableResilience(AbstractClient.resilience().maxAttempts(1).failureThreshold(1)
+            .openDuration(60_000).build());
+        try (LoadBalancer balancer = guarded.enableLoadBalancing(AbstractClient.loadBalancing().endpoint(a).endpoint(b).endpoint(c)
+            .failureThreshold(100).probe(uri -> false))) {
+          String path = "/api/support/user/get";
+          for (int i = 0; i < 3; i++) {
+            assertEquals(ErrorCode.success, guarded.userGet("guarded" + i).getErrorId());
+          }
+          breakers.getBreakers().get(a).onFailure();
+          breakers.getBreakers().get(b).onFailure();
+          int hitsA = stub.hits(path);
+          int hitsB = other.hits(path);
+          int hitsC = third.hits(path);
+          for (int i = 0; i < 10; i++) {
+            assertEquals(ErrorCode.success, guarded.userGet("guarded" + i).getErrorId(), "two open circuits failed over");
+          }
+          assertEquals(hitsA, stub.hits(path));
+          assertEquals(hitsB, other.hits(path), "circuit of the fallback endpoint checked");
+          assertEquals(hitsC + 10, third.hits(path));
+
+          third.failures.put(path, 503);
+          assertNotEquals(ErrorCode.success, guarded.userGet("guarded").getErrorId());
+          assertEquals(CircuitBreaker.State.OPEN, breakers.getBreakers().get(c).getState(), "circuit of the fallback endpoint updated");
+          assertEquals(ErrorCode.unavailable, guarded.userGet("guarded").getErrorId(), "all circuits open");
+          assertEquals(hitsC + 11, third.hits(path));
+        } finally {
+          third.failures.clear();
+        }
+      }
+      assertThrows(IllegalArgumentException.class, () -> AbstractClient.loadBalancing().endpoint("10.0.0.2:8080"));
+    }
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.service.AbstractClient#enableCompression(int)}.
+   */
+  @Test
+  public void testCompression() throws Exception {
+    AbstractClient compressed = stub.configure(new AbstractClient(new RestTemplate()));
+    SimpleClientMetrics metrics = new SimpleClientMetrics();
+    compressed.setMetrics(metrics);
+    compressed.enableCompression(64);
+    compressed.enableCompression(64);
+    assertEquals(2, compressed.getRestTemplate().getInterceptors().size());
+    assertTrue(compressed.getRestTemplate().getInterceptors().get(0) instanceof MetricsInterceptor);
+
+    UserDto user = new UserDto(StringUtils.repeat("compressed", 20));
+    assertEquals(user.getLogin(), compressed.userCreate(user).getData().getLogin());
+    assertEquals("gzip", stub.requestEncoding);
+    assertEquals("small", compressed.userCreate(new UserDto("small")).getData().getLogin());
+    assertNull(stub.requestEncoding, "below threshold");
+    assertTrue(metrics.get("userCreate").getCounters().get(CompressionInterceptor.REQUEST_BYTES_SAVED) > 100);
+
+    stub.csvRows = 20_000;
+    try {
+      long start = System.nanoTime();
+      SimpleResponse<String[]> last = compressed.auditCsvStream(null, null, rows -> rows.reduce((a, b) -> b).orElse(null));
+      System.out.println(String.format("gzip audit CSV of %d rows streamed: %s", stub.csvRows, Duration.ofNanos(System.nanoTime() - start)));
+      assertEquals("20000", last.getData()[0]);
+    } finally {
+      stub.csvRows = 0;
+    }
+    SimpleClientMetrics.Operation audit = metrics.get("auditCsv");
+    long saved = audit.getCounters().get(CompressionInterceptor.RESPONSE_BYTES_SAVED);
+    System.out.println(String.format("auditCsv: %d bytes read, %d bytes saved", audit.getResponseBytes(), saved));
+    assertTrue(saved > audit.getResponseBytes() / 2, audit.toString());
+
+    stub.failures.put("/api/support/user/get", 404);
+    try {
+      SimpleResponse<UserDto> resp = compressed.userGet("missing");
+      assertEquals(ErrorCode.internalError, resp.getErrorId());
+      assertTrue(resp.getMessage().contains("stub failure 404"), "error body decompressed: " + resp.getMessage());
+    } finally {
+      stub.failures.clear();
+    }
+    assertThrows(IllegalArgumentException.class, () -> compressed.enableCompression(-1));
+
+    CompressionInterceptor interceptor = new CompressionInterceptor(1, Deflater.BEST_SPEED, () -> metrics, uri -> "direct");
+    byte[] random = new byte[200];
+    new Random(1).nextBytes(random);
+    MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.POST, URI.create("http://127.0.0.1/direct"));
+    AtomicReference<byte[]> sent = new AtomicReference<>();
+    interceptor.intercept(request, random, (r, b) -> {
+      sent.set(b);
+      return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+    }).close();
+    assertSame(random, sent.get(), "not smaller once gzipped, sent as is");
+    assertNull(request.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    assertNull(metrics.get("direct").getCounters().get(CompressionInterceptor.REQUEST_BYTES_SAVED));
+
+    byte[] text = StringUtils.repeat("pooled inflater ", 1000).getBytes(StandardCharsets.UTF_8);
+    ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+    try (DeflaterOutputStream out = new DeflaterOutputStream(deflated)) {
+      out.write(text);
+    }
+    byte[] gzipped = gzipWithName(text);
+    for (int i = 0; i < 3; i++) {
+      assertArrayEquals(text, decompress(interceptor, "gzip", gzipped), "inflater reused");
+      assertArrayEquals(text, decompress(interceptor, "deflate", deflated.toByteArray()));
+    }
+    gzipped[gzipped.length - 8] ^= 1;
+    assertThrows(ZipException.class, () -> decompress(interceptor, "gzip", gzipped), "CRC checked");
+    assertArrayEquals(text, decompress(interceptor, "gzip", gzipWithName(text)), "inflater reset after a failure");
+  }
+
+  private static byte[] decompress(CompressionInterceptor interceptor, String encoding, byte[] encoded) throws IOException {
+    MockClientHttpResponse response = new MockClientHttpResponse(encoded, HttpStatus.OK);
+    response.getHeaders().set(HttpHeaders.CONTENT_ENCODING, encoding);
+    MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET, URI.create("http://127.0.0.1/direct"));
+    try (ClientHttpResponse decoded = interceptor.intercept(request, new byte[0], (r, b) -> response)) {
+      return IOUtils.toByteArray(decoded.getBody());
+    }
+  }
+
+  private static byte[] gzipWithName(byte[] data) throws IOException {
+    ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+    try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+      out.write(data);
+    }
+    byte[] plain = gzip.toByteArray();
+    byte[] name = "audit.csv\0".getBytes(StandardCharsets.ISO_8859_1);
+    byte[] named = new byte[plain.length + name.length];
+    System.arraycopy(plain, 0, named, 0, 10);
+    named[3] = 8;
+    System.arraycopy(name, 0, named, 10, name.length);
+    System.arraycopy(plain, 10, named, 10 + name.length, plain.length - 10);
+    return named;
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.service.AbstractClient#getCodecs()}.
+   */
+  @Test
+  public void testCodecs() throws Exception {
+    ObjectMapper mapper = new ObjectMapper();
+    RestTemplate restTemplate = new RestTemplate();
+    restTemplate.getMessageConverters().removeIf(c -> c instanceof MappingJackson2HttpMessageConverter);
+    restTemplate.getMessageConverters().add(new MappingJackson2HttpMessageConverter(mapper));
+    AbstractClient coded = stub.configure(new AbstractClient(restTemplate));
+    CodecRegistry codecs = coded.getCodecs();
+    assertSame(mapper, codecs.getMapper());
+    assertSame(codecs, coded.getCodecs());
+    assertSame(codecs.reader(AbstractClient.typeUserDto), codecs.reader(AbstractClient.typeUserDto));
+    assertSame(codecs.writer(UserDto.class), codecs.writer(UserDto.class));
+
+    long start = System.nanoTime();
+    for (int i = 0; i < 200; i++) {
+      assertEquals("coded" + i, coded.userGet("coded" + i).getData().getLogin());
+    }
+    System.out.println(String.format("200 userGet with cached codecs: %s", Duration.ofNanos(System.nanoTime() - start)));
+    assertEquals("jane", coded.userUpdate(new UserDto("jane")).getData().getLogin());
+    assertEquals(2, coded.userCreateBatch(Arrays.asList(new UserDto("a"), new UserDto("b"))).getData().size());
+    assertEquals("from=2026-01-01", coded.auditCsv(LocalDate.of(2026, 1, 1), null).getMessage());
+
+    stub.failures.put("/api/support/user/get", 404);
+    try {
+      SimpleResponse<UserDto> resp = coded.userGet("missing");
+      assertEquals(ErrorCode.internalError, resp.getErrorId());
+      assertTrue(resp.getMessage().contains("stub failure 404"), resp.getMessage());
+    } finally {
+      stub.failures.clear();
+    }
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.service.AbstractClient#enableBinaryFormat(CodecRegistry)}.
+   */
+  @Test
+  public void testBinaryFormat() throws Exception {
+    AbstractClient binary = stub.configure(new AbstractClient(new RestTemplate()));
+    CodecRegistry smile = binary.enableBinaryFormat(CodecRegistry.smile());
+    assertEquals(CodecRegistry.APPLICATION_SMILE, smile.getMediaType());
+    assertEquals("json", binary.userCreate(new UserDto("json")).getData().getLogin());
+    assertFalse(binary.isBinaryAccepted(), "peer answering JSON only");
+    assertTrue(stub.requestContentType.startsWith("application/json"));
+
+    stub.smile = true;
+    try {
+      assertEquals("john", binary.userGet("john").getData().getLogin());
+      assertTrue(binary.isBinaryAccepted());
+      assertEquals("jane", binary.userCreate(new UserDto("jane")).getData().getLogin());
+      assertEquals(SupportApiStub.SMILE, stub.requestContentType);
+      assertEquals(2, binary.userUpdateBatch(Arrays.asList(new UserDto("a"), new UserDto("bad"))).getData().size());
+      assertEquals("from=2026-01-01", binary.stats(LocalDate.of(2026, 1, 1), null, null).getMessage());
+
+      stub.failures.put("/api/support/user/get", 404);
+      try {
+        SimpleResponse<UserDto> resp = binary.userGet("missing");
+        assertTrue(resp.getMessage().contains("404"), resp.getMessage());
+      } finally {
+        stub.failures.clear();
+      }
+    } finally {
+      stub.smile = false;
+    }
+    assertEquals("fallback", binary.userUpdate(new UserDto("fallback")).getData().getLogin(), "415 sent again in JSON");
+    assertFalse(binary.isBinaryAccepted());
+    assertTrue(stub.requestContentType.startsWith("application/json"));
+
+    SimpleResponse<UserDto> value = new SimpleResponse<>(ErrorCode.success, "ok");
+    value.setData(new UserDto("john.doe@example.co.id", "John", "Doe", "john.doe@example.co.id", true, "en", "example"));
+    byte[] json = binary.getCodecs().writer(SimpleResponse.class).writeValueAsBytes(value);
+    byte[] bytes = smile.writer(SimpleResponse.class).writeValueAsBytes(value);
+    System.out.println(String.format("SimpleResponse<UserDto>: %d bytes in JSON, %d bytes in Smile", json.length, bytes.length));
+    assertTrue(bytes.length < json.length);
+    assertEquals(value.getData(), smile.reader(AbstractClient.typeUserDto).<SimpleResponse<UserDto>> readValue(bytes).getData());
+    assertNull(binary.enableBinaryFormat(null));
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.service.AbstractClient#enableThrottling(ThrottlingInterceptor.Builder)}.
+   */
+  @Test
+  public void testThrottling() throws Exception {
+    AbstractClient throttled = stub.configure(new AbstractClient(new RestTemplate()));
+    SimpleClientMetrics metrics = new SimpleClientMetrics();
+    throttled.setMetrics(metrics);
+    throttled.enableThrottling(AbstractClient.throttling());
+    AtomicLong now = new AtomicLong();
+    ThrottlingInterceptor throttling = throttled.enableThrottling(AbstractClient.throttling().bulkhead(2, 1).maxWait(2000)
+        .operationRateLimit("stats", 4, 2).ticker(now::get));
+    assertEquals(2, throttled.getRestTemplate().getInterceptors().size());
+    assertSame(throttling, throttled.getRestTemplate().getInterceptors().get(1), "right after the metrics");
+
+    assertEquals(ErrorCode.success, throttled.stats(null, null, null).getErrorId());
+    assertEquals(ErrorCode.success, throttled.stats(null, null, null).getErrorId());
+    assertEquals(ErrorCode.tooManyRequests, throttled.stats(null, null, null).getErrorId(), "burst of 2 used");
+    now.addAndGet(Duration.ofMillis(200).toNanos());
+    assertEquals(ErrorCode.tooManyRequests, throttled.stats(null, null, null).getErrorId(), "0.8 token after 200 ms");
+    now.addAndGet(Duration.ofMillis(50).toNanos());
+    assertEquals(ErrorCode.success, throttled.stats(null, null, null).getErrorId(), "refilled at 4 per second");
+    assertEquals(2L, metrics.get("stats").getCounters().get(ThrottlingInterceptor.RATE_LIMITED));
+    assertEquals(2L, metrics.get("stats").getOutcomes().get(ErrorCode.tooManyRequests));
+    assertNull(throttling.getRateLimit());
+    assertEquals(2, throttling.getOperationRateLimits().get("stats").getStats().getRejectedCount());
+
+    stub.delayMillis = 200;
+    stub.maxActive.set(0);
+    ExecutorService executor = Executors.newFixedThreadPool(5);
+    try {
+      long start = System.nanoTime();
+      List<Future<SimpleResponse<UserDto>>> futures = new ArrayList<>();
+      for (int i = 0; i < 5; i++) {
+        String login = "bulkhead" + i;
+        futures.add(executor.submit(() -> throttled.userGet(login)));
+      }
+      int rejected = 0;
+      for (Future<SimpleResponse<UserDto>> future : futures) {
+        if (ErrorCode.tooManyRequests == future.get().getErrorId()) {
+          rejected++;
+        }
+      }
+      System.out.println(String.format("5 concurrent calls of 200 ms behind a bulkhead of 2 + 1 waiting: %s, %s",
+          Duration.ofNanos(System.nanoTime() - start), throttling.getBulkhead().getStats()));
+      assertEquals(2, rejected, "2 in flight, 1 waiting, 2 rejected");
+      assertTrue(stub.maxActive.get() <= 2);
+    } finally {
+      executor.shutdown();
+      stub.delayMillis = 0;
+    }
+    Bulkhead.Stats stats = throttling.getBulkhead().getStats();
+    assertEquals(0, stats.getInFlight(), "permits released with the responses");
+    assertEquals(0, stats.getWaiting());
+    assertEquals(2, stats.getRejectedCount());
+    assertEquals(2L, metrics.get("userGet").getCounters().get(ThrottlingInterceptor.BULKHEAD_REJECTED));
+
+    stub.csvRows = 1000;
+    try {
+      assertEquals(1001L, throttled.auditCsv(null, null, row -> {
+        assertEquals(1, throttling.getBulkhead().getStats().getInFlight(), "permit held while the body streams");
+      }).getData());
+    } finally {
+      stub.csvRows = 0;
+    }
+    assertEquals(0, throttling.getBulkhead().getStats().getInFlight());
+    assertThrows(IllegalArgumentException.class, () -> throttled.enableThrottling(AbstractClient.throttling().rateLimit(1, 0)));
+
+    ThrottlingInterceptor both = throttled.enableThrottling(AbstractClient.throttling().rateLimit(1, 1)
+        .operationRateLimit("stats", 1, 2).ticker(now::get));
+    assertEquals(ErrorCode.success, throttled.stats(null, null, null).getErrorId());
+    assertEquals(ErrorCode.tooManyRequests, throttled.stats(null, null, null).getErrorId(), "client burst of 1 used");
+    TokenBucket.Stats operationStats = both.getOperationRateLimits().get("stats").getStats();
+    assertEquals(1.0, operationStats.getAvailable(), 0.001, "operation token given back");
+    assertEquals(1, operationStats.getGrantedCount());
+    now.addAndGet(Duration.ofSeconds(1).toNanos());
+    assertEquals(ErrorCode.success, throttled.stats(null, null, null).getErrorId());
+  }
+
+  private static URI legacyUri(AbstractClient c, String path, MultiValueMap<String, String> params) {
+    return UriComponentsBuilder.newInstance().scheme(c.getScheme()).host(c.getHost()).port(c.getPort()).path(path).queryParams(params).build()
+        .encode().toUri();
+  }
+}
@@ -0,0 +1,126 @@
+/**
+ * AbstractReactiveClientTest
+ */
+package com.dbs.lib.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.dbs.lib.Utils;
+import com.dbs.lib.dto.SimpleResponse;
+import com.dbs.lib.dto.UserDto;
+import com.dbs.lib.dto.enumeration.ErrorCode;
+
+/**
+ *
+ * @author dbs at 18 Oct 2026 20:21:09
+ * @since 1.2.0
+ * @version 1.0
+ */
+@Tag("client")
+public class AbstractReactiveClientTest {
+
+  static SupportApiStub stub;
+  static AbstractReactiveClient client;
+
+  @BeforeAll
+  public static void setUp() throws Exception {
+    stub = new SupportApiStub();
+    client = stub.configure(new AbstractReactiveClient(WebClient.create()));
+  }
+
+  @AfterAll
+  public static void tearDown() {
+    stub.close();
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.service.AbstractReactiveClient#userGetMono(String)}.
+   */
+  @Test
+  public void testCalls() {
+    SimpleResponse<UserDto> resp = client.userGetMono("john").block();
+    assertEquals(ErrorCode.success, resp.getErrorId());
+    assertEquals("john", resp.getData().getLogin());
+    assertEquals("jane", client.userCreateMono(new UserDto("jane")).block().getData().getLogin());
+    assertEquals("jane", client.userUpdateMono(new UserDto("jane")).block().getData().getLogin());
+    assertEquals("from=2026-01-01&to=2026-01-31", client.statsMono(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 31)).block().getMessage());
+    assertEquals("null", client.auditCsvMono(null, null).block().getMessage());
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.service.AbstractReactiveClient#userUpdateMono(UserDto)} and
+   * {@link com.dbs.lib.service.AbstractReactiveClient#userCreateMono(UserDto)}.
+   */
+  @Test
+  public void testUserCacheInvalidation() {
+    AbstractReactiveClient cached = stub.configure(new AbstractReactiveClient(WebClient.create()));
+    cached.enableUserCache(100, Duration.ofMinutes(5));
+    String path = "/api/support/user/get";
+    int hits = stub.hits(path);
+    cached.userGet("mono");
+    cached.userGet("mono");
+    assertEquals(hits + 1, stub.hits(path), "second read served from the cache");
+    cached.userUpdateMono(new UserDto("mono")).block();
+    cached.userGet("mono");
+    assertEquals(hits + 2, stub.hits(path), "read again after the update");
+    cached.userCreateMono(new UserDto("mono")).block();
+    cached.userGet("mono");
+    assertEquals(hits + 3, stub.hits(path), "read again after the creation");
+    cached.userGet("mono");
+    assertEquals(hits + 3, stub.hits(path));
+  }
+
+  /**
+   * Test method for {@link com.dbs.lib.service.AbstractReactiveClient#handleException(Exception)}.
+   */
+  @Test
+  public void testErrorMapping() {
+    stub.failures.put("/api/support/stats", 503);
+    try {
+      SimpleResponse<String> resp = client.statsMono(null, null).block();
+      assertEquals(ErrorCode.internalError, resp.getErrorId());
+      assertTrue(resp.getMessage().startsWith("503"), resp.getMessage());
+    } finally {
+      stub.failures.clear();
+    }
+    AbstractReactiveClient down = new AbstractReactiveClient(WebClient.create());
+    down.setParams("http", "127.0.0.1", 1, null);
+    SimpleResponse<UserDto> resp = down.userGetMono("john").block();
+    assertEquals(ErrorCode.internalError, resp.getErrorId());
+    assertNotNull(resp.getMessage());
+  }
+
+  /**
+   * fan out many calls without a thread per request
+   */
+  @Test
+  public void testFanOut() {
+    stub.delayMillis = 50;
+    try {
+      long start = System.nanoTime();
+      List<CompletableFuture<SimpleResponse<UserDto>>> futures = new ArrayList<>();
+      for (int i = 0; i < 200; i++) {
+        futures.add(client.userGetMono("user" + i).toFuture());
+      }
+      List<SimpleResponse<UserDto>> all = Utils.sequence(futures).join();
+      System.out.println(String.format("200 calls of 50 ms: %s", Duration.ofNanos(System.nanoTime() - start)));
+      for (int i = 0; i < all.size(); i++) {
+        assertEquals("user" + i, all.get(i).getData().getLogin());
+      }
+    } finally {
+      stub.delayMillis = 0;
+    }
+  }
+}
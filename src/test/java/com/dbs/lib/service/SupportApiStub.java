@@ -0,0 +1,249 @@
+/**
+ * SupportApiStub
+ */
+package com.dbs.lib.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.IOUtils;
+
+import com.dbs.lib.dto.SimpleResponse;
+import com.dbs.lib.dto.UserDto;
+import com.dbs.lib.dto.enumeration.ErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * in-process HTTP server answering the support API paths of {@link AbstractClient}
+ *
+ * @author dbs at 18 Oct 2026 20:05:37
+ * @since 1.2.0
+ * @version 1.0
+ */
+class SupportApiStub implements AutoCloseable {
+
+  static final String SMILE = "application/x-jackson-smile";
+
+  final ObjectMapper mapper = new ObjectMapper();
+  final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+  final HttpServer server;
+  final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+  /**
+   * status to answer instead of 200, by path
+   */
+  final Map<String, Integer> failures = new ConcurrentHashMap<>();
+  /**
+   * number of failures left by path, unlimited if absent
+   */
+  final Map<String, AtomicInteger> failuresLeft = new ConcurrentHashMap<>();
+  volatile long delayMillis;
+  /**
+   * number of rows of the audit CSV, answered as text/csv when accepted
+   */
+  volatile int csvRows;
+  /**
+   * version of each user, sent as ETag by user/get and increased by user/create and user/update
+   */
+  final Map<String, AtomicInteger> versions = new ConcurrentHashMap<>();
+  /**
+   * requests being handled, and the highest value reached
+   */
+  final AtomicInteger active = new AtomicInteger();
+  final AtomicInteger maxActive = new AtomicInteger();
+  /**
+   * Content-Encoding of the last request body
+   */
+  volatile String requestEncoding;
+  /**
+   * Smile request and response bodies supported, else a Smile request body is answered 415
+   */
+  volatile boolean smile;
+  /**
+   * Content-Type of the last request body
+   */
+  volatile String requestContentType;
+
+  static {
+    // headers and body are written separately, avoid Nagle delay with keep-alive clients
+    System.setProperty("sun.net.httpserver.nodelay", "true");
+  }
+
+  SupportApiStub() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext("/api/support/", this::handle);
+    server.start();
+  }
+
+  int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  int hits(String path) {
+    AtomicInteger count = hits.get(path);
+    return null == count ? 0 : count.get();
+  }
+
+  <T extends AbstractClient> T configure(T client) {
+    client.setParams("http", "127.0.0.1", getPort(), null);
+    return client;
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    String path = exchange.getRequestURI().getPath();
+    hits.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+    maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+    try (InputStream in = exchange.getRequestBody()) {
+      requestEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+      byte[] body = "gzip".equals(requestEncoding) ? IOUtils.toByteArray(new GZIPInputStream(in)) : IOUtils.toByteArray(in);
+      requestContentType = body.length > 0 ? exchange.getRequestHeaders().getFirst("Content-Type") : null;
+      boolean smileBody = null != requestContentType && requestContentType.startsWith(SMILE);
+      if (smileBody && !smile) {
+        send(exchange, 415, new SimpleResponse<>(ErrorCode.format, "unsupported " + requestContentType));
+        return;
+      }
+      ObjectMapper bodyMapper = smileBody ? smileMapper : mapper;
+      if (delayMillis > 0) {
+        Thread.sleep(delayMillis);
+      }
+      Integer failure = failures.get(path);
+      AtomicInteger left = failuresLeft.get(path);
+      if (null != failure && (null == left || left.getAndDecrement() > 0)) {
+        send(exchange, failure, new SimpleResponse<>(ErrorCode.error, "stub failure " + failure));
+        return;
+      }
+      String query = exchange.getRequestURI().getQuery();
+      switch (path) {
+        case "/api/support/user/create":
+        case "/api/support/user/update":
+          UserDto user = bodyMapper.readValue(body, UserDto.class);
+          if (null != user.getLogin()) {
+            versions.computeIfAbsent(user.getLogin(), l -> new AtomicInteger()).incrementAndGet();
+          }
+          send(exchange, 200, response(user));
+          break;
+        case "/api/support/user/createBatch":
+        case "/api/support/user/updateBatch":
+          List<SimpleResponse<UserDto>> results = new ArrayList<>();
+          for (UserDto u : bodyMapper.readValue(body, UserDto[].class)) {
+            if (null == u.getLogin() || u.getLogin().startsWith("bad")) {
+              SimpleResponse<UserDto> invalid = new SimpleResponse<>(ErrorCode.format, "invalid login");
+              invalid.setData(u);
+              results.add(invalid);
+            } else {
+              versions.computeIfAbsent(u.getLogin(), l -> new AtomicInteger()).incrementAndGet();
+              results.add(response(u));
+            }
+          }
+          SimpleResponse<List<SimpleResponse<UserDto>>> batch = new SimpleResponse<>(ErrorCode.success, "ok");
+          batch.setData(results);
+          send(exchange, 200, batch);
+          break;
+        case "/api/support/user/get":
+          String login = query.substring(query.indexOf('=') + 1);
+          String etag = "\"" + login + "-" + versions.computeIfAbsent(login, l -> new AtomicInteger()).get() + "\"";
+          exchange.getResponseHeaders().set("ETag", etag);
+          if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            break;
+          }
+          send(exchange, 200, response(new UserDto(login)));
+          break;
+        case "/api/support/stats":
+          send(exchange, 200, new SimpleResponse<>(ErrorCode.success, String.valueOf(query)));
+          break;
+        case "/api/support/csvAll":
+          String accept = exchange.getRequestHeaders().getFirst("Accept");
+          if (csvRows > 0 && null != accept && accept.contains("text/csv")) {
+            sendCsv(exchange, csvRows);
+          } else {
+            SimpleResponse<String> resp = new SimpleResponse<>(ErrorCode.success, String.valueOf(query));
+            resp.setAdditionalProperty("csv", "id,name\r\n1,\"Doe, John\"\r\n");
+            send(exchange, 200, resp);
+          }
+          break;
+        default:
+          send(exchange, 404, new SimpleResponse<>(ErrorCode.notFound, path));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      active.decrementAndGet();
+      exchange.close();
+    }
+  }
+
+  private static SimpleResponse<UserDto> response(UserDto user) {
+    SimpleResponse<UserDto> resp = new SimpleResponse<>(ErrorCode.success, "ok");
+    resp.setData(user);
+    return resp;
+  }
+
+  private void send(HttpExchange exchange, int status, Object payload) throws IOException {
+    String accept = exchange.getRequestHeaders().getFirst("Accept");
+    byte[] json;
+    if (smile && null != accept && accept.contains(SMILE)) {
+      json = smileMapper.writeValueAsBytes(payload);
+      exchange.getResponseHeaders().set("Content-Type", SMILE);
+    } else {
+      json = mapper.writeValueAsString(payload).getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", "application/json;charset=UTF-8");
+    }
+    if (acceptsGzip(exchange)) {
+      exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+      exchange.sendResponseHeaders(status, 0);
+      try (OutputStream out = new GZIPOutputStream(exchange.getResponseBody())) {
+        out.write(json);
+      }
+      return;
+    }
+    exchange.sendResponseHeaders(status, json.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(json);
+    }
+  }
+
+  private static boolean acceptsGzip(HttpExchange exchange) {
+    String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+    return null != accept && accept.contains("gzip");
+  }
+
+  static String csvRow(int i) {
+    return String.format("%d,\"Doe, John %d\",\"said \"\"hi\"\"\nthen left\",628128%07d\r\n", i, i, i);
+  }
+
+  private void sendCsv(HttpExchange exchange, int rows) throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", "text/csv;charset=UTF-8");
+    boolean gzip = acceptsGzip(exchange);
+    if (gzip) {
+      exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+    }
+    exchange.sendResponseHeaders(200, 0);
+    OutputStream raw = gzip ? new GZIPOutputStream(exchange.getResponseBody(), 65536) : exchange.getResponseBody();
+    try (OutputStream out = new java.io.BufferedOutputStream(raw, 65536)) {
+      out.write("id,name,comment,msisdn\r\n".getBytes(StandardCharsets.UTF_8));
+      for (int i = 1; i <= rows; i++) {
+        out.write(csvRow(i).getBytes(StandardCharsets.UTF_8));
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+  }
+}